@@ -0,0 +1,355 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import Embeddings.CircularEmbedding;
+import Embeddings.GridEmbedding;
+import Embeddings.LayeredEmbedding;
+import Embeddings.LayoutCache;
+import Embeddings.LinearEmbedding;
+import Embeddings.MultilevelEmbedding;
+import Embeddings.RandomEmbedding;
+import Embeddings.SpectralEmbedding;
+import Embeddings.SpringEmbedding;
+import Graph.BinaryGraphFile;
+import Graph.Graph;
+import GraphDrawing.GraphDrawer;
+/**
+ * Command line interface to lay out and draw many graphs without a screen.
+ * The graphs are read from edge list files or binary graph files (see
+ * {@link Graph.BinaryGraphFile BinaryGraphFile}), laid out with one of the
+ * layouts of the GUI and written either as pictures, drawn exactly as by
+ * the GUI, or as binary graph files containing the layout. The files are
+ * processed in parallel by a fixed number of threads, each of which works
+ * on one graph at a time, so at most that many graphs are in memory. For
+ * each file the times for loading, layout and drawing are printed, at the
+ * end the throughput in graphs per second.
+ * <p>
+ * Usage: java Batch [options] files or directories...
+ * <ul>
+ * <li> -layout grid|random|circular|layered|linear|spectral|spectral3d|spring|
+ * spring3d|multilevel|multilevel3d (default: spring)
+ * <li> -format png|jpg|bin (default: png)
+ * <li> -size the width and height of the pictures in pixel (default: 800)
+ * <li> -threads number of threads (default: number of processors)
+ * <li> -out directory of the output files (default: the directory of each
+ * input file)
+ * <li> -seed seed of the random layouts (default: 1)
+ * <li> -undirected treat the graphs as undirected
+ * <li> -cache use the {@link Embeddings.LayoutCache LayoutCache} in the home
+ * directory
+ * </ul>
+ * The files of a directory are processed in alphabetical order, except
+ * for pictures and files with the ending of the output format, which are
+ * skipped, such that the outputs of an earlier run are not read again.
+ * A file whose output would overwrite an input file or the output of an
+ * earlier file, e.g. x.bin with -format bin or a.bin after a.txt, is not
+ * processed and counts as failed. The throughput only counts the graphs
+ * which were processed successfully.
+ *
+ * @author Clemens Hofstadler, Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class Batch {
+	/**
+	 * The names of all layouts.
+	 */
+	private static final String[] LAYOUTS = {"grid", "random", "circular", "layered", "linear",
+			"spectral", "spectral3d", "spring", "spring3d", "multilevel", "multilevel3d"};
+	/**
+	 * The names of all output formats.
+	 */
+	private static final String[] FORMATS = {"png", "jpg", "bin"};
+
+	private String layout = "spring";
+	private String format = "png";
+	private int size = 800;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File out;
+	private long seed = 1;
+	private boolean directed = true;
+	private LayoutCache cache;
+
+//===========================================================================================
+	/**
+	 * Runs the batch job and exits with status 1 if a file failed and with
+	 * status 2 if the arguments are invalid.
+	 *
+	 * @param args Options and files, see above.
+	 */
+	public static void main(String[] args) {
+		//must be set before the first use of AWT
+		System.setProperty("java.awt.headless", "true");
+		Batch batch = new Batch();
+		ArrayList<File> files = new ArrayList<>();
+		try {
+			for(int i = 0; i < args.length; i++) {
+				if(!args[i].startsWith("-")) {
+					files.add(new File(args[i]));
+					continue;
+				}
+				if(args[i].equals("-undirected"))
+					batch.directed = false;
+				else if(args[i].equals("-cache"))
+					batch.cache = new LayoutCache();
+				else if(i + 1 == args.length)
+					throw new IllegalArgumentException("Missing value of " + args[i]);
+				else if(args[i].equals("-layout"))
+					batch.layout = choose(args[++i], LAYOUTS);
+				else if(args[i].equals("-format"))
+					batch.format = choose(args[++i], FORMATS);
+				else if(args[i].equals("-size"))
+					batch.size = positive(args[++i]);
+				else if(args[i].equals("-threads"))
+					batch.threads = positive(args[++i]);
+				else if(args[i].equals("-out"))
+					batch.out = new File(args[++i]);
+				else if(args[i].equals("-seed"))
+					batch.seed = Long.parseLong(args[++i]);
+				else
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+			if(files.isEmpty())
+				throw new IllegalArgumentException("No input files");
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: java Batch [-layout " + String.join("|", LAYOUTS) + "] [-format "
+					+ String.join("|", FORMATS) + "] [-size pixels] [-threads number] [-out directory]"
+					+ " [-seed number] [-undirected] [-cache] files or directories...");
+			System.exit(2);
+		}
+
+		int failed = batch.run(batch.expand(files));
+		System.exit(failed > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Processes all files on a pool of threads and prints a line for each
+	 * file as soon as it is finished.
+	 *
+	 * @param files The input files.
+	 * @return The number of files which failed.
+	 */
+	private int run(ArrayList<File> files) {
+		if(out != null)
+			out.mkdirs();
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ExecutorCompletionService<String> results = new ExecutorCompletionService<>(pool);
+		//no output may overwrite an input or another output
+		HashSet<File> inputs = new HashSet<>();
+		for(File file: files)
+			inputs.add(canonical(file));
+		HashMap<File, File> outputs = new HashMap<>();
+		int failed = 0;
+		int submitted = 0;
+		int processed = 0;
+		for(File file: files) {
+			File output = canonical(output(file));
+			File other = null;
+			if(inputs.contains(output) || (other = outputs.putIfAbsent(output, file)) != null) {
+				failed++;
+				System.out.println(file.getName() + " failed: output " + output
+						+ (other == null ? " is an input file" : " is already the output of " + other));
+				continue;
+			}
+			results.submit(() -> process(file, output));
+			submitted++;
+		}
+		pool.shutdown();
+
+		for(int i = 0; i < submitted; i++) {
+			try {
+				System.out.println(results.take().get());
+				processed++;
+			} catch (ExecutionException e) {
+				failed++;
+				System.out.println(e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				pool.shutdownNow();
+				Thread.currentThread().interrupt();
+				return failed + submitted - i;
+			}
+		}
+		try {
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d graphs (%d failed) in %.2f s on %d threads, %.2f graphs/s%n", processed,
+				failed, seconds, threads, processed / seconds);
+		return failed;
+	}
+
+	/**
+	 * Loads, lays out and writes one graph.
+	 *
+	 * @param file An input file.
+	 * @param output The output file.
+	 * @return A line describing the graph and the times of all steps.
+	 * @throws Exception If the graph cannot be read, laid out or written.
+	 */
+	private String process(File file, File output) throws Exception {
+		try {
+			long time0 = System.nanoTime();
+			Graph G = BinaryGraphFile.load(file);
+			G.setDirected(directed);
+			long time1 = System.nanoTime();
+			if(cache != null)
+				cache.defineLayout(G, dimension(), this::layout, layout, seed);
+			else
+				layout(G);
+			long time2 = System.nanoTime();
+			write(G, output);
+			long time3 = System.nanoTime();
+			return String.format("%-40s %9d nodes %10d edges  load %9.1f ms  layout %9.1f ms  write %9.1f ms",
+					file.getName(), G.nodes().size(), G.edgeCount(), (time1 - time0) / 1e6,
+					(time2 - time1) / 1e6, (time3 - time2) / 1e6);
+		} catch (Exception | Error e) {
+			throw new Exception(file.getName() + " failed: " + e, e);
+		}
+	}
+
+//===========================================================================================
+	/**
+	 * Lays out a graph with the chosen layout.
+	 *
+	 * @param G A graph.
+	 */
+	private void layout(Graph G) {
+		if(layout.equals("grid"))
+			GridEmbedding.defineLayout(G);
+		else if(layout.equals("random"))
+			RandomEmbedding.defineLayout(G, new Random(seed));
+		else if(layout.equals("circular"))
+			CircularEmbedding.defineLayout(G);
+		else if(layout.equals("layered"))
+			LayeredEmbedding.defineLayout(G);
+		else if(layout.equals("linear"))
+			LinearEmbedding.defineLayout(G);
+		else if(layout.startsWith("spectral"))
+			SpectralEmbedding.defineLayout(G, dimension());
+		else if(layout.startsWith("multilevel"))
+			MultilevelEmbedding.defineLayout(G, dimension());
+		else {
+			SpringEmbedding engine = new SpringEmbedding();
+			engine.setSeed(seed);
+			engine.layout(G, dimension(), 0);
+		}
+	}
+
+	/**
+	 * Writes a graph as a picture or as a binary graph file.
+	 *
+	 * @param G A graph with a layout.
+	 * @param file The output file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(Graph G, File file) throws IOException {
+		if(format.equals("bin")) {
+			BinaryGraphFile.write(G, file);
+			return;
+		}
+		boolean linearEdges = !layout.equals("linear");
+		BufferedImage image = GraphDrawer.drawImage(G, size, linearEdges, dimension() == 3);
+		if(!ImageIO.write(image, format, file))
+			throw new IOException("No writer for " + format);
+	}
+
+	/**
+	 * Returns the dimension of the chosen layout.
+	 */
+	private int dimension() {
+		return layout.endsWith("3d") ? 3 : 2;
+	}
+
+	/**
+	 * Returns the output file of an input file, which has the same name
+	 * but the ending of the output format.
+	 */
+	private File output(File file) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		if(dot > 0)
+			name = name.substring(0, dot);
+		File directory = out != null ? out : file.getAbsoluteFile().getParentFile();
+		return new File(directory, name + "." + format);
+	}
+
+	/**
+	 * Returns the canonical form of a file, or its absolute form if the
+	 * canonical one cannot be determined.
+	 */
+	private static File canonical(File file) {
+		try {
+			return file.getCanonicalFile();
+		} catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	/**
+	 * Replaces directories by the files they contain which can be loaded,
+	 * i.e. which are no pictures and do not have the ending of the output
+	 * format.
+	 */
+	private ArrayList<File> expand(ArrayList<File> files) {
+		ArrayList<File> result = new ArrayList<>();
+		for(File file: files) {
+			File[] content = file.listFiles(f -> f.isFile() && loadable(f));
+			if(content == null) {
+				result.add(file);
+				continue;
+			}
+			Arrays.sort(content);
+			result.addAll(Arrays.asList(content));
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether a file of a directory is taken as input: pictures and
+	 * outputs of an earlier run with the same format are skipped.
+	 */
+	private boolean loadable(File file) {
+		String name = file.getName().toLowerCase();
+		for(String ending: new String[] {".png", ".jpg", ".jpeg", "." + format})
+			if(name.endsWith(ending))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether a value is one of the allowed values.
+	 */
+	private static String choose(String value, String[] allowed) {
+		for(String a: allowed)
+			if(a.equals(value))
+				return value;
+		throw new IllegalArgumentException("Invalid value " + value + ", allowed: " + String.join(", ", allowed));
+	}
+
+	/**
+	 * Parses a positive integer.
+	 */
+	private static int positive(String value) {
+		int result = Integer.parseInt(value);
+		if(result <= 0)
+			throw new IllegalArgumentException("Invalid value " + value + ", must be positive");
+		return result;
+	}
+}
@@ -0,0 +1,368 @@
+package Embeddings;
+
+import java.util.Arrays;
+
+/**
+ * Quadtree (in 2 dimensions) or octree (in 3 dimensions) over the positions of
+ * the nodes of a graph, used to approximate the repulsive forces of the
+ * {@link SpringEmbedding SpringEmbedding} with the Barnes-Hut method. Each cell
+ * of the tree stores how many nodes it contains and their center of mass. A
+ * cell which is small compared to its distance to a node (i.e. width/distance
+ * is below the opening angle theta) acts on this node like a single node of the
+ * corresponding mass placed at its center of mass. Thus the repulsive force
+ * acting on one node can be computed in O(log N) instead of O(N).
+ * <p>
+ * The tree is stored in primitive arrays which are reused when the tree is
+ * rebuilt, hence rebuilding the tree in every iteration of a layout does not
+ * allocate any memory once the arrays are large enough.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class BarnesHutTree {
+	/**
+	 * Cells on this level are not split any further. All nodes ending up in such
+	 * a cell (which only happens for (almost) coinciding nodes) are stored in a
+	 * list.
+	 */
+	private static final int MAXIMUM_DEPTH = 48;
+
+	/**
+	 * Can be 2 or 3. Number of coordinates of the nodes.
+	 */
+	private final int dimension;
+	/**
+	 * Number of children of a cell, i.e. 4 for a quadtree and 8 for an octree.
+	 */
+	private final int childrenPerCell;
+	/**
+	 * Number of cells currently used.
+	 */
+	private int cells;
+	/**
+	 * Geometric center of each cell; the coordinates of cell c are stored at the
+	 * positions c*dimension, ..., c*dimension+dimension-1.
+	 */
+	private double[] center;
+	/**
+	 * Side length of each cell.
+	 */
+	private double[] width;
+	/**
+	 * Number of nodes within each cell.
+	 */
+	private int[] mass;
+	/**
+	 * Sum (and after building the tree the mean) of the positions of all nodes
+	 * within each cell. Stored like the field center.
+	 */
+	private double[] centerOfMass;
+	/**
+	 * Indices of the children of each cell; the children of cell c are stored at
+	 * the positions c*childrenPerCell, ..., c*childrenPerCell+childrenPerCell-1.
+	 * -1 if a child does not exist (or the cell is a leaf).
+	 */
+	private int[] children;
+	/**
+	 * First node stored in each leaf; -1 for empty leaves and inner cells.
+	 */
+	private int[] body;
+	/**
+	 * For each node the next node stored in the same leaf or -1.
+	 */
+	private int[] next;
+	/**
+	 * Stack used to traverse the tree.
+	 */
+	private int[] stack;
+
+	/**
+	 * Constructor for an empty tree.
+	 *
+	 * @param dimension Can be 2 or 3, and decides whether a quadtree (dim=2) or an
+	 *                  octree (dim=3) is built.
+	 */
+	public BarnesHutTree(int dimension) {
+		this.dimension = dimension;
+		childrenPerCell = 1 << dimension;
+		stack = new int[(MAXIMUM_DEPTH + 1) * childrenPerCell];
+		next = new int[0];
+		allocateCells(64);
+	}
+
+	/**
+	 * Builds the tree over the positions of the first n nodes. The tree only
+	 * remembers the number of nodes and the centers of mass of its cells, but not
+	 * the coordinate arrays themselves.
+	 *
+	 * @param p The coordinates of the nodes, one array per dimension.
+	 * @param n The number of nodes.
+	 */
+	public void build(double[][] p, int n) {
+		cells = 0;
+		if (next.length < n)
+			next = new int[n];
+		if (n == 0)
+			return;
+
+		// the root is the smallest cube containing all nodes
+		newCell();
+		double maxWidth = 0;
+		for (int k = 0; k < dimension; k++) {
+			double min = p[k][0];
+			double max = p[k][0];
+			for (int i = 1; i < n; i++) {
+				if (p[k][i] < min)
+					min = p[k][i];
+				if (p[k][i] > max)
+					max = p[k][i];
+			}
+			center[k] = (min + max) / 2;
+			maxWidth = Math.max(maxWidth, max - min);
+		}
+		width[0] = maxWidth;
+
+		for (int i = 0; i < n; i++)
+			insert(p, i);
+
+		for (int c = 0; c < cells; c++)
+			for (int k = 0; k < dimension; k++)
+				centerOfMass[c * dimension + k] /= mass[c];
+	}
+
+	/**
+	 * Computes for the node i the sum over all other nodes j of (p_j - p_i)/d^2,
+	 * where d is the distance between the nodes i and j. Cells which are small
+	 * compared to their distance to node i are approximated by their center of
+	 * mass. Multiplying the result by -C*K^2 gives the repulsive force of the
+	 * {@link SpringEmbedding SpringEmbedding} acting on node i. For theta = 0 the
+	 * exact sum is computed.
+	 *
+	 * @param p     The current coordinates of the nodes, one array per dimension.
+	 * @param i     The index of the node.
+	 * @param theta The opening angle. The larger theta, the coarser the
+	 *              approximation.
+	 * @param sum   Array of length at least dimension in which the result is
+	 *              stored.
+	 */
+	public void repulsion(double[][] p, int i, double theta, double[] sum) {
+		repulsion(p, i, theta, sum, stack);
+	}
+
+	/**
+	 * Same as {@link #repulsion(double[][], int, double, double[])}, but the tree
+	 * is traversed with the given stack instead of the one owned by the tree.
+	 * Since building the tree is the only operation changing it, several threads
+	 * can compute repulsions concurrently as long as each one uses its own stack.
+	 *
+	 * @param p     The current coordinates of the nodes, one array per dimension.
+	 * @param i     The index of the node.
+	 * @param theta The opening angle.
+	 * @param sum   Array of length at least dimension in which the result is
+	 *              stored.
+	 * @param stack A stack obtained by {@link #newStack()}.
+	 */
+	public void repulsion(double[][] p, int i, double theta, double[] sum, int[] stack) {
+		for (int k = 0; k < dimension; k++)
+			sum[k] = 0;
+		if (cells == 0)
+			return;
+
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int c = stack[--top];
+			if (children[c * childrenPerCell] == -2) {
+				// leaf: exact interaction with all nodes stored in it
+				for (int j = body[c]; j != -1; j = next[j])
+					if (j != i)
+						addInteraction(p, i, j, sum);
+				continue;
+			}
+
+			double dist = 0;
+			boolean containsNode = true;
+			for (int k = 0; k < dimension; k++) {
+				double d = centerOfMass[c * dimension + k] - p[k][i];
+				dist += d * d;
+				if (Math.abs(p[k][i] - center[c * dimension + k]) > width[c] / 2)
+					containsNode = false;
+			}
+			if (!containsNode && width[c] * width[c] < theta * theta * dist) {
+				// far away cell: acts like a single node of mass 'mass[c]'
+				for (int k = 0; k < dimension; k++)
+					sum[k] += mass[c] * (centerOfMass[c * dimension + k] - p[k][i]) / dist;
+				continue;
+			}
+			for (int s = 0; s < childrenPerCell; s++) {
+				int child = children[c * childrenPerCell + s];
+				if (child >= 0)
+					stack[top++] = child;
+			}
+		}
+	}
+
+	/**
+	 * Returns a new stack which is large enough to traverse this tree.
+	 *
+	 * @return An array to be passed to
+	 *         {@link #repulsion(double[][], int, double, double[], int[])}.
+	 */
+	public int[] newStack() {
+		return new int[stack.length];
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Adds (p_j - p_i)/d^2 to sum, where d is the distance between the nodes i and
+	 * j. Coinciding nodes do not interact.
+	 *
+	 * @param p   The coordinates of the nodes, one array per dimension.
+	 * @param i   Index of the first node.
+	 * @param j   Index of the second node.
+	 * @param sum The sum to which the interaction is added.
+	 */
+	private void addInteraction(double[][] p, int i, int j, double[] sum) {
+		double dist = 0;
+		for (int k = 0; k < dimension; k++) {
+			double d = p[k][j] - p[k][i];
+			dist += d * d;
+		}
+		if (dist == 0)
+			return;
+		for (int k = 0; k < dimension; k++)
+			sum[k] += (p[k][j] - p[k][i]) / dist;
+	}
+
+	/**
+	 * Inserts the node i into the tree. The mass and the sum of positions of all
+	 * cells on the way down are updated.
+	 *
+	 * @param p The coordinates of the nodes, one array per dimension.
+	 * @param i The index of the node.
+	 */
+	private void insert(double[][] p, int i) {
+		int c = 0;
+		int depth = 0;
+		while (true) {
+			addMass(p, c, i);
+			if (children[c * childrenPerCell] == -2) {
+				// leaf
+				if (body[c] == -1) {
+					body[c] = i;
+					next[i] = -1;
+					return;
+				}
+				if (depth == MAXIMUM_DEPTH) {
+					next[i] = body[c];
+					body[c] = i;
+					return;
+				}
+				// split the leaf and move its node down
+				int b = body[c];
+				body[c] = -1;
+				Arrays.fill(children, c * childrenPerCell, (c + 1) * childrenPerCell, -1);
+				int child = newChild(c, childIndex(p, c, b));
+				addMass(p, child, b);
+				body[child] = b;
+				next[b] = -1;
+			}
+			int s = childIndex(p, c, i);
+			int child = children[c * childrenPerCell + s];
+			if (child == -1)
+				child = newChild(c, s);
+			c = child;
+			depth++;
+		}
+	}
+
+	/**
+	 * Adds the node i to the mass and the sum of positions of cell c.
+	 *
+	 * @param p The coordinates of the nodes, one array per dimension.
+	 * @param c The index of a cell.
+	 * @param i The index of a node.
+	 */
+	private void addMass(double[][] p, int c, int i) {
+		mass[c]++;
+		for (int k = 0; k < dimension; k++)
+			centerOfMass[c * dimension + k] += p[k][i];
+	}
+
+	/**
+	 * Determines in which child of cell c the node i lies.
+	 *
+	 * @param p The coordinates of the nodes, one array per dimension.
+	 * @param c The index of a cell.
+	 * @param i The index of a node.
+	 * @return A number between 0 and childrenPerCell-1.
+	 */
+	private int childIndex(double[][] p, int c, int i) {
+		int s = 0;
+		for (int k = 0; k < dimension; k++)
+			if (p[k][i] >= center[c * dimension + k])
+				s |= 1 << k;
+		return s;
+	}
+
+	/**
+	 * Creates the child s of cell c as an empty leaf.
+	 *
+	 * @param c The index of a cell.
+	 * @param s Which child should be created.
+	 * @return The index of the new cell.
+	 */
+	private int newChild(int c, int s) {
+		int child = newCell();
+		double w = width[c] / 2;
+		width[child] = w;
+		for (int k = 0; k < dimension; k++) {
+			double offset = ((s >> k) & 1) == 1 ? w / 2 : -w / 2;
+			center[child * dimension + k] = center[c * dimension + k] + offset;
+		}
+		children[c * childrenPerCell + s] = child;
+		return child;
+	}
+
+	/**
+	 * Creates a new empty leaf. Its center and width still have to be set.
+	 *
+	 * @return The index of the new cell.
+	 */
+	private int newCell() {
+		if (cells == mass.length)
+			allocateCells(2 * cells);
+		int c = cells++;
+		mass[c] = 0;
+		body[c] = -1;
+		children[c * childrenPerCell] = -2;
+		for (int k = 0; k < dimension; k++)
+			centerOfMass[c * dimension + k] = 0;
+		return c;
+	}
+
+	/**
+	 * Makes sure that the arrays of the tree can hold the given number of cells.
+	 *
+	 * @param capacity The number of cells.
+	 */
+	private void allocateCells(int capacity) {
+		if (mass == null) {
+			center = new double[capacity * dimension];
+			width = new double[capacity];
+			mass = new int[capacity];
+			centerOfMass = new double[capacity * dimension];
+			children = new int[capacity * childrenPerCell];
+			body = new int[capacity];
+			return;
+		}
+		center = Arrays.copyOf(center, capacity * dimension);
+		width = Arrays.copyOf(width, capacity);
+		mass = Arrays.copyOf(mass, capacity);
+		centerOfMass = Arrays.copyOf(centerOfMass, capacity * dimension);
+		children = Arrays.copyOf(children, capacity * childrenPerCell);
+		body = Arrays.copyOf(body, capacity);
+	}
+}
@@ -1,9 +1,6 @@
 package Embeddings;
 
-import java.util.ArrayList;
-
 import Graph.Graph;
-import Graph.Node;
 /**
  * Class to align a graph according to a circular embedding. This means
  * that all nodes are placed equidistant on a circle.
@@ -20,9 +17,13 @@ public class CircularEmbedding {
 	 * @param G A graph.
 	 */
 	public static void defineLayout(Graph G) {
-		ArrayList<Node> nodes = G.nodes();
-		double n = 2*Math.PI/nodes.size();
-		for(int i = 0; i < nodes.size(); i++)
-			nodes.get(i).setPosition(0.5 + 0.5*Math.cos(i*n),0.5 + 0.5*Math.sin(i*n));
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		int size = G.nodes().size();
+		double n = 2*Math.PI/size;
+		for(int i = 0; i < size; i++) {
+			x[i] = 0.5 + 0.5*Math.cos(i*n);
+			y[i] = 0.5 + 0.5*Math.sin(i*n);
+		}
 	}	
 }
@@ -0,0 +1,311 @@
+package Embeddings;
+
+import java.util.Arrays;
+
+/**
+ * Assigns horizontal coordinates to the nodes of a layered graph with the
+ * algorithm of Brandes and K&oumlpf ("Fast and Simple Horizontal Coordinate
+ * Assignment"). The order of the nodes within the layers is kept, neighboring
+ * nodes of a layer have a distance of at least 1, and as many edges as
+ * possible are drawn vertically. All edges have to connect neighboring layers,
+ * so longer edges have to be split by dummy nodes before. Then the segments
+ * between two dummy nodes (inner segments) are preferred, such that long
+ * edges are drawn as straight as possible.
+ * <p>
+ * The algorithm works in four directions (aligning each node with the upper
+ * or the lower median of its neighbors, with a preference for the left or the
+ * right): First the nodes are aligned into blocks, which are placed at the
+ * same x-coordinate. Then the blocks are placed along longest paths in the
+ * graph of horizontally neighboring blocks, first as far left as possible and
+ * then moved right towards their right neighbors where possible. Finally the
+ * four layouts are shifted to the narrowest one and each node gets the
+ * average of its two median x-coordinates. Everything runs in time O(N + E)
+ * on index arrays.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+class CoordinateAssignment {
+	/**
+	 * Number of nodes including the dummy nodes.
+	 */
+	private final int n;
+	/**
+	 * Nodes with an index larger or equal to this number are dummy nodes.
+	 */
+	private final int firstDummy;
+	/**
+	 * For each layer the indices of its nodes from left to right.
+	 */
+	private final int[][] layers;
+	/**
+	 * For each node its position in its layer.
+	 */
+	private final int[] position;
+	/**
+	 * The edges of the graph, where sources[e] lies in the layer directly
+	 * above targets[e].
+	 */
+	private final int[] sources;
+	private final int[] targets;
+	/**
+	 * The edges ending in node v are up[upOffsets[v]], ...,
+	 * up[upOffsets[v+1]-1], sorted by the positions of their sources. The
+	 * edges starting in v are stored in the same way in "down", sorted by the
+	 * positions of their targets.
+	 */
+	private final int[] upOffsets;
+	private final int[] up;
+	private final int[] downOffsets;
+	private final int[] down;
+	/**
+	 * Edges which must not be aligned, since they cross an inner segment.
+	 */
+	private final boolean[] marked;
+
+	/**
+	 * Prepares the coordinate assignment for a layered graph.
+	 *
+	 * @param layers     For each layer the indices of its nodes from left to
+	 *                   right.
+	 * @param edges      The edges of the graph given by the arrays {sources,
+	 *                   targets}, each one leading from a layer to the layer
+	 *                   directly below.
+	 * @param firstDummy Nodes with an index larger or equal to this number are
+	 *                   dummy nodes.
+	 */
+	CoordinateAssignment(int[][] layers, int[][] edges, int firstDummy) {
+		this.layers = layers;
+		this.firstDummy = firstDummy;
+		sources = edges[0];
+		targets = edges[1];
+		int count = 0;
+		for (int[] layer : layers)
+			count += layer.length;
+		n = count;
+		position = new int[n];
+		for (int[] layer : layers)
+			for (int j = 0; j < layer.length; j++)
+				position[layer[j]] = j;
+
+		// unsorted lists of the edges starting in each node
+		int m = sources.length;
+		int[] outOffsets = new int[n + 1];
+		for (int v : sources)
+			outOffsets[v + 1]++;
+		for (int v = 0; v < n; v++)
+			outOffsets[v + 1] += outOffsets[v];
+		int[] next = Arrays.copyOf(outOffsets, n);
+		int[] out = new int[m];
+		for (int e = 0; e < m; e++)
+			out[next[sources[e]]++] = e;
+
+		// sorted lists, obtained by going through the nodes from left to right
+		upOffsets = new int[n + 1];
+		for (int v : targets)
+			upOffsets[v + 1]++;
+		for (int v = 0; v < n; v++)
+			upOffsets[v + 1] += upOffsets[v];
+		next = Arrays.copyOf(upOffsets, n);
+		up = new int[m];
+		for (int[] layer : layers)
+			for (int u : layer)
+				for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+					up[next[targets[out[i]]]++] = out[i];
+		downOffsets = outOffsets;
+		next = Arrays.copyOf(downOffsets, n);
+		down = new int[m];
+		for (int[] layer : layers)
+			for (int w : layer)
+				for (int i = upOffsets[w]; i < upOffsets[w + 1]; i++)
+					down[next[sources[up[i]]]++] = up[i];
+
+		marked = new boolean[m];
+		markConflicts();
+	}
+
+	/**
+	 * Computes the x-coordinates of all nodes.
+	 *
+	 * @return For each node (including the dummy nodes) its x-coordinate.
+	 */
+	double[] coordinates() {
+		double[][] x = new double[4][];
+		for (int d = 0; d < 4; d++)
+			x[d] = place(d < 2, d % 2 == 0);
+
+		// shift all layouts to the narrowest one
+		double[] min = new double[4];
+		double[] max = new double[4];
+		int narrowest = 0;
+		for (int d = 0; d < 4; d++) {
+			min[d] = Double.POSITIVE_INFINITY;
+			max[d] = Double.NEGATIVE_INFINITY;
+			for (double value : x[d]) {
+				min[d] = Math.min(min[d], value);
+				max[d] = Math.max(max[d], value);
+			}
+			if (max[d] - min[d] < max[narrowest] - min[narrowest])
+				narrowest = d;
+		}
+		for (int d = 0; d < 4; d++) {
+			double shift = d % 2 == 0 ? min[narrowest] - min[d] : max[narrowest] - max[d];
+			for (int v = 0; v < n; v++)
+				x[d][v] += shift;
+		}
+
+		// average of the two medians
+		double[] result = new double[n];
+		double[] values = new double[4];
+		for (int v = 0; v < n; v++) {
+			for (int d = 0; d < 4; d++)
+				values[d] = x[d][v];
+			Arrays.sort(values);
+			result[v] = (values[1] + values[2]) / 2;
+		}
+		return result;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Marks all edges which cross an inner segment, i.e. an edge between two
+	 * dummy nodes (type 1 conflicts).
+	 */
+	private void markConflicts() {
+		for (int i = 1; i + 1 < layers.length; i++) {
+			int[] lower = layers[i + 1];
+			int k0 = 0;
+			int l = 0;
+			for (int l1 = 0; l1 < lower.length; l1++) {
+				int inner = innerSegment(lower[l1]);
+				if (l1 == lower.length - 1 || inner != -1) {
+					int k1 = inner == -1 ? layers[i].length - 1 : position[sources[inner]];
+					for (; l <= l1; l++) {
+						int v = lower[l];
+						for (int e = upOffsets[v]; e < upOffsets[v + 1]; e++) {
+							int k = position[sources[up[e]]];
+							if (k < k0 || k > k1)
+								marked[up[e]] = true;
+						}
+					}
+					k0 = k1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the inner segment ending in node v or -1 if there is none.
+	 */
+	private int innerSegment(int v) {
+		if (v < firstDummy)
+			return -1;
+		for (int e = upOffsets[v]; e < upOffsets[v + 1]; e++)
+			if (sources[up[e]] >= firstDummy)
+				return up[e];
+		return -1;
+	}
+
+	/**
+	 * Computes the x-coordinates for one of the four directions.
+	 *
+	 * @param downwards   Whether the nodes are aligned with their upper
+	 *                    neighbors (going through the layers from top to
+	 *                    bottom) or with their lower neighbors.
+	 * @param leftToRight Whether the layers are processed from left to right,
+	 *                    such that the blocks are placed as far left as
+	 *                    possible, or from right to left.
+	 * @return For each node its x-coordinate.
+	 */
+	private double[] place(boolean downwards, boolean leftToRight) {
+		int h = layers.length;
+		int[] root = new int[n];
+		int[] align = new int[n];
+		for (int v = 0; v < n; v++) {
+			root[v] = v;
+			align[v] = v;
+		}
+		int[] offsets = downwards ? upOffsets : downOffsets;
+		int[] lists = downwards ? up : down;
+
+		// vertical alignment
+		for (int t = 1; t < h; t++) {
+			int[] layer = layers[downwards ? t : h - 1 - t];
+			int r = -1;
+			for (int s = 0; s < layer.length; s++) {
+				int v = layer[leftToRight ? s : layer.length - 1 - s];
+				int d = offsets[v + 1] - offsets[v];
+				if (d == 0)
+					continue;
+				for (int m = (d - 1) / 2; m <= d / 2; m++) {
+					if (align[v] != v)
+						break;
+					int e = lists[offsets[v] + (leftToRight ? m : d - 1 - m)];
+					int u = downwards ? sources[e] : targets[e];
+					int p = leftToRight ? position[u] : layers[downwards ? t - 1 : h - t].length - 1 - position[u];
+					if (!marked[e] && r < p) {
+						align[u] = v;
+						root[v] = root[u];
+						align[v] = root[v];
+						r = p;
+					}
+				}
+			}
+		}
+
+		// graph of the blocks, where each block points to its right neighbors
+		int[] blockOffsets = new int[n + 1];
+		for (int[] layer : layers)
+			for (int s = 1; s < layer.length; s++)
+				blockOffsets[root[layer[leftToRight ? s - 1 : layer.length - s]] + 1]++;
+		for (int v = 0; v < n; v++)
+			blockOffsets[v + 1] += blockOffsets[v];
+		int[] next = Arrays.copyOf(blockOffsets, n);
+		int[] right = new int[blockOffsets[n]];
+		int[] in = new int[n];
+		for (int[] layer : layers)
+			for (int s = 1; s < layer.length; s++) {
+				int a = root[layer[leftToRight ? s - 1 : layer.length - s]];
+				int b = root[layer[leftToRight ? s : layer.length - 1 - s]];
+				right[next[a]++] = b;
+				in[b]++;
+			}
+
+		// topological order of the blocks
+		int[] order = new int[n];
+		int count = 0;
+		for (int v = 0; v < n; v++)
+			if (root[v] == v && in[v] == 0)
+				order[count++] = v;
+		for (int i = 0; i < count; i++)
+			for (int e = blockOffsets[order[i]]; e < blockOffsets[order[i] + 1]; e++)
+				if (--in[right[e]] == 0)
+					order[count++] = right[e];
+
+		// place the blocks as far left as possible, then move them
+		// right towards their right neighbors
+		double[] x = new double[n];
+		for (int i = 0; i < count; i++) {
+			int a = order[i];
+			for (int e = blockOffsets[a]; e < blockOffsets[a + 1]; e++)
+				x[right[e]] = Math.max(x[right[e]], x[a] + 1);
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			int a = order[i];
+			if (blockOffsets[a] == blockOffsets[a + 1])
+				continue;
+			double limit = Double.POSITIVE_INFINITY;
+			for (int e = blockOffsets[a]; e < blockOffsets[a + 1]; e++)
+				limit = Math.min(limit, x[right[e]] - 1);
+			x[a] = Math.max(x[a], limit);
+		}
+
+		double[] result = new double[n];
+		for (int v = 0; v < n; v++)
+			result[v] = leftToRight ? x[root[v]] : -x[root[v]];
+		return result;
+	}
+}
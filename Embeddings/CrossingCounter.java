@@ -0,0 +1,183 @@
+package Embeddings;
+
+import java.util.Arrays;
+
+import Graph.Graph;
+
+/**
+ * Counts the crossings of edges in layered drawings of graphs. The
+ * crossings between two neighboring layers are counted with the
+ * accumulator tree of Barth, J&uumlnger and Mutzel ("Simple and
+ * Efficient Bilayer Cross Counting"): The edges are sorted
+ * lexicographically by the positions of their end nodes in the
+ * upper and the lower layer. Then the lower positions are inserted
+ * into a binary tree one after the other, and each edge crosses all
+ * edges inserted before it which end further right in the lower
+ * layer. This takes time O(E log V) for E edges between layers with
+ * V nodes, instead of O(E^2) for comparing all pairs of edges.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class CrossingCounter {
+
+	/**
+	 * Counts the crossings of the edges between two neighboring layers.
+	 * The i-th edge starts at position upper[i] of the upper layer and
+	 * ends at position lower[i] of the lower layer. Edges which share an
+	 * end node do not cross.
+	 *
+	 * @param upper Positions of the starting nodes of the edges in the
+	 * upper layer (numbered from 0 to upperSize-1).
+	 * @param lower Positions of the ending nodes of the edges in the
+	 * lower layer (numbered from 0 to lowerSize-1).
+	 * @param upperSize Number of nodes of the upper layer.
+	 * @param lowerSize Number of nodes of the lower layer.
+	 * @return The number of crossings.
+	 */
+	public static long count(int[] upper, int[] lower, int upperSize, int lowerSize) {
+		int m = upper.length;
+		if(m < 2 || lowerSize < 2)
+			return 0;
+		//sort the edges lexicographically with two passes of counting sort
+		int[] byLower = sort(lower, identity(m), lowerSize);
+		int[] sorted = sort(upper, byLower, upperSize);
+
+		//accumulator tree with lowerSize leaves
+		int first = 1;
+		while(first < lowerSize)
+			first *= 2;
+		int[] tree = new int[2*first - 1];
+		first--;
+		long crossings = 0;
+		for(int e: sorted) {
+			int index = lower[e] + first;
+			tree[index]++;
+			while(index > 0) {
+				//the right sibling counts the edges inserted before
+				//which end further right
+				if(index % 2 == 1)
+					crossings += tree[index+1];
+				index = (index-1)/2;
+				tree[index]++;
+			}
+		}
+		return crossings;
+	}
+
+	/**
+	 * Counts the crossings of the edges ending in two nodes v and w
+	 * of the same layer, where v lies to the left of w. An edge ending
+	 * in v crosses an edge ending in w if it starts further right in
+	 * the upper layer.
+	 *
+	 * @param v The positions in the upper layer of the neighbors of v,
+	 * sorted in ascending order.
+	 * @param w The positions in the upper layer of the neighbors of w,
+	 * sorted in ascending order.
+	 * @return The number of crossings.
+	 */
+	public static long count(int[] v, int[] w) {
+		long crossings = 0;
+		int j = 0;
+		for(int a: v) {
+			//count the neighbors of w to the left of a
+			while(j < w.length && w[j] < a)
+				j++;
+			crossings += j;
+		}
+		return crossings;
+	}
+
+	/**
+	 * Counts the crossings in the current drawing of a graph G, whose
+	 * nodes are supposed to lie on horizontal layers (e.g. after a
+	 * {@link LayeredEmbedding LayeredEmbedding}). All nodes with the same
+	 * y-coordinate form a layer and are ordered by their x-coordinates.
+	 * Only edges between neighboring layers are taken into account.
+	 *
+	 * @param G A graph.
+	 * @return The number of crossings.
+	 */
+	public static long count(Graph G) {
+		int n = G.nodes().size();
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		Integer[] order = new Integer[n];
+		for(int v = 0; v < n; v++)
+			order[v] = v;
+		Arrays.sort(order, (v,w) -> y[v] != y[w] ? Double.compare(y[v],y[w]) : Double.compare(x[v],x[w]));
+
+		//layer and position of each node
+		int[] layer = new int[n];
+		int[] position = new int[n];
+		int[] sizes = new int[n+1];
+		int layers = 0;
+		for(int i = 0; i < n; i++) {
+			int v = order[i];
+			if(i > 0 && y[v] != y[order[i-1]])
+				layers++;
+			layer[v] = layers;
+			position[v] = sizes[layers]++;
+		}
+
+		//group the edges between neighboring layers by their upper layer
+		int[] offsets = new int[n+1];
+		for(int[] e: G.edges())
+			if(Math.abs(layer[e[0]] - layer[e[1]]) == 1)
+				offsets[Math.min(layer[e[0]],layer[e[1]])+1]++;
+		for(int l = 0; l < n; l++)
+			offsets[l+1] += offsets[l];
+		int[] upper = new int[offsets[n]];
+		int[] lower = new int[offsets[n]];
+		int[] next = Arrays.copyOf(offsets, n);
+		for(int[] e: G.edges())
+			if(Math.abs(layer[e[0]] - layer[e[1]]) == 1) {
+				int u = layer[e[0]] < layer[e[1]] ? e[0] : e[1];
+				int v = u == e[0] ? e[1] : e[0];
+				upper[next[layer[u]]] = position[u];
+				lower[next[layer[u]]++] = position[v];
+			}
+
+		long crossings = 0;
+		for(int l = 0; l < layers; l++)
+			crossings += count(Arrays.copyOfRange(upper, offsets[l], offsets[l+1]),
+					Arrays.copyOfRange(lower, offsets[l], offsets[l+1]), sizes[l], sizes[l+1]);
+		return crossings;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Stably sorts the indices of the edges in the array "order" by
+	 * their keys with counting sort.
+	 *
+	 * @param keys The key of each edge (between 0 and size-1).
+	 * @param order The indices of the edges.
+	 * @param size Number of different keys.
+	 * @return The sorted indices.
+	 */
+	private static int[] sort(int[] keys, int[] order, int size) {
+		int[] next = new int[size+1];
+		for(int e: order)
+			next[keys[e]+1]++;
+		for(int k = 0; k < size; k++)
+			next[k+1] += next[k];
+		int[] result = new int[order.length];
+		for(int e: order)
+			result[next[keys[e]]++] = e;
+		return result;
+	}
+
+	/**
+	 * Returns the array {0, 1, ..., m-1}.
+	 */
+	private static int[] identity(int m) {
+		int[] result = new int[m];
+		for(int i = 0; i < m; i++)
+			result[i] = i;
+		return result;
+	}
+}
@@ -1,7 +1,6 @@
 package Embeddings;
 
 import Graph.Graph;
-import Graph.Node;
 
 /**
  * Implements an graph drawing algorithm where each edge lies on the vertex of a
@@ -34,20 +33,22 @@ public class GridEmbedding {
 	 */
 	public static void defineLayout(Graph G, int nodesPerRow) {
 		int size = G.nodes().size();
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
 
 		// Special case: only one node
 		if (size == 1) {
-			G.nodes().get(0).setPosition(0.5, 0.5);
+			x[0] = 0.5;
+			y[0] = 0.5;
 			return;
 		}
 
 		// Special case: one node per row
 		if (nodesPerRow == 1) {
-			int row = 1;
 			double dy = 1. / (size - 1);
-			for (Node node : G.nodes()) {
-				node.setPosition(0.5, (row - 1) * dy);
-				row++;
+			for (int i = 0; i < size; i++) {
+				x[i] = 0.5;
+				y[i] = i * dy;
 			}
 			return;
 		}
@@ -70,8 +71,9 @@ public class GridEmbedding {
 		int column = 1;
 		int row = 1;
 
-		for (Node node : G.nodes()) {
-			node.setPosition((column - 1) * dx, (row - 1) * dx);
+		for (int i = 0; i < size; i++) {
+			x[i] = (column - 1) * dx;
+			y[i] = (row - 1) * dx;
 			column++;
 			if (column > nodesPerRow) {
 				column = 1;
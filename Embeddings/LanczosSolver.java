@@ -0,0 +1,263 @@
+package Embeddings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+
+/**
+ * Computes eigenvectors corresponding to the smallest non-trivial eigenvalues
+ * of a {@link SparseLaplacian SparseLaplacian} with the thick-restart Lanczos
+ * method. The method only needs products of the matrix with vectors, so it
+ * works directly on the sparse matrix. Each eigenvector costs a few hundred
+ * of these products plus O(m*N) operations per product for the
+ * orthogonalization, where m is the size of the Krylov basis, instead of the
+ * O(N^3) operations and O(N^2) memory of a full eigendecomposition.
+ * <p>
+ * The constant vector (the eigenvector of the eigenvalue 0 of a connected
+ * graph) is projected out. The eigenvectors are computed one after the other:
+ * as soon as the smallest eigenvalue of the matrix restricted to the
+ * complement of the vectors found so far has converged, its eigenvector is
+ * locked and the iteration is started again with a new random vector. In this
+ * way multiple eigenvalues (which occur e.g. for cycles and square grids) are
+ * found with all their eigenvectors. All vectors are fully reorthogonalized,
+ * so the basis does not lose its orthogonality. The small projected
+ * eigenproblems are solved with Jama.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+class LanczosSolver {
+	/**
+	 * Maximal number of vectors of the Krylov basis.
+	 */
+	private static final int BASIS_SIZE = 40;
+	/**
+	 * Number of Ritz vectors kept when the basis is restarted.
+	 */
+	private static final int KEPT_VECTORS = 20;
+	/**
+	 * A Ritz pair is accepted as soon as its residual is below TOLERANCE times
+	 * the norm of the matrix.
+	 */
+	private static final double TOLERANCE = 1e-10;
+	/**
+	 * Maximal number of restarts per eigenvector. If the iteration has not
+	 * converged by then, the best approximation is used.
+	 */
+	private static final int MAXIMUM_RESTARTS = 5000;
+
+	/**
+	 * Computes eigenvectors for the "k" smallest eigenvalues of L on the
+	 * complement of the constant vector, i.e. for the "k" smallest non-zero
+	 * eigenvalues if the graph is connected.
+	 *
+	 * @param L    A Laplacian matrix with at least k+2 rows.
+	 * @param k    Number of eigenvectors to be computed.
+	 * @param seed Seed for the random start vectors.
+	 * @return The eigenvectors in ascending order of their eigenvalues, each one
+	 *         normalized to length 1.
+	 */
+	static double[][] smallestEigenvectors(SparseLaplacian L, int k, long seed) {
+		int n = L.size();
+		Random random = new Random(seed);
+		ArrayList<double[]> locked = new ArrayList<>();
+		double[] constant = new double[n];
+		Arrays.fill(constant, 1 / Math.sqrt(n));
+		locked.add(constant);
+
+		double[][] eigenvectors = new double[k][];
+		for (int t = 0; t < k; t++) {
+			eigenvectors[t] = smallestEigenvector(L, locked, random);
+			locked.add(eigenvectors[t]);
+		}
+		return eigenvectors;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Computes an eigenvector for the smallest eigenvalue of L restricted to the
+	 * orthogonal complement of the locked vectors.
+	 *
+	 * @param L      A Laplacian matrix.
+	 * @param locked Orthonormal vectors which are projected out.
+	 * @param random Source of the start vector.
+	 * @return An eigenvector of length 1.
+	 */
+	private static double[] smallestEigenvector(SparseLaplacian L, ArrayList<double[]> locked, Random random) {
+		int n = L.size();
+		int m = Math.min(BASIS_SIZE, n - locked.size());
+		int keep = Math.min(KEPT_VECTORS, m - 1);
+		double tolerance = TOLERANCE * Math.max(L.normBound(), 1);
+
+		double[][] V = new double[m + 1][];
+		for (int j = 0; j <= m; j++)
+			V[j] = new double[n];
+		double[][] kept = new double[keep][n];
+		double[][] H = new double[m][m];
+		double[] w = new double[n];
+		double beta = 0;
+
+		randomVector(V[0], locked, V, 0, random);
+		int l = 0;
+		Matrix Y = null;
+		for (int restart = 0; restart <= MAXIMUM_RESTARTS; restart++) {
+			LayoutExecutor.checkpoint();
+			// extend the basis to m vectors
+			for (int j = l; j < m; j++) {
+				L.multiply(V[j], w);
+				orthogonalize(w, locked, null, 0, null);
+				orthogonalize(w, null, V, j + 1, H[j]);
+				// second pass for numerical stability
+				orthogonalize(w, locked, null, 0, null);
+				orthogonalize(w, null, V, j + 1, H[j]);
+				for (int i = 0; i < j; i++)
+					H[i][j] = H[j][i];
+				beta = norm(w);
+				if (beta <= tolerance * 1e-3) {
+					// invariant subspace found, continue with a new direction
+					randomVector(V[j + 1], locked, V, j + 1, random);
+					beta = 0;
+				} else {
+					for (int i = 0; i < n; i++)
+						V[j + 1][i] = w[i] / beta;
+				}
+			}
+
+			// Rayleigh-Ritz step on the basis
+			EigenvalueDecomposition eig = new Matrix(H).eig();
+			double[] theta = eig.getRealEigenvalues();
+			Y = eig.getV();
+			double residual = Math.abs(beta * Y.get(m - 1, 0));
+			if (residual < tolerance || restart == MAXIMUM_RESTARTS || m < 2)
+				break;
+
+			// restart with the smallest Ritz vectors and the last basis vector
+			for (int r = 0; r < keep; r++)
+				combine(V, m, Y, r, kept[r]);
+			for (int r = 0; r < keep; r++) {
+				double[] tmp = V[r];
+				V[r] = kept[r];
+				kept[r] = tmp;
+			}
+			double[] tmp = V[keep];
+			V[keep] = V[m];
+			V[m] = tmp;
+			for (int i = 0; i < m; i++)
+				Arrays.fill(H[i], 0);
+			for (int r = 0; r < keep; r++)
+				H[r][r] = theta[r];
+			l = keep;
+		}
+
+		double[] x = new double[n];
+		combine(V, m, Y, 0, x);
+		orthogonalize(x, locked, null, 0, null);
+		double length = norm(x);
+		for (int i = 0; i < n; i++)
+			x[i] /= length;
+		return x;
+	}
+
+	/**
+	 * Computes x = V[0]*Y(0,r) + ... + V[m-1]*Y(m-1,r), i.e. the Ritz vector
+	 * for the r-th column of Y.
+	 *
+	 * @param V The basis vectors.
+	 * @param m Number of basis vectors.
+	 * @param Y The eigenvectors of the projected matrix.
+	 * @param r A column of Y.
+	 * @param x Array in which the result is stored.
+	 */
+	private static void combine(double[][] V, int m, Matrix Y, int r, double[] x) {
+		Arrays.fill(x, 0);
+		for (int j = 0; j < m; j++) {
+			double c = Y.get(j, r);
+			double[] v = V[j];
+			for (int i = 0; i < x.length; i++)
+				x[i] += c * v[i];
+		}
+	}
+
+	/**
+	 * Removes from w its components in the direction of the given orthonormal
+	 * vectors, which are either the locked vectors or the first "count" vectors
+	 * of V. The removed coefficients are added to "coefficients" if it is not
+	 * null.
+	 *
+	 * @param w            A vector.
+	 * @param locked       Orthonormal vectors or null.
+	 * @param V            Orthonormal vectors or null.
+	 * @param count        Number of vectors of V to be used.
+	 * @param coefficients Array in which the coefficients are accumulated or
+	 *                     null.
+	 */
+	private static void orthogonalize(double[] w, ArrayList<double[]> locked, double[][] V, int count,
+			double[] coefficients) {
+		if (locked != null)
+			for (double[] v : locked)
+				subtract(w, v, dot(w, v));
+		for (int j = 0; j < count; j++) {
+			double c = dot(w, V[j]);
+			subtract(w, V[j], c);
+			if (coefficients != null)
+				coefficients[j] += c;
+		}
+	}
+
+	/**
+	 * Fills x with a random vector of length 1 which is orthogonal to the locked
+	 * vectors and the first "count" vectors of V.
+	 *
+	 * @param x      Array in which the vector is stored.
+	 * @param locked Orthonormal vectors.
+	 * @param V      Orthonormal vectors.
+	 * @param count  Number of vectors of V to be used.
+	 * @param random Source of randomness.
+	 */
+	private static void randomVector(double[] x, ArrayList<double[]> locked, double[][] V, int count,
+			Random random) {
+		double length = 0;
+		while (length < 1e-8) {
+			for (int i = 0; i < x.length; i++)
+				x[i] = random.nextDouble() - 0.5;
+			for (int pass = 0; pass < 2; pass++) {
+				orthogonalize(x, locked, null, 0, null);
+				orthogonalize(x, null, V, count, null);
+			}
+			length = norm(x);
+		}
+		for (int i = 0; i < x.length; i++)
+			x[i] /= length;
+	}
+
+	/**
+	 * Computes w = w - c*v.
+	 */
+	private static void subtract(double[] w, double[] v, double c) {
+		for (int i = 0; i < w.length; i++)
+			w[i] -= c * v[i];
+	}
+
+	/**
+	 * Computes the scalar product of two vectors.
+	 */
+	private static double dot(double[] a, double[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++)
+			sum += a[i] * b[i];
+		return sum;
+	}
+
+	/**
+	 * Computes the Euclidean norm of a vector.
+	 */
+	private static double norm(double[] a) {
+		return Math.sqrt(dot(a, a));
+	}
+}
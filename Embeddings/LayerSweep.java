@@ -0,0 +1,331 @@
+package Embeddings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reduces the crossings of a layered graph by layer sweeps. In a down sweep
+ * the layers are sorted from top to bottom, each one according to the
+ * positions of the neighbors of its nodes in the layer above, in an up sweep
+ * they are sorted from bottom to top according to the layer below. A node is
+ * sorted either by the barycenter (the average position) or by the weighted
+ * median of the positions of its neighbors, nodes without neighbors keep
+ * their positions. After sorting a layer, neighboring nodes are swapped as
+ * long as this reduces the crossings with the fixed layer. Down and up sweeps
+ * alternate until the total number of crossings (see
+ * {@link CrossingCounter CrossingCounter}) does not decrease anymore.
+ * <p>
+ * Several restarts run in parallel on a ForkJoinPool: The first one starts
+ * with the given order, the others with random orders, and half of them use
+ * barycenters, the other half weighted medians. The order with the fewest
+ * crossings is kept, where ties are broken by the number of the restart.
+ * The restarts check the time budget before sorting each layer and after
+ * each pass of swaps. As soon as it is used up, each restart returns the best
+ * order of its finished sweeps, which is the given order if no sweep of the
+ * first restart finished. So the result only depends on the time if the
+ * budget is exceeded. On a {@link LayoutExecutor LayoutExecutor} the restarts
+ * can also be cancelled at these points.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+class LayerSweep {
+	/**
+	 * Number of restarts.
+	 */
+	static final int RESTARTS = 8;
+	/**
+	 * Maximal number of down and up sweeps per restart.
+	 */
+	private static final int MAXIMUM_SWEEPS = 50;
+
+	/**
+	 * For each layer the indices of its nodes.
+	 */
+	private final int[][] layers;
+	/**
+	 * For each node the index of its layer.
+	 */
+	private final int[] layerOf;
+	/**
+	 * The neighbors of node v in the layer above are
+	 * up[1][up[0][v]], ..., up[1][up[0][v+1]-1], those in the
+	 * layer below are stored in the same way in "down".
+	 */
+	private final int[][] up;
+	private final int[][] down;
+
+	/**
+	 * Prepares the sweeps for a layered acyclic graph. Only edges between
+	 * neighboring layers are taken into account.
+	 *
+	 * @param edges   The edges of the graph given by the arrays {sources,
+	 *                targets}.
+	 * @param layerOf For each node the index of its layer.
+	 * @param layers  For each layer the indices of its nodes.
+	 */
+	LayerSweep(int[][] edges, int[] layerOf, int[][] layers) {
+		this.layers = layers;
+		this.layerOf = layerOf;
+		int n = layerOf.length;
+		int[] upper = new int[edges[0].length];
+		int[] lower = new int[edges[0].length];
+		int m = 0;
+		for (int e = 0; e < edges[0].length; e++)
+			if (layerOf[edges[1][e]] == layerOf[edges[0][e]] + 1) {
+				upper[m] = edges[0][e];
+				lower[m++] = edges[1][e];
+			}
+		upper = Arrays.copyOf(upper, m);
+		lower = Arrays.copyOf(lower, m);
+		up = LayeredEmbedding.adjacency(n, lower, upper);
+		down = LayeredEmbedding.adjacency(n, upper, lower);
+	}
+
+	/**
+	 * Computes orders of the layers with few crossings.
+	 *
+	 * @param timeBudget Time in milliseconds after which the restarts stop.
+	 * @param pool       The pool on which the restarts run.
+	 * @return For each layer the indices of its nodes in the new order.
+	 */
+	int[][] minimize(long timeBudget, ForkJoinPool pool) {
+		long deadline = System.nanoTime() + timeBudget * 1000000;
+		Runnable checkpoint = LayoutExecutor.currentCheckpoint();
+		ArrayList<Callable<int[][]>> restarts = new ArrayList<>();
+		for (int r = 0; r < RESTARTS; r++) {
+			int restart = r;
+			restarts.add(() -> run(restart, deadline, checkpoint));
+		}
+		int[][] best = null;
+		long fewest = Long.MAX_VALUE;
+		try {
+			for (Future<int[][]> future : pool.invokeAll(restarts)) {
+				int[][] order = future.get();
+				if (order == null)
+					continue;
+				long crossings = crossings(order);
+				if (crossings < fewest) {
+					fewest = crossings;
+					best = order;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+		return best == null ? copy(layers) : best;
+	}
+
+	/**
+	 * Counts the crossings of the edges between neighboring layers for
+	 * given orders of the layers.
+	 *
+	 * @param order For each layer the indices of its nodes.
+	 * @return The number of crossings.
+	 */
+	long crossings(int[][] order) {
+		int[] position = positions(order);
+		long crossings = 0;
+		for (int i = 0; i + 1 < order.length; i++) {
+			int m = 0;
+			for (int v : order[i])
+				m += down[0][v + 1] - down[0][v];
+			int[] upper = new int[m];
+			int[] lower = new int[m];
+			m = 0;
+			for (int v : order[i])
+				for (int e = down[0][v]; e < down[0][v + 1]; e++) {
+					upper[m] = position[v];
+					lower[m++] = position[down[1][e]];
+				}
+			crossings += CrossingCounter.count(upper, lower, order[i].length, order[i + 1].length);
+		}
+		return crossings;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Runs one restart.
+	 *
+	 * @param restart    Number of the restart.
+	 * @param deadline   Value of System.nanoTime() after which the restart
+	 *                   stops.
+	 * @param checkpoint Throws a CancellationException if the layout was
+	 *                   cancelled.
+	 * @return The best order found or null if the restart was started after
+	 *         the deadline.
+	 */
+	private int[][] run(int restart, long deadline, Runnable checkpoint) {
+		checkpoint.run();
+		if (restart > 0 && System.nanoTime() > deadline)
+			return null;
+		int[][] order = new int[layers.length][];
+		for (int i = 0; i < layers.length; i++)
+			order[i] = layers[i].clone();
+		if (restart > 0) {
+			Random random = new Random(restart);
+			for (int[] layer : order)
+				shuffle(layer, random);
+		}
+		boolean median = restart % 2 == 1;
+		int[] position = positions(order);
+
+		int[][] best = copy(order);
+		long fewest = crossings(order);
+		for (int sweep = 0; sweep < MAXIMUM_SWEEPS; sweep++) {
+			//an unfinished sweep is discarded
+			for (int i = 1; i < order.length; i++)
+				if (!sort(order[i], up, position, median, deadline, checkpoint))
+					return best;
+			for (int i = order.length - 2; i >= 0; i--)
+				if (!sort(order[i], down, position, median, deadline, checkpoint))
+					return best;
+			long crossings = crossings(order);
+			if (crossings >= fewest)
+				break;
+			fewest = crossings;
+			best = copy(order);
+		}
+		return best;
+	}
+
+	/**
+	 * Sorts a layer according to the positions of the neighbors of its nodes
+	 * in a fixed neighboring layer and then swaps neighboring nodes as long as
+	 * this reduces the crossings with the fixed layer. The array "position" is
+	 * updated accordingly. The swaps stop early when the deadline has passed.
+	 *
+	 * @param layer      The nodes of the layer.
+	 * @param neighbors  The neighbors of all nodes in the fixed layer.
+	 * @param position   For each node its position in its layer.
+	 * @param median     Whether the weighted median is used instead of the
+	 *                   barycenter.
+	 * @param deadline   Value of System.nanoTime() after which the layer is
+	 *                   neither sorted nor are nodes swapped.
+	 * @param checkpoint Called before sorting and after each pass of swaps.
+	 * @return False if the deadline had passed, in which case the layer may
+	 *         not be sorted.
+	 */
+	private static boolean sort(int[] layer, int[][] neighbors, int[] position, boolean median, long deadline,
+			Runnable checkpoint) {
+		checkpoint.run();
+		if (System.nanoTime() > deadline)
+			return false;
+		int size = layer.length;
+		int[][] sorted = new int[size][];
+		double[] key = new double[size];
+		Integer[] index = new Integer[size];
+		for (int j = 0; j < size; j++) {
+			int v = layer[j];
+			sorted[j] = new int[neighbors[0][v + 1] - neighbors[0][v]];
+			for (int e = neighbors[0][v]; e < neighbors[0][v + 1]; e++)
+				sorted[j][e - neighbors[0][v]] = position[neighbors[1][e]];
+			Arrays.sort(sorted[j]);
+			key[j] = sorted[j].length == 0 ? j : median ? median(sorted[j]) : barycenter(sorted[j]);
+			index[j] = j;
+		}
+		//stable, so nodes with equal keys keep their order
+		Arrays.sort(index, (a, b) -> Double.compare(key[a], key[b]));
+		int[] nodes = layer.clone();
+		int[][] lists = sorted.clone();
+		for (int j = 0; j < size; j++) {
+			layer[j] = nodes[index[j]];
+			sorted[j] = lists[index[j]];
+		}
+
+		boolean flag = true;
+		boolean inTime = true;
+		while (flag && inTime) {
+			flag = false;
+			for (int j = 0; j < size - 1; j++)
+				if (CrossingCounter.count(sorted[j], sorted[j + 1]) > CrossingCounter.count(sorted[j + 1], sorted[j])) {
+					int tmp = layer[j];
+					layer[j] = layer[j + 1];
+					layer[j + 1] = tmp;
+					int[] list = sorted[j];
+					sorted[j] = sorted[j + 1];
+					sorted[j + 1] = list;
+					flag = true;
+				}
+			checkpoint.run();
+			inTime = System.nanoTime() <= deadline;
+		}
+		for (int j = 0; j < size; j++)
+			position[layer[j]] = j;
+		return inTime;
+	}
+
+	/**
+	 * Returns the average of a non-empty list of positions.
+	 */
+	private static double barycenter(int[] positions) {
+		double sum = 0;
+		for (int p : positions)
+			sum += p;
+		return sum / positions.length;
+	}
+
+	/**
+	 * Returns the weighted median of a non-empty sorted list of positions as
+	 * defined by Gansner et al.: For an even number of positions the two
+	 * middle positions are weighted according to how spread out the positions
+	 * on the respective side are.
+	 */
+	private static double median(int[] positions) {
+		int m = positions.length / 2;
+		if (positions.length % 2 == 1)
+			return positions[m];
+		if (positions.length == 2)
+			return (positions[0] + positions[1]) / 2.;
+		double left = positions[m - 1] - positions[0];
+		double right = positions[positions.length - 1] - positions[m];
+		if (left + right == 0)
+			return (positions[m - 1] + positions[m]) / 2.;
+		return (positions[m - 1] * right + positions[m] * left) / (left + right);
+	}
+
+	/**
+	 * Returns for each node its position in its layer.
+	 */
+	private int[] positions(int[][] order) {
+		int[] position = new int[layerOf.length];
+		for (int[] layer : order)
+			for (int j = 0; j < layer.length; j++)
+				position[layer[j]] = j;
+		return position;
+	}
+
+	/**
+	 * Returns a deep copy of an order of the layers.
+	 */
+	private static int[][] copy(int[][] order) {
+		int[][] result = new int[order.length][];
+		for (int i = 0; i < order.length; i++)
+			result[i] = order[i].clone();
+		return result;
+	}
+
+	/**
+	 * Shuffles an array randomly.
+	 */
+	private static void shuffle(int[] a, Random random) {
+		for (int i = a.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = a[i];
+			a[i] = a[j];
+			a[j] = tmp;
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package Embeddings;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
 
 import Graph.Graph;
 import Graph.Node;
@@ -17,6 +19,11 @@ import Graph.Node;
  *
  */
 public class LayeredEmbedding {
+	/**
+	 * Time in milliseconds for the reduction of crossings, if
+	 * no other time is specified.
+	 */
+	public static final long DEFAULT_TIME_BUDGET = 2000;
 	
 	/**
 	 * Aligns the nodes of a graph G on horizontal layers
@@ -26,209 +33,513 @@ public class LayeredEmbedding {
 	 * @param G A graph.
 	 */
 	public static void defineLayout(Graph G) {
-		//make copies
-		ArrayList<Node> nodes = new ArrayList<Node>();
-		for(Node n: G.nodes())
-			nodes.add(n);
-		ArrayList<Node[]> edges = new ArrayList<Node[]>();
-		for(int[] e: G.edges())
-			edges.add(new Node[] {nodes.get(e[0]),nodes.get(e[1])});
+		defineLayout(G,0,DEFAULT_TIME_BUDGET);
+	}
+	
+	/**
+	 * Aligns the nodes of a graph G on horizontal layers
+	 * in the unit square such that (almost) all edges of G show 
+	 * downwards and no layer contains more than "width" nodes.
+	 * Bounding the width yields more layers, but keeps very wide
+	 * layers (which are expensive for the crossing reduction) 
+	 * from occurring.
+	 * 
+	 * @param G A graph.
+	 * @param width Maximal number of nodes per layer. If width is
+	 * smaller than 1, the number of nodes per layer is not bounded.
+	 */
+	public static void defineLayout(Graph G, int width) {
+		defineLayout(G,width,DEFAULT_TIME_BUDGET);
+	}
+	
+	/**
+	 * Aligns the nodes of a graph G on horizontal layers
+	 * in the unit square such that (almost) all edges of G show 
+	 * downwards and no layer contains more than "width" nodes.
+	 * The order of the nodes within the layers is chosen such that
+	 * there are few crossings (see {@link LayerSweep LayerSweep}),
+	 * where the search stops after "timeBudget" milliseconds.
+	 * 
+	 * @param G A graph.
+	 * @param width Maximal number of nodes per layer. If width is
+	 * smaller than 1, the number of nodes per layer is not bounded.
+	 * @param timeBudget Time in milliseconds for the reduction of
+	 * crossings. If timeBudget is not positive, the nodes are not 
+	 * reordered.
+	 */
+	public static void defineLayout(Graph G, int width, long timeBudget) {
+		ArrayList<Node> nodes = G.nodes();
 		//make the graph acyclic if it is not
-		makeAcyclic(nodes,edges);
+		int[][] edges = makeAcyclic(G);
 		//assign layers
-		ArrayList<ArrayList<Node>> layers = assignLayers(nodes,edges);
+		int[] layerOf;
+		if(width < 1)
+			layerOf = assignLayers(nodes.size(),edges);
+		else
+			layerOf = assignLayers(nodes.size(),edges,width);
+		//split long edges by dummy nodes
+		int n = nodes.size();
+		int[][] split = splitLongEdges(edges,layerOf);
+		edges = new int[][] {split[0],split[1]};
+		layerOf = split[2];
+		int[][] layers = layers(layerOf);
 		//try to reduce crossings
-		reduceCrossings(G,layers);
+		if(timeBudget > 0)
+			layers = new LayerSweep(edges,layerOf,layers).minimize(timeBudget,ForkJoinPool.commonPool());
+		LayoutExecutor.checkpoint();
+		if(n == 0)
+			return;
 		//position the nodes of the real graph
-		for(int i = 0; i < layers.size(); i++) {
-			ArrayList<Node> layer = layers.get(i);
-			for(int j = 0; j < layer.size(); j++) {
-				int index = G.nodes().indexOf(layer.get(j));
-				double x = (double)(j+1)/(layer.size()+1);
-				double y = (double)(i)/(layers.size()-1);
-				G.nodes().get(index).setPosition(x,y);
+		double[] x = new CoordinateAssignment(layers,edges,n).coordinates();
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for(double value: x) {
+			min = Math.min(min,value);
+			max = Math.max(max,value);
+		}
+		for(int v = 0; v < n; v++) {
+			double y = (double)(layerOf[v])/(layers.length-1);
+			nodes.get(v).setPosition((x[v]-min+1)/(max-min+2),y);
+		}
+	}
+	
+	/**
+	 * Splits all edges which span more than one layer by 
+	 * inserting dummy nodes on the layers in between. The dummy 
+	 * nodes get the indices n, n+1, ..., where n is the number
+	 * of nodes of the graph.
+	 * 
+	 * @param edges The edges of an acyclic graph given by the 
+	 * arrays {sources, targets}, each one showing downwards.
+	 * @param layerOf For each node the index of its layer.
+	 * @return The arrays {sources, targets, layerOf}, where the 
+	 * first two contain the edges between neighboring layers and 
+	 * the last one the layers of all nodes including the dummy nodes.
+	 */
+	private static int[][] splitLongEdges(int[][] edges, int[] layerOf) {
+		int n = layerOf.length;
+		int dummies = 0;
+		for(int e = 0; e < edges[0].length; e++)
+			dummies += layerOf[edges[1][e]] - layerOf[edges[0][e]] - 1;
+		int m = edges[0].length + dummies;
+		int[] sources = new int[m];
+		int[] targets = new int[m];
+		int[] layers = Arrays.copyOf(layerOf,n + dummies);
+		int next = n;
+		m = 0;
+		for(int e = 0; e < edges[0].length; e++) {
+			int u = edges[0][e];
+			for(int l = layerOf[u] + 1; l < layerOf[edges[1][e]]; l++) {
+				layers[next] = l;
+				sources[m] = u;
+				targets[m++] = next;
+				u = next++;
 			}
+			sources[m] = u;
+			targets[m++] = edges[1][e];
 		}
+		return new int[][] {sources,targets,layers};
 	}
 	
 	/**
 	 * Make a cyclic graph acyclic by removing loops (this is
-	 * done by reverting edges).
+	 * done by reverting edges). The edges to be reverted are
+	 * determined by the method 'edgesToReverse'. Edges from a node 
+	 * to itself are left out, since they cannot show downwards anyway.
 	 * 
-	 * @param nodes The nodes of a graph.
-	 * @param edges The edges of a graph.
+	 * @param G A graph.
+	 * @return The edges of G as an array {sources, targets} of the 
+	 * indices of their nodes, where some edges are reverted such
+	 * that the resulting graph is acyclic.
 	 */
-	private static void makeAcyclic(ArrayList<Node> nodes, ArrayList<Node[]> edges) {
-		
-		ArrayList<Node> nodesCopy = new ArrayList<Node>();
-		for(Node n: nodes)
-			nodesCopy.add(n);
-		ArrayList<Node[]> edgesCopy = new ArrayList<Node[]>();
-		for(Node[] e: edges)
-			edgesCopy.add(new Node[] {e[0],e[1]});
-		
-		ArrayList<Node[]> toReverse = edgesToReverse(nodesCopy,edgesCopy);
-		for(Node[] edge : toReverse) {
-			edges.removeIf(e->(e[0].equals(edge[0]) && e[1].equals(edge[1])));
-			edges.add(new Node[] {edge[1],edge[0]});
+	private static int[][] makeAcyclic(Graph G) {
+		ArrayList<int[]> edges = G.edges();
+		boolean[] reverse = edgesToReverse(G);
+		int m = 0;
+		for(int[] e: edges)
+			if(e[0] != e[1])
+				m++;
+		int[] sources = new int[m];
+		int[] targets = new int[m];
+		m = 0;
+		for(int i = 0; i < edges.size(); i++) {
+			int[] e = edges.get(i);
+			if(e[0] == e[1])
+				continue;
+			sources[m] = reverse[i] ? e[1] : e[0];
+			targets[m] = reverse[i] ? e[0] : e[1];
+			m++;
 		}
+		return new int[][] {sources,targets};
 	}
 	
 	/**
 	 * Computes the edges of a cyclic graph which have to 
-	 * be reversed in order to obtain an acyclic graph.
+	 * be reversed in order to obtain an acyclic graph. This is
+	 * done with the greedy heuristic of Eades, Lin and Smyth:
+	 * The nodes are removed one after the other and put into a 
+	 * sequence. Sinks are put at the end of the sequence, 
+	 * sources at its beginning, and if there is neither a sink 
+	 * nor a source, the node for which the number of outgoing 
+	 * minus the number of incoming edges is maximal is put at 
+	 * the beginning. All edges going backwards in the resulting 
+	 * sequence are reversed. In an acyclic graph all edges 
+	 * go forwards, so no edge is reversed.
+	 * <p>
+	 * The nodes are kept in bucket queues according to their 
+	 * current numbers of incoming and outgoing edges, so the 
+	 * sequence is computed in linear time. Among nodes with equal 
+	 * priority the one whose degrees changed last is taken, such 
+	 * that chains of nodes are kept together; initially the nodes 
+	 * are taken in the order of their indices.
 	 * 
-	 * @param nodes Nodes of the graph.
-	 * @param edges Edges of the graph.
-	 * @return All edges of the graph that have to be reversed
-	 * to obtain an acyclic graph.
-	 */
-	private static ArrayList<Node[]> edgesToReverse(ArrayList<Node> nodes, ArrayList<Node[]> edges) {
-		ArrayList<Node[]> toReverse = new ArrayList<Node[]>();
-		while(nodes.size() > 0) {
-			ArrayList<Node> leaves = new ArrayList<Node>();
-			ArrayList<Node> sources = new ArrayList<Node>();
-			//find all leaves & sources
-			do {
-				leaves.clear();
-				sources.clear();
-				for(Node n : nodes) {
-					boolean leaf = true;
-					boolean source = true;
-					for(Node[] edge: edges) {
-						if(edge[0].equals(n))
-							leaf = false;
-						if(edge[1].equals(n))
-							source = false;
-					}
-					if(leaf)
-						leaves.add(n);
-					if(source)
-						sources.add(n);
+	 * @param G A graph.
+	 * @return For each edge of G (in the order of G.edges()) 
+	 * whether it has to be reversed to obtain an acyclic graph.
+	 */
+	private static boolean[] edgesToReverse(Graph G) {
+		int n = G.nodes().size();
+		int[] outOffsets = G.outOffsets();
+		int[] outTargets = G.outTargets();
+		int[] inOffsets = G.inOffsets();
+		int[] inSources = G.inSources();
+		
+		//current degrees without loops
+		int[] in = new int[n];
+		int[] out = new int[n];
+		for(int[] e: G.edges())
+			if(e[0] != e[1]) {
+				out[e[0]]++;
+				in[e[1]]++;
+			}
+		
+		//bucket 0 holds the sinks, bucket 1 the sources and 
+		//bucket out-in+n+1 all other nodes (out-in lies in [-n+1,n-1])
+		int buckets = 2*n + 2;
+		int[] head = new int[buckets];
+		int[] next = new int[n];
+		int[] prev = new int[n];
+		int[] bucket = new int[n];
+		Arrays.fill(head, -1);
+		int max = 1;
+		for(int v = n - 1; v >= 0; v--) {
+			bucket[v] = bucketOf(in[v],out[v],n);
+			push(v,bucket[v],head,next,prev);
+			max = Math.max(max,bucket[v]);
+		}
+		
+		//rank of each node in the sequence
+		int[] rank = new int[n];
+		boolean[] removed = new boolean[n];
+		int left = 0;
+		int right = n - 1;
+		for(int count = 0; count < n; count++) {
+			int v;
+			if(head[0] != -1) {
+				v = head[0];
+				rank[v] = right--;
+			}
+			else {
+				if(head[1] != -1)
+					v = head[1];
+				else {
+					while(head[max] == -1)
+						max--;
+					v = head[max];
 				}
+				rank[v] = left++;
+			}
+			remove(v,bucket[v],head,next,prev);
+			removed[v] = true;
 			
-				//delete all leaves and their edges
-				for(Node n: leaves) {
-					nodes.remove(n);
-					edges.removeIf(e -> (e[1] == n));
+			//update the degrees of the neighbors
+			for(int e = outOffsets[v]; e < outOffsets[v+1]; e++) {
+				int w = outTargets[e];
+				if(w != v && !removed[w]) {
+					in[w]--;
+					max = Math.max(max,move(w,bucketOf(in[w],out[w],n),bucket,head,next,prev));
 				}
-			
-				//delete all sources and their edges
-				for(Node n: sources) {
-					if(nodes.contains(n))
-						nodes.remove(n);
-					edges.removeIf(e -> (e[0] == n));
+			}
+			for(int e = inOffsets[v]; e < inOffsets[v+1]; e++) {
+				int w = inSources[e];
+				if(w != v && !removed[w]) {
+					out[w]--;
+					max = Math.max(max,move(w,bucketOf(in[w],out[w],n),bucket,head,next,prev));
 				}
-			}while(leaves.size() > 0 || sources.size() > 0);
-			//revert one edge
-			if(edges.size() > 0) {
-				toReverse.add(edges.get(0));
-				edges.remove(0);
-			}	
+			}
 		}
-		return(toReverse);
+		
+		ArrayList<int[]> edges = G.edges();
+		boolean[] reverse = new boolean[edges.size()];
+		for(int i = 0; i < edges.size(); i++)
+			reverse[i] = rank[edges.get(i)[0]] > rank[edges.get(i)[1]];
+		return reverse;
 	}
 	
 	/**
-	 * Divides the nodes of G into layers such that all edges of
-	 * G show in the same direction.
+	 * Returns the bucket of a node with the given numbers of
+	 * incoming and outgoing edges (see 'edgesToReverse').
 	 * 
-	 * @param nodes The nodes of the graph.
-	 * @param edges The edges of the graph.
-	 * @return A list of lists of nodes, where each list of nodes 
-	 * corresponds to one layer.
+	 * @param in Number of incoming edges.
+	 * @param out Number of outgoing edges.
+	 * @param n Number of nodes of the graph.
+	 * @return The index of the bucket.
 	 */
-	private static ArrayList<ArrayList<Node>> assignLayers(ArrayList<Node> nodes,ArrayList<Node[]> edges){
-		
-		ArrayList<ArrayList<Node>> sorted = new ArrayList<ArrayList<Node>>();
-		ArrayList<Node> start = nodesWithoutInEdges(nodes,edges);
-		while(start.size() > 0) {
-			sorted.add(start);
-			nodes.removeAll(start);
-			for(int i = edges.size()-1; i >= 0; i--)
-				for(Node n: start)
-					if(n == edges.get(i)[0]) {
-						edges.remove(i);
-						break;
-					}
-			start = nodesWithoutInEdges(nodes,edges);
-		}
-		return sorted;
+	private static int bucketOf(int in, int out, int n) {
+		if(out == 0)
+			return 0;
+		if(in == 0)
+			return 1;
+		return out - in + n + 1;
 	}
 	
 	/**
-	 * Returns all nodes in the set "nodes" which have no incoming edges.
+	 * Moves node v into bucket b, unless it is already there.
 	 * 
-	 * @param nodes A set of nodes.
-	 * @param edges The set of all edges between the nodes of "nodes".
-	 * @return A subset of "nodes" containing all nodes with no incoming edges.
-	 */
-	private static ArrayList<Node> nodesWithoutInEdges(ArrayList<Node> nodes, ArrayList<Node[]> edges) {
-		ArrayList<Node> result = new ArrayList<Node>();
-		for(Node n: nodes) {
-			boolean flag = true;
-			for(Node[] edge: edges)
-				if(edge[1] == n)
-					flag = false;
-				if(flag)
-					result.add(n);
+	 * @return The bucket b.
+	 */
+	private static int move(int v, int b, int[] bucket, int[] head, int[] next, int[] prev) {
+		if(bucket[v] != b) {
+			remove(v,bucket[v],head,next,prev);
+			bucket[v] = b;
+			push(v,b,head,next,prev);
 		}
-		return result;
+		return b;
+	}
+	
+	/**
+	 * Inserts node v at the front of the linked list of bucket b.
+	 */
+	private static void push(int v, int b, int[] head, int[] next, int[] prev) {
+		prev[v] = -1;
+		next[v] = head[b];
+		if(head[b] != -1)
+			prev[head[b]] = v;
+		head[b] = v;
+	}
+	
+	/**
+	 * Removes node v from the linked list of bucket b.
+	 */
+	private static void remove(int v, int b, int[] head, int[] next, int[] prev) {
+		if(prev[v] == -1)
+			head[b] = next[v];
+		else
+			next[prev[v]] = next[v];
+		if(next[v] != -1)
+			prev[next[v]] = prev[v];
 	}
 	
 	/**
-	 * Tries to reduce the crossings in the layers given by the set "layers". This is done by
-	 * going through the layers from top to bottom and sorting each layer with some kind of
-	 * bubble sort algorithm that minimizes the total number of crossings for the current
-	 * layer with the previous layer.
+	 * Divides the nodes of an acyclic graph into layers such that 
+	 * all edges show downwards, where every node is placed directly 
+	 * below the lowest of its predecessors (longest path layering).
+	 * In particular, the first layer consists of all nodes without
+	 * incoming edges.
+	 * <p>
+	 * This is done with Kahn's algorithm: The nodes are processed in
+	 * topological order, which is obtained by counting the incoming 
+	 * edges of each node not processed yet. Thus the layers are 
+	 * computed in time O(N + E).
 	 * 
-	 * @param G An acyclic graph.
-	 * @param layers A list of layers of the nodes of G.
-	 */
-	private static void reduceCrossings(Graph G,ArrayList<ArrayList<Node>> layers){
-		for(int i = 0; i < layers.size()-1; i++) {
-			ArrayList<Node> upper = layers.get(i);
-			ArrayList<Node> lower = layers.get(i+1);
-			boolean flag = true;
-			while(flag) {
-				flag = false;
-				for(int j = 0; j < lower.size()-1; j++)
-					if(crossings(lower.get(j),lower.get(j+1),G,upper) > crossings(lower.get(j+1),lower.get(j),G,upper)) {
-						Collections.swap(lower, j, j+1);
-						flag = true;
-					}
+	 * @param n The number of nodes of the graph.
+	 * @param edges The edges of the graph given by the arrays 
+	 * {sources, targets}.
+	 * @return For each node the index of its layer.
+	 */
+	private static int[] assignLayers(int n, int[][] edges){
+		int[] sources = edges[0];
+		int[] targets = edges[1];
+		int[][] out = adjacency(n,sources,targets);
+		int[] offsets = out[0];
+		int[] successors = out[1];
+		int[] in = new int[n];
+		for(int w: targets)
+			in[w]++;
+		
+		int[] layer = new int[n];
+		int[] queue = new int[n];
+		int tail = 0;
+		for(int v = 0; v < n; v++)
+			if(in[v] == 0)
+				queue[tail++] = v;
+		for(int head = 0; head < tail; head++) {
+			int v = queue[head];
+			for(int e = offsets[v]; e < offsets[v+1]; e++) {
+				int w = successors[e];
+				layer[w] = Math.max(layer[w],layer[v]+1);
+				if(--in[w] == 0)
+					queue[tail++] = w;
 			}
 		}
+		return layer;
 	}
 	
 	/**
-	 * Computes the number of crossings of edges starting somewhere in
-	 * the layer "upper" and reaching n1 with edges starting in upper and 
-	 * reaching n2. n1 and n2 have to be in the same layer in the layered 
-	 * graph and n1 is supposed to be to the left of n2.
+	 * Divides the nodes of an acyclic graph into layers such that 
+	 * all edges show downwards and no layer contains more than "width"
+	 * nodes. This is done with the algorithm of Coffman and Graham: 
+	 * <p>
+	 * First the nodes are numbered in topological order, where 
+	 * among all nodes whose predecessors are numbered already the one 
+	 * is taken whose decreasingly sorted list of the numbers of its 
+	 * predecessors is lexicographically smallest. Then the layers are 
+	 * filled from the bottom to the top, where a node may be placed as 
+	 * soon as all of its successors lie in lower layers, and among these 
+	 * nodes the one with the largest number is taken first.
+	 * <p>
+	 * Both steps use priority queues, so the layers are computed in 
+	 * time O((N + E) log N).
 	 * 
-	 * @param n1 Node in a graph.
-	 * @param n2 Node in a graph.
-	 * @param G A graph containing n1 and n2.
-	 * @param upper The layer above the layer where n1 and n2 are from.
-	 * @return The number of crossings of edges going out from n1 with
-	 * edges going out from n2.
-	 */
-	private static int crossings(Node n1, Node n2,Graph G, ArrayList<Node> upper) {
-		int index1 = G.nodes().indexOf(n1);
-		int index2 = G.nodes().indexOf(n2);
-	
-		int numberCrossings = 0;
-		ArrayList<int[]> edges = G.edges();
-		for(int i = 0; i < edges.size(); i++)
-			for(int j = 0; j < edges.size(); j++)
-				//we have edges (v1,n1) and (v2,n2)
-				if(edges.get(i)[1] == index1 &&  edges.get(j)[1] == index2) {
-					Node v1 = G.nodes().get(edges.get(i)[0]);
-					Node v2 = G.nodes().get(edges.get(j)[0]);
-					if(upper.indexOf(v1) > upper.indexOf(v2))
-						numberCrossings++;
+	 * @param n The number of nodes of the graph.
+	 * @param edges The edges of the graph given by the arrays 
+	 * {sources, targets}.
+	 * @param width Maximal number of nodes per layer (at least 1).
+	 * @return For each node the index of its layer.
+	 */
+	private static int[] assignLayers(int n, int[][] edges, int width){
+		int[] sources = edges[0];
+		int[] targets = edges[1];
+		int[][] out = adjacency(n,sources,targets);
+		int[][] in = adjacency(n,targets,sources);
+		
+		//number the nodes
+		int[] label = new int[n];
+		int[][] labels = new int[n][];
+		int[] remaining = new int[n];
+		for(int v = 0; v < n; v++)
+			remaining[v] = in[0][v+1] - in[0][v];
+		PriorityQueue<Integer> ready = new PriorityQueue<Integer>(
+				Math.max(n,1),(v,w) -> compareLabels(labels[v],labels[w],v,w));
+		for(int v = 0; v < n; v++)
+			if(remaining[v] == 0) {
+				labels[v] = new int[0];
+				ready.add(v);
+			}
+		for(int count = 0; count < n; count++) {
+			int v = ready.poll();
+			label[v] = count;
+			for(int e = out[0][v]; e < out[0][v+1]; e++) {
+				int w = out[1][e];
+				if(--remaining[w] == 0) {
+					labels[w] = predecessorLabels(w,in,label);
+					ready.add(w);
 				}
-		return(numberCrossings);				
+			}
+		}
+		
+		//fill the layers from the bottom
+		int[] layer = new int[n];
+		for(int v = 0; v < n; v++)
+			remaining[v] = out[0][v+1] - out[0][v];
+		PriorityQueue<Integer> available = new PriorityQueue<Integer>(
+				Math.max(n,1),(v,w) -> Integer.compare(label[w],label[v]));
+		ArrayList<Integer> pending = new ArrayList<Integer>();
+		for(int v = 0; v < n; v++)
+			if(remaining[v] == 0)
+				available.add(v);
+		int current = 0;
+		int size = 0;
+		for(int count = 0; count < n; count++) {
+			if(size == width || available.isEmpty()) {
+				//start a new layer, now also nodes whose last successor
+				//was placed in the current layer may be placed
+				available.addAll(pending);
+				pending.clear();
+				current++;
+				size = 0;
+			}
+			int v = available.poll();
+			layer[v] = current;
+			size++;
+			for(int e = in[0][v]; e < in[0][v+1]; e++) {
+				int u = in[1][e];
+				if(--remaining[u] == 0)
+					pending.add(u);
+			}
+		}
+		//number the layers from the top
+		for(int v = 0; v < n; v++)
+			layer[v] = current - layer[v];
+		return layer;
+	}
+	
+	/**
+	 * Returns the numbers of the predecessors of a node sorted 
+	 * in decreasing order (see 'assignLayers').
+	 * 
+	 * @param w A node.
+	 * @param in The predecessors of all nodes given as arrays 
+	 * {offsets, sources}.
+	 * @param label The numbers of the nodes.
+	 * @return The sorted numbers.
+	 */
+	private static int[] predecessorLabels(int w, int[][] in, int[] label) {
+		int[] result = new int[in[0][w+1] - in[0][w]];
+		for(int e = in[0][w]; e < in[0][w+1]; e++)
+			result[e - in[0][w]] = -label[in[1][e]];
+		Arrays.sort(result);
+		for(int i = 0; i < result.length; i++)
+			result[i] = -result[i];
+		return result;
+	}
+	
+	/**
+	 * Compares two decreasingly sorted lists of numbers lexicographically,
+	 * where ties are broken by the indices of the nodes.
+	 */
+	private static int compareLabels(int[] a, int[] b, int v, int w) {
+		for(int i = 0; i < a.length && i < b.length; i++)
+			if(a[i] != b[i])
+				return Integer.compare(a[i],b[i]);
+		if(a.length != b.length)
+			return Integer.compare(a.length,b.length);
+		return Integer.compare(v,w);
+	}
+	
+	/**
+	 * Stores the edges of a graph as adjacency lists, such that 
+	 * the targets of all edges starting in node v are 
+	 * targets[offsets[v]], ..., targets[offsets[v+1]-1] 
+	 * (in the order of the edges).
+	 * 
+	 * @param n The number of nodes of the graph.
+	 * @param sources The starting nodes of the edges.
+	 * @param targets The ending nodes of the edges.
+	 * @return The arrays {offsets, targets}.
+	 */
+	static int[][] adjacency(int n, int[] sources, int[] targets) {
+		int[] offsets = new int[n+1];
+		for(int v: sources)
+			offsets[v+1]++;
+		for(int v = 0; v < n; v++)
+			offsets[v+1] += offsets[v];
+		int[] position = Arrays.copyOf(offsets,n);
+		int[] result = new int[sources.length];
+		for(int e = 0; e < sources.length; e++)
+			result[position[sources[e]]++] = targets[e];
+		return new int[][] {offsets,result};
+	}
+	
+	/**
+	 * Groups the nodes by their layers.
+	 * 
+	 * @param layerOf For each node the index of its layer.
+	 * @return For each layer the indices of its nodes in ascending order.
+	 */
+	private static int[][] layers(int[] layerOf) {
+		int count = 0;
+		for(int l: layerOf)
+			count = Math.max(count,l+1);
+		int[] sizes = new int[count];
+		for(int l: layerOf)
+			sizes[l]++;
+		int[][] layers = new int[count][];
+		for(int l = 0; l < count; l++)
+			layers[l] = new int[sizes[l]];
+		Arrays.fill(sizes,0);
+		for(int v = 0; v < layerOf.length; v++)
+			layers[layerOf[v]][sizes[layerOf[v]]++] = v;
+		return layers;
 	}
 }
@@ -0,0 +1,351 @@
+package Embeddings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+import Graph.Graph;
+import Graph.Node3D;
+
+/**
+ * A cache of layouts on disk, such that expensive layouts (e.g. the spring
+ * or the spectral embedding) of unchanged graphs are only computed once.
+ * A layout is identified by a fingerprint of the graph (see
+ * {@link #fingerprint(Graph) fingerprint}), the dimension and a list of
+ * parameters, which should consist of an id of the algorithm, all of its
+ * parameters and the seed of its random numbers. Any of the layout methods
+ * can be cached, e.g.
+ * <pre>
+ * cache.defineLayout(G, 2, H -&gt; SpringEmbedding.defineLayout(H, 2, 0), "spring", 0);
+ * </pre>
+ * Each layout is stored in its own file in the directory of the cache,
+ * containing the x- and y-coordinates (dimension 2) or the 3 dimensional
+ * positions (dimension 3). If the files of the cache get larger than the
+ * maximal size, the least recently used layouts are deleted, where the
+ * last modification time of a file is its last use.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class LayoutCache {
+	/**
+	 * Default maximal size of the cache in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 256L << 20;
+	/**
+	 * The first four bytes of every file of the cache.
+	 */
+	private static final int MAGIC = 0x4c594f54;
+	/**
+	 * The ending of the files of the cache.
+	 */
+	private static final String SUFFIX = ".layout";
+
+	/**
+	 * The directory of the cache.
+	 */
+	private final File directory;
+	/**
+	 * Maximal size of all files of the cache in bytes.
+	 */
+	private final long maximumSize;
+//==============================================================================
+// Constructors
+//==============================================================================
+	/**
+	 * Constructor for the cache in the folder .graphdrawing/layouts of the home
+	 * directory with the default maximal size.
+	 */
+	public LayoutCache() {
+		this(new File(System.getProperty("user.home"), ".graphdrawing" + File.separator + "layouts"),
+				DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Constructor for a cache in a given directory, which is created if it does
+	 * not exist.
+	 *
+	 * @param directory   The directory of the cache.
+	 * @param maximumSize Maximal size of all files of the cache in bytes.
+	 */
+	public LayoutCache(File directory, long maximumSize) {
+		this.directory = directory;
+		this.maximumSize = maximumSize;
+	}
+//==============================================================================
+// Layout
+//==============================================================================
+	/**
+	 * Restores the layout of a graph G from the cache, or computes it and stores
+	 * it in the cache if it is not contained. Errors of the cache (e.g. a
+	 * directory which cannot be written) only mean that the layout is computed
+	 * and not stored.
+	 *
+	 * @param G          A graph.
+	 * @param dimension  The dimension of the layout, 2 or 3.
+	 * @param embedding  Computes the layout of a graph.
+	 * @param parameters The id of the algorithm, its parameters and its seed.
+	 * @return Whether the layout was found in the cache.
+	 */
+	public boolean defineLayout(Graph G, int dimension, Consumer<Graph> embedding, Object... parameters) {
+		String key = key(G, dimension, parameters);
+		try {
+			if (restore(G, key))
+				return true;
+		} catch (IOException e) {
+			// a broken file is treated as a missing one and replaced below
+		}
+		embedding.accept(G);
+		try {
+			store(G, key, dimension);
+		} catch (IOException e) {
+			// the layout is still valid, it is only not cached
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the key of the layout of a graph G.
+	 *
+	 * @param G          A graph.
+	 * @param dimension  The dimension of the layout, 2 or 3.
+	 * @param parameters The id of the algorithm, its parameters and its seed.
+	 * @return A string determining the layout.
+	 */
+	public static String key(Graph G, int dimension, Object... parameters) {
+		long[] fingerprint = fingerprint(G);
+		StringBuilder key = new StringBuilder();
+		key.append(String.format("%016x%016x", fingerprint[0], fingerprint[1]));
+		key.append('/').append(dimension);
+		for (Object parameter : parameters)
+			key.append('/').append(parameter);
+		return key.toString();
+	}
+
+	/**
+	 * Computes a fingerprint of a graph, which depends on the names of the nodes
+	 * in their order, on the set of edges (but not on their order) and on
+	 * whether the graph is directed. It consists of two independent 64 bit
+	 * hash codes, so different graphs have the same fingerprint with a
+	 * probability of about 2^-128. Its computation takes time O(N + E) without
+	 * creating any objects.
+	 *
+	 * @param G A graph.
+	 * @return An array of two longs.
+	 */
+	public static long[] fingerprint(Graph G) {
+		long h1 = G.nodes().size();
+		long h2 = ~h1;
+		for (int i = 0; i < G.nodes().size(); i++) {
+			String name = G.nodes().get(i).name();
+			long a = name.length();
+			long b = ~a;
+			for (int k = 0; k < name.length(); k++) {
+				a = 31 * a + name.charAt(k);
+				b = 0x100000001b3L * (b ^ name.charAt(k));
+			}
+			h1 = mix(h1 ^ mix(a));
+			h2 = mix(h2 + mix(b) + 0x9e3779b97f4a7c15L);
+		}
+		// the sums of the mixed edges do not depend on the order of the edges
+		long e1 = 0;
+		long e2 = 0;
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
+		for (int i = 0; i < G.nodes().size(); i++)
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				long packed = ((long) i << 32) | (targets[k] & 0xffffffffL);
+				e1 += mix(packed);
+				e2 += mix(packed ^ 0x5851f42d4c957f2dL);
+			}
+		long flags = targets.length * 2L + (G.directed() ? 1 : 0);
+		return new long[] { mix(h1 ^ mix(e1 ^ flags)), mix(h2 ^ mix(e2 + flags)) };
+	}
+//==============================================================================
+// Storing and restoring layouts
+//==============================================================================
+	/**
+	 * Restores a layout of a graph G from the cache and marks it as recently
+	 * used.
+	 *
+	 * @param G   A graph.
+	 * @param key The key of the layout (see {@link #key(Graph, int, Object...) key}).
+	 * @return Whether the layout was contained in the cache.
+	 * @throws IOException If the file of the layout cannot be read.
+	 */
+	public boolean restore(Graph G, String key) throws IOException {
+		File file = file(key);
+		if (!file.isFile())
+			return false;
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Invalid layout file " + file);
+			buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0);
+		}
+		buffer.flip();
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new IOException("Invalid layout file " + file);
+			byte[] stored = new byte[buffer.getInt()];
+			buffer.get(stored);
+			// files with colliding names belong to another layout
+			if (!key.equals(new String(stored, StandardCharsets.UTF_8)))
+				return false;
+			int n = buffer.getInt();
+			int dimension = buffer.getInt();
+			if (n != G.nodes().size() || buffer.remaining() != 8L * n * dimension)
+				throw new IOException("Invalid layout file " + file);
+			DoubleBuffer values = buffer.asDoubleBuffer();
+			if (dimension == 2) {
+				values.get(G.xCoordinates(), 0, n);
+				values.get(G.yCoordinates(), 0, n);
+			} else {
+				double[][] p = G.coordinates3D();
+				for (int k = 0; k < 3; k++)
+					values.get(p[k], 0, n);
+				Node3D.project3DPoints(G);
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid layout file " + file, e);
+		}
+		file.setLastModified(System.currentTimeMillis());
+		return true;
+	}
+
+	/**
+	 * Stores the layout of a graph G in the cache and deletes the least recently
+	 * used layouts if the cache gets too large.
+	 *
+	 * @param G         A graph.
+	 * @param key       The key of the layout (see {@link #key(Graph, int, Object...) key}).
+	 * @param dimension The dimension of the layout, 2 (the x- and y-coordinates
+	 *                  are stored) or 3 (the 3 dimensional positions are stored).
+	 * @throws IOException If the file of the layout cannot be written.
+	 */
+	public void store(Graph G, String key, int dimension) throws IOException {
+		if (dimension != 2 && dimension != 3)
+			throw new IllegalArgumentException("Dimension must be 2 or 3");
+		int n = G.nodes().size();
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		long size = 16L + bytes.length + 8L * n * dimension;
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Layout too large");
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+		buffer.putInt(n);
+		buffer.putInt(dimension);
+		DoubleBuffer values = buffer.asDoubleBuffer();
+		if (dimension == 2) {
+			values.put(G.xCoordinates(), 0, n);
+			values.put(G.yCoordinates(), 0, n);
+		} else
+			for (double[] p : G.coordinates3D())
+				values.put(p, 0, n);
+		buffer.rewind();
+
+		// write a temporary file first, such that no other process reads
+		// a partially written layout
+		Files.createDirectories(directory.toPath());
+		File temporary = File.createTempFile("layout", ".tmp", directory);
+		try {
+			try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+			}
+			Files.move(temporary.toPath(), file(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			temporary.delete();
+		}
+		evict();
+	}
+
+	/**
+	 * Deletes all layouts of the cache.
+	 */
+	public void clear() {
+		for (File file : files())
+			file.delete();
+	}
+
+	/**
+	 * Returns the total size of all layouts of the cache in bytes.
+	 *
+	 * @return long
+	 */
+	public long size() {
+		long size = 0;
+		for (File file : files())
+			size += file.length();
+		return size;
+	}
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Deletes the least recently used layouts until the cache is not larger
+	 * than its maximal size.
+	 */
+	private void evict() {
+		File[] files = files();
+		long size = 0;
+		for (File file : files)
+			size += file.length();
+		if (size <= maximumSize)
+			return;
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < files.length && size > maximumSize; i++) {
+			long length = files[i].length();
+			if (files[i].delete())
+				size -= length;
+		}
+	}
+
+	/**
+	 * Returns all files of the cache.
+	 */
+	private File[] files() {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		return files == null ? new File[0] : files;
+	}
+
+	/**
+	 * Returns the file of the layout with the given key, whose name is a hash
+	 * code of the key.
+	 */
+	private File file(String key) {
+		long a = 0;
+		long b = 0;
+		for (int k = 0; k < key.length(); k++) {
+			a = mix(a + key.charAt(k));
+			b = 0x100000001b3L * (b ^ key.charAt(k));
+		}
+		return new File(directory, String.format("%016x%016x", a, mix(b)) + SUFFIX);
+	}
+
+	/**
+	 * Mixes the bits of a long value (the finalizer of MurmurHash3).
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb93fe66ba3bbL;
+		h ^= h >>> 33;
+		return h;
+	}
+}
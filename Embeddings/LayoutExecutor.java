@@ -0,0 +1,371 @@
+package Embeddings;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import Graph.Graph;
+import Graph.Node3D;
+
+/**
+ * Computes layouts on a background thread, such that a user interface stays
+ * responsive while a layout is computed. The layout is computed on a copy of
+ * the graph, so the graph itself can still be drawn, zoomed and moved. When the
+ * layout is finished, its coordinates are copied into the graph by the
+ * publisher of the executor (e.g. EventQueue::invokeLater), which also calls
+ * all methods of the listener of the layout. If the publisher is the thread
+ * which draws the graph, the new layout appears at once and never partially.
+ * <p>
+ * Layouts are cancelled cooperatively: the layout algorithms call
+ * {@link #checkpoint() checkpoint} or {@link #progress(double) progress}
+ * regularly, which throw a CancellationException as soon as the layout was
+ * cancelled or its time is up. Outside of this executor these calls have no
+ * effect. An algorithm without such calls cannot be stopped, but its result is
+ * discarded if it was cancelled in the meantime.
+ * <p>
+ * Only one layout is computed at a time, submitting a new layout cancels the
+ * current one.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class LayoutExecutor {
+	/**
+	 * Minimal time between two progress reports in nanoseconds.
+	 */
+	static final long PROGRESS_INTERVAL = 50000000;
+	/**
+	 * The task computed by the current thread, null for all other threads.
+	 */
+	private static final ThreadLocal<Task> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The thread on which the layouts are computed.
+	 */
+	private final ExecutorService worker;
+	/**
+	 * Runs the listeners and copies the finished layouts into the graphs.
+	 */
+	private final Executor publisher;
+	/**
+	 * The last submitted task.
+	 */
+	private Task current;
+
+	/**
+	 * Receives the results of a layout. All methods are called by the
+	 * publisher of the executor, and after the first call of finished,
+	 * cancelled or failed no more methods are called.
+	 */
+	public interface Listener {
+		/**
+		 * Called from time to time while the layout is computed.
+		 *
+		 * @param fraction Estimated part of the layout which is done, between 0
+		 *                 and 1.
+		 */
+		default void progress(double fraction) {
+		}
+
+		/**
+		 * Called after the coordinates of the layout were copied into the
+		 * graph.
+		 *
+		 * @param G The graph.
+		 */
+		void finished(Graph G);
+
+		/**
+		 * Called if the layout was cancelled. The graph is not changed.
+		 */
+		default void cancelled() {
+		}
+
+		/**
+		 * Called if the layout failed or took longer than its timeout (with a
+		 * TimeoutException). The graph is not changed.
+		 *
+		 * @param e The reason of the failure.
+		 */
+		default void failed(Throwable e) {
+		}
+	}
+//==============================================================================
+// Constructor
+//==============================================================================
+	/**
+	 * Constructor for an executor with its own background thread.
+	 *
+	 * @param publisher Runs the listeners and copies the finished layouts into
+	 *                  the graphs, e.g. EventQueue::invokeLater.
+	 */
+	public LayoutExecutor(Executor publisher) {
+		this.publisher = publisher;
+		worker = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "layout");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+//==============================================================================
+// Submitting and cancelling layouts
+//==============================================================================
+	/**
+	 * Cancels the current layout and starts a new one. The graph must not get
+	 * new nodes until the layout is finished or cancelled.
+	 *
+	 * @param G         A graph.
+	 * @param dimension The dimension of the layout: for 2 the x- and
+	 *                  y-coordinates are copied into G, for 3 the 3 dimensional
+	 *                  positions are copied and projected with the camera of G.
+	 * @param embedding Computes the layout of a graph, e.g. H -&gt;
+	 *                  SpringEmbedding.defineLayout(H, 2, 0).
+	 * @param timeout   Time in milliseconds after which the layout is stopped,
+	 *                  0 for no timeout.
+	 * @param listener  Receives the results of the layout.
+	 * @return The new layout.
+	 */
+	public Task submit(Graph G, int dimension, Consumer<Graph> embedding, long timeout, Listener listener) {
+		cancel();
+		long deadline = timeout > 0 ? System.nanoTime() + timeout * 1000000 : Long.MAX_VALUE;
+		Task task = new Task(G, G.copy(), dimension, embedding, deadline, listener);
+		task.future = worker.submit(task::run);
+		current = task;
+		return task;
+	}
+
+	/**
+	 * Cancels the current layout, if there is one.
+	 */
+	public void cancel() {
+		if (current != null)
+			current.cancel();
+	}
+
+	/**
+	 * Cancels the current layout and stops the background thread.
+	 */
+	public void shutdown() {
+		cancel();
+		worker.shutdown();
+	}
+//==============================================================================
+// Cooperative cancellation
+//==============================================================================
+	/**
+	 * Stops the layout computed by the current thread if it was cancelled, if its
+	 * time is up or if the thread was interrupted.
+	 *
+	 * @throws CancellationException If the layout has to stop.
+	 */
+	public static void checkpoint() {
+		Task task = CURRENT.get();
+		if (task == null)
+			return;
+		if (Thread.currentThread().isInterrupted())
+			throw new CancellationException("Layout cancelled");
+		task.check();
+	}
+
+	/**
+	 * Returns a checkpoint of the layout computed by the current thread, which
+	 * other threads helping with this layout (e.g. on a ForkJoinPool) can call
+	 * like {@link #checkpoint() checkpoint}. Outside of this executor the
+	 * returned checkpoint has no effect.
+	 *
+	 * @return A Runnable throwing a CancellationException if the layout has to
+	 *         stop.
+	 */
+	public static Runnable currentCheckpoint() {
+		Task task = CURRENT.get();
+		if (task == null)
+			return () -> {
+			};
+		return task::check;
+	}
+
+	/**
+	 * Like {@link #checkpoint() checkpoint}, but also reports the progress of
+	 * the layout computed by the current thread to its listener, at most once
+	 * every PROGRESS_INTERVAL nanoseconds.
+	 *
+	 * @param fraction Estimated part of the layout which is done, between 0 and
+	 *                 1.
+	 * @throws CancellationException If the layout has to stop.
+	 */
+	public static void progress(double fraction) {
+		checkpoint();
+		Task task = CURRENT.get();
+		if (task == null)
+			return;
+		long now = System.nanoTime();
+		if (now - task.reported < PROGRESS_INTERVAL)
+			return;
+		task.reported = now;
+		task.report(Math.min(Math.max(fraction, 0), 1));
+	}
+//==============================================================================
+// Tasks
+//==============================================================================
+	/**
+	 * A layout submitted to the executor.
+	 */
+	public class Task {
+		/**
+		 * The graph which gets the layout.
+		 */
+		private final Graph G;
+		/**
+		 * The copy of G on which the layout is computed.
+		 */
+		private final Graph copy;
+		private final int dimension;
+		private final Consumer<Graph> embedding;
+		/**
+		 * Value of System.nanoTime() after which the layout is stopped.
+		 */
+		private final long deadline;
+		private final Listener listener;
+		private Future<?> future;
+		/**
+		 * Whether the layout was cancelled or timed out.
+		 */
+		private volatile boolean cancelled;
+		private volatile boolean timedOut;
+		/**
+		 * Whether the listener was told the result, only changed by the
+		 * publisher.
+		 */
+		private volatile boolean done;
+		/**
+		 * Time of the last progress report.
+		 */
+		private long reported = System.nanoTime();
+
+		private Task(Graph G, Graph copy, int dimension, Consumer<Graph> embedding, long deadline,
+				Listener listener) {
+			this.G = G;
+			this.copy = copy;
+			this.dimension = dimension;
+			this.embedding = embedding;
+			this.deadline = deadline;
+			this.listener = listener;
+		}
+
+		/**
+		 * Cancels the layout, unless it is already finished. If this is called
+		 * by the publisher, the graph is guaranteed to keep its old layout,
+		 * otherwise the layout might be copied before the cancellation takes
+		 * effect.
+		 */
+		public void cancel() {
+			if (cancelled || done)
+				return;
+			cancelled = true;
+			future.cancel(true);
+			publisher.execute(() -> {
+				if (done)
+					return;
+				done = true;
+				listener.cancelled();
+			});
+		}
+
+		/**
+		 * Throws a CancellationException if the layout was cancelled or its
+		 * time is up.
+		 */
+		private void check() {
+			if (cancelled)
+				throw new CancellationException("Layout cancelled");
+			if (System.nanoTime() > deadline) {
+				timedOut = true;
+				throw new CancellationException("Layout timed out");
+			}
+		}
+
+		/**
+		 * Returns whether the layout was cancelled.
+		 *
+		 * @return boolean
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		/**
+		 * Computes the layout on the background thread.
+		 */
+		private void run() {
+			CURRENT.set(this);
+			try {
+				checkpoint();
+				embedding.accept(copy);
+				checkpoint();
+				publish(() -> {
+					copyLayout();
+					listener.finished(G);
+				});
+			} catch (CancellationException e) {
+				if (timedOut)
+					fail(new TimeoutException("Layout timed out"));
+			} catch (Exception | Error e) {
+				fail(e);
+			} finally {
+				CURRENT.remove();
+			}
+		}
+
+		/**
+		 * Passes the result of the layout to the listener on the publisher,
+		 * unless the layout was cancelled or the listener was already told a
+		 * result.
+		 */
+		private void publish(Runnable result) {
+			publisher.execute(() -> {
+				if (done || cancelled)
+					return;
+				done = true;
+				result.run();
+			});
+		}
+
+		/**
+		 * Reports a failure.
+		 */
+		private void fail(Throwable e) {
+			publish(() -> listener.failed(e));
+		}
+
+		/**
+		 * Reports the progress of the layout.
+		 */
+		private void report(double fraction) {
+			publisher.execute(() -> {
+				if (!done && !cancelled)
+					listener.progress(fraction);
+			});
+		}
+
+		/**
+		 * Copies the coordinates of the layout from the copy into the graph.
+		 */
+		private void copyLayout() {
+			int n = G.nodes().size();
+			if (dimension == 3) {
+				double[][] p = copy.coordinates3D();
+				double[][] q = G.coordinates3D();
+				for (int k = 0; k < 3; k++)
+					System.arraycopy(p[k], 0, q[k], 0, n);
+				Node3D.project3DPoints(G);
+			} else {
+				System.arraycopy(copy.xCoordinates(), 0, G.xCoordinates(), 0, n);
+				System.arraycopy(copy.yCoordinates(), 0, G.yCoordinates(), 0, n);
+			}
+		}
+	}
+}
@@ -1,9 +1,6 @@
 package Embeddings;
 
-import java.util.ArrayList;
-
 import Graph.Graph;
-import Graph.Node;
 /**
  * Class to align a graph according to a linear embedding. This means
  * that all nodes are placed on a horizontal line within the unit square.
@@ -20,10 +17,13 @@ public class LinearEmbedding {
 	 * @param G A graph.
 	 */
 	public static void defineLayout(Graph G) {
-		ArrayList<Node> nodes = G.nodes();
-		double n = nodes.size()-1;
-		for(int i = 0; i < nodes.size(); i++) {
-			nodes.get(i).setPosition(i/n, 0.5);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		int size = G.nodes().size();
+		double n = size-1;
+		for(int i = 0; i < size; i++) {
+			x[i] = i/n;
+			y[i] = 0.5;
 		}
 	}
 }
@@ -0,0 +1,323 @@
+package Embeddings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import Graph.Graph;
+import Graph.Node3D;
+
+/**
+ * Implements a multilevel version of the force-based layout of the class
+ * {@link SpringEmbedding SpringEmbedding}. Large graphs are first coarsened
+ * step by step by collapsing matched pairs of adjacent nodes, until only a few
+ * hundred nodes are left. This coarsest graph is laid out with the spring model.
+ * Then the positions are prolonged level by level back to the original graph,
+ * where each node starts at the position of the node it was collapsed into and
+ * only a few iterations of the spring model are needed to refine the layout.
+ * This way the global structure of the layout is found on small graphs, while
+ * the expensive iterations on the large graphs only have to fix local details.
+ * Therefore the refinement uses a coarser Barnes-Hut approximation of the
+ * repulsive forces than the spring model on its own.
+ * <p>
+ * The forces are computed on the common ForkJoinPool, so the layout is
+ * faster on more cores.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class MultilevelEmbedding {
+	/**
+	 * Graphs with at most COARSEST_SIZE nodes are not coarsened any further.
+	 */
+	static final int COARSEST_SIZE = 300;
+	/**
+	 * Coarsening stops if a coarser graph would still have more than
+	 * MINIMAL_REDUCTION times the nodes of the finer graph.
+	 */
+	static final double MINIMAL_REDUCTION = 0.9;
+	/**
+	 * Number of iterations of the spring model performed on each level except the
+	 * coarsest one.
+	 */
+	static final int REFINEMENT_ITERATIONS = 30;
+	/**
+	 * Opening angle of the Barnes-Hut approximation on every level except the
+	 * coarsest one, if the spring model chooses its opening angle automatically.
+	 * The refinement only moves nodes locally, which hardly depends on the
+	 * details of the forces of distant nodes, so a coarser approximation than
+	 * DEFAULT_THETA suffices.
+	 */
+	static final double REFINEMENT_THETA = 1.5;
+	/**
+	 * The random numbers used for coarsening and prolongation are generated with
+	 * this seed, such that the layout of a graph is always the same.
+	 */
+	static final long SEED = 1;
+
+	/**
+	 * The spring model used on every level. Its configuration (constants, step
+	 * length, opening angle, pool, ...) applies to all levels, except that the
+	 * finer levels are only refined with REFINEMENT_ITERATIONS iterations.
+	 */
+	private final SpringEmbedding spring;
+
+	/**
+	 * Constructor for a multilevel layout using the spring model with its default
+	 * configuration, which computes the forces sequentially.
+	 */
+	public MultilevelEmbedding() {
+		this(new SpringEmbedding());
+	}
+
+	/**
+	 * Constructor for a multilevel layout using the given spring model on every
+	 * level.
+	 *
+	 * @param spring A configured instance of the class 'SpringEmbedding'.
+	 */
+	public MultilevelEmbedding(SpringEmbedding spring) {
+		this.spring = spring;
+	}
+
+	/**
+	 * Aligns the nodes of a Graph G either within in the unit square, or within the
+	 * unit cube. Nodes are aligned according to the force-based layout algorithm
+	 * of the class 'SpringEmbedding', computed with the multilevel scheme
+	 * described above, where the forces are computed in parallel on the common
+	 * ForkJoinPool.
+	 *
+	 * @param G         A Graph
+	 * @param dimension Can be 2 or 3, and decides whether the nodes should lie
+	 *                  within the unit square (dim=2) or within the unit cube
+	 *                  (dim=3)
+	 */
+	public static void defineLayout(Graph G, int dimension) {
+		SpringEmbedding spring = new SpringEmbedding();
+		spring.setPool(ForkJoinPool.commonPool());
+		new MultilevelEmbedding(spring).layout(G, dimension);
+	}
+
+	/**
+	 * Aligns the nodes of a Graph G like the method 'defineLayout', using the
+	 * spring model of this instance.
+	 *
+	 * @param G         A Graph
+	 * @param dimension Can be 2 or 3
+	 */
+	public void layout(Graph G, int dimension) {
+		if (G.nodes().size() == 0)
+			return;
+		Random random = new Random(SEED);
+
+		// coarsen the graph level by level
+		ArrayList<Graph> levels = new ArrayList<>();
+		ArrayList<int[]> parents = new ArrayList<>();
+		levels.add(G);
+		Graph current = G;
+		while (current.nodes().size() > COARSEST_SIZE) {
+			int[] parent = new int[current.nodes().size()];
+			int coarseSize = match(current, parent, random);
+			if (coarseSize > MINIMAL_REDUCTION * current.nodes().size())
+				break;
+			current = contract(current, parent, coarseSize);
+			levels.add(current);
+			parents.add(parent);
+		}
+
+		// lay out the coarsest graph
+		double[][] p = coordinates(current, dimension);
+		for (int i = 0; i < current.nodes().size(); i++)
+			for (int k = 0; k < dimension; k++)
+				p[k][i] = random.nextDouble();
+		spring.iterate(current, p, dimension, spring.maximumIterations());
+
+		// prolong and refine level by level
+		for (int level = levels.size() - 2; level >= 0; level--) {
+			Graph fine = levels.get(level);
+			int[] parent = parents.get(level);
+			double[][] q = coordinates(fine, dimension);
+			prolong(p, q, parent, fine.nodes().size(), current.nodes().size(), dimension, random);
+			spring.iterate(fine, q, dimension, REFINEMENT_ITERATIONS, refinementTheta(fine));
+			current = fine;
+			p = q;
+		}
+
+		if (dimension == 2)
+			Node3D.scale(G);
+		else
+			Node3D.project3DPoints(G);
+	}
+
+//==============================================================================
+// Coarsening
+//==============================================================================
+	/**
+	 * Computes a matching of the nodes of G, considered as an undirected graph.
+	 * The nodes are visited in random order and each unmatched node is matched
+	 * with its unmatched neighbor of smallest degree. Nodes which remain unmatched
+	 * but have a neighbor are collapsed together with this neighbor, such that
+	 * also star-like graphs shrink quickly. Isolated nodes stay on their own.
+	 *
+	 * @param G      A Graph
+	 * @param parent Array in which for each node of G the index of the node of the
+	 *               coarse graph it is collapsed into is stored.
+	 * @param random Source of randomness for the order of the nodes.
+	 * @return The number of nodes of the coarse graph.
+	 */
+	private static int match(Graph G, int[] parent, Random random) {
+		int n = G.nodes().size();
+		int[] outOffsets = G.outOffsets();
+		int[] outTargets = G.outTargets();
+		int[] inOffsets = G.inOffsets();
+		int[] inSources = G.inSources();
+
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+
+		Arrays.fill(parent, -1);
+		int coarseSize = 0;
+		for (int u : order) {
+			if (parent[u] != -1)
+				continue;
+			int best = -1;
+			int bestDegree = Integer.MAX_VALUE;
+			for (int k = outOffsets[u]; k < outOffsets[u + 1]; k++) {
+				int v = outTargets[k];
+				int degree = G.outDegree(v) + G.inDegree(v);
+				if (v != u && parent[v] == -1 && degree < bestDegree) {
+					best = v;
+					bestDegree = degree;
+				}
+			}
+			for (int k = inOffsets[u]; k < inOffsets[u + 1]; k++) {
+				int v = inSources[k];
+				int degree = G.outDegree(v) + G.inDegree(v);
+				if (v != u && parent[v] == -1 && degree < bestDegree) {
+					best = v;
+					bestDegree = degree;
+				}
+			}
+			if (best != -1) {
+				parent[u] = coarseSize;
+				parent[best] = coarseSize;
+				coarseSize++;
+			}
+		}
+
+		// remaining nodes join a matched neighbor or stay on their own
+		for (int u : order) {
+			if (parent[u] != -1)
+				continue;
+			if (outOffsets[u] < outOffsets[u + 1] && outTargets[outOffsets[u]] != u)
+				parent[u] = parent[outTargets[outOffsets[u]]];
+			else if (inOffsets[u] < inOffsets[u + 1] && inSources[inOffsets[u]] != u)
+				parent[u] = parent[inSources[inOffsets[u]]];
+			if (parent[u] == -1)
+				parent[u] = coarseSize++;
+		}
+		return coarseSize;
+	}
+
+	/**
+	 * Builds the coarse graph in which all nodes of G with the same parent are
+	 * collapsed into a single node. Two nodes of the coarse graph are adjacent if
+	 * any of the nodes collapsed into them are adjacent in G.
+	 *
+	 * @param G          A Graph
+	 * @param parent     For each node of G the index of its node in the coarse
+	 *                   graph.
+	 * @param coarseSize The number of nodes of the coarse graph.
+	 * @return The coarse graph.
+	 */
+	private static Graph contract(Graph G, int[] parent, int coarseSize) {
+		Graph coarse = new Graph();
+		String[] names = new String[coarseSize];
+		for (int c = 0; c < coarseSize; c++)
+			names[c] = Integer.toString(c);
+		coarse.addNodes(names);
+
+		int n = G.nodes().size();
+		int[] outOffsets = G.outOffsets();
+		int[] outTargets = G.outTargets();
+		int[] sources = new int[outTargets.length];
+		int[] targets = new int[outTargets.length];
+		int count = 0;
+		for (int u = 0; u < n; u++) {
+			for (int k = outOffsets[u]; k < outOffsets[u + 1]; k++) {
+				int from = parent[u];
+				int to = parent[outTargets[k]];
+				if (from != to) {
+					sources[count] = Math.min(from, to);
+					targets[count] = Math.max(from, to);
+					count++;
+				}
+			}
+		}
+		coarse.addEdges(sources, targets, count);
+		return coarse;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Places every node of the finer graph at the position of the node of the
+	 * coarse graph it was collapsed into, plus a small random offset to separate
+	 * nodes collapsed into the same node. Since a graph with more nodes needs more
+	 * space, the layout is stretched according to the ratio of the numbers of
+	 * nodes.
+	 *
+	 * @param p          Coordinates of the nodes of the coarse graph.
+	 * @param q          Coordinates of the nodes of the fine graph, which are set.
+	 * @param parent     For each node of the fine graph the index of its node in
+	 *                   the coarse graph.
+	 * @param fineSize   The number of nodes of the fine graph.
+	 * @param coarseSize The number of nodes of the coarse graph.
+	 * @param dimension  Can be 2 or 3.
+	 * @param random     Source of randomness for the offsets.
+	 */
+	private void prolong(double[][] p, double[][] q, int[] parent, int fineSize, int coarseSize,
+			int dimension, Random random) {
+		double stretch = Math.pow((double) fineSize / coarseSize, 1. / dimension);
+		for (int i = 0; i < fineSize; i++)
+			for (int k = 0; k < dimension; k++)
+				q[k][i] = stretch * p[k][parent[i]] + spring.k() * 0.1 * (random.nextDouble() - 0.5);
+	}
+
+	/**
+	 * Returns the opening angle used to refine the layout of G, which is
+	 * REFINEMENT_THETA unless the spring model computes the exact forces for G or
+	 * has a fixed opening angle.
+	 *
+	 * @param G A Graph
+	 * @return The opening angle or 0.
+	 */
+	private double refinementTheta(Graph G) {
+		if (spring.theta() >= 0 || spring.theta(G) == 0)
+			return spring.theta(G);
+		return REFINEMENT_THETA;
+	}
+
+	/**
+	 * Returns the arrays in which the spring model moves the nodes of G.
+	 *
+	 * @param G         A Graph
+	 * @param dimension Can be 2 or 3
+	 * @return The x- and y-coordinates of G in 2 dimensions and the 3 dimensional
+	 *         coordinates otherwise.
+	 */
+	private static double[][] coordinates(Graph G, int dimension) {
+		if (dimension == 2)
+			return new double[][] { G.xCoordinates(), G.yCoordinates() };
+		return G.coordinates3D();
+	}
+}
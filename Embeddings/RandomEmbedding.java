@@ -1,6 +1,7 @@
 package Embeddings;
+import java.util.Random;
+
 import Graph.Graph;
-import Graph.Node;
 
 /**
  * Class to align a graph according to a random embedding. This means
@@ -18,8 +19,28 @@ public class RandomEmbedding {
 	 * @param G A graph.
 	 */
 	public static void defineLayout(Graph G) {
-		for(Node node: G.nodes()) {
-			node.setPosition(Math.random(),Math.random());
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		for(int i = 0; i < G.nodes().size(); i++) {
+			x[i] = Math.random();
+			y[i] = Math.random();
+		}
+	}
+
+	/**
+	 * Aligns the nodes of a graph G randomly in the
+	 * unit square, where the positions are drawn from
+	 * the given random number generator.
+	 * 
+	 * @param G A graph.
+	 * @param random A random number generator.
+	 */
+	public static void defineLayout(Graph G, Random random) {
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		for(int i = 0; i < G.nodes().size(); i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
 		}
 	}
 	
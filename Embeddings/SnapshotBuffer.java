@@ -0,0 +1,146 @@
+package Embeddings;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Passes intermediate positions of a running layout from the thread computing
+ * the layout to the thread drawing it, without locks and without allocating
+ * memory per snapshot. The buffer consists of three arrays of positions: one
+ * is written by the layout, one is read by the drawing thread and the third
+ * one holds the newest finished snapshot. Publishing a snapshot and taking the
+ * newest one are atomic exchanges with the third array, so the layout never
+ * waits for the drawing thread and never overwrites the positions which are
+ * currently drawn. Snapshots which are not taken in time are simply replaced
+ * by newer ones.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class SnapshotBuffer {
+	/**
+	 * Number of nodes.
+	 */
+	private final int n;
+	private final int dimension;
+	/**
+	 * The newest published snapshot, or the snapshot returned by the reader if
+	 * nothing was published since.
+	 */
+	private final AtomicReference<Snapshot> middle;
+	/**
+	 * The snapshot written by the layout.
+	 */
+	private Snapshot back;
+	/**
+	 * The snapshot last returned to the reader.
+	 */
+	private Snapshot front;
+	/**
+	 * Number of published snapshots, only used by the layout.
+	 */
+	private long published;
+
+	/**
+	 * The positions of all nodes after some iteration of a layout.
+	 */
+	public static class Snapshot {
+		private final double[][] p;
+		private int iteration;
+		/**
+		 * Number of the snapshot, 0 for the empty initial snapshots.
+		 */
+		private long sequence;
+
+		private Snapshot(int n, int dimension) {
+			p = new double[dimension][n];
+		}
+
+		/**
+		 * Returns the k-th coordinates of all nodes. The array belongs to the
+		 * snapshot and must not be changed.
+		 *
+		 * @param k 0 for the x-coordinates, 1 for the y-coordinates, 2 for the
+		 *          z-coordinates.
+		 * @return An array of length size().
+		 */
+		public double[] coordinates(int k) {
+			return p[k];
+		}
+
+		/**
+		 * Returns the number of iterations performed before the snapshot was
+		 * taken.
+		 *
+		 * @return int
+		 */
+		public int iteration() {
+			return iteration;
+		}
+	}
+//==============================================================================
+// Constructor
+//==============================================================================
+	/**
+	 * Constructor for a buffer of snapshots of a layout.
+	 *
+	 * @param n         The number of nodes.
+	 * @param dimension The dimension of the layout, 2 or 3.
+	 */
+	public SnapshotBuffer(int n, int dimension) {
+		this.n = n;
+		this.dimension = dimension;
+		back = new Snapshot(n, dimension);
+		front = new Snapshot(n, dimension);
+		middle = new AtomicReference<>(new Snapshot(n, dimension));
+	}
+//==============================================================================
+// Writing and reading snapshots
+//==============================================================================
+	/**
+	 * Publishes the current positions of a layout. Must only be called by one
+	 * thread at a time.
+	 *
+	 * @param p         The positions of the nodes, one array per dimension, each
+	 *                  with at least size() entries.
+	 * @param iteration The number of iterations performed so far.
+	 */
+	public void publish(double[][] p, int iteration) {
+		for (int k = 0; k < dimension; k++)
+			System.arraycopy(p[k], 0, back.p[k], 0, n);
+		back.iteration = iteration;
+		back.sequence = ++published;
+		back = middle.getAndSet(back);
+	}
+
+	/**
+	 * Returns the newest snapshot, if it was not returned before. The returned
+	 * snapshot stays unchanged until the next call of this method. Must only be
+	 * called by one thread at a time.
+	 *
+	 * @return The newest snapshot or null if there is no new one.
+	 */
+	public Snapshot poll() {
+		if (middle.get().sequence <= front.sequence)
+			return null;
+		front = middle.getAndSet(front);
+		return front;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return int
+	 */
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Returns the dimension of the layout.
+	 *
+	 * @return int
+	 */
+	public int dimension() {
+		return dimension;
+	}
+}
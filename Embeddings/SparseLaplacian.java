@@ -0,0 +1,105 @@
+package Embeddings;
+
+import Graph.Graph;
+import Jama.Matrix;
+
+/**
+ * The Laplacian matrix L = D - A of a graph stored in compressed sparse row
+ * format, where the graph is considered to be undirected. A is the adjacency
+ * matrix (with an entry 1 for every pair of adjacent nodes, no matter how many
+ * edges connect them) and D is the diagonal matrix of the degrees, i.e. the
+ * row sums of A. Loops do not contribute to L.
+ * <p>
+ * Only the non-zero entries are stored, so the matrix of a graph with N nodes
+ * and E edges needs O(N + E) memory instead of O(N^2).
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+class SparseLaplacian {
+	/**
+	 * Number of rows (and columns).
+	 */
+	private final int n;
+	/**
+	 * The off-diagonal entries of row i (all equal to -1) are in the columns
+	 * columns[offsets[i]], ..., columns[offsets[i+1]-1].
+	 */
+	private final int[] offsets;
+	private final int[] columns;
+
+	/**
+	 * Builds the Laplacian matrix of a graph G directly from its edges.
+	 *
+	 * @param G A graph.
+	 */
+	SparseLaplacian(Graph G) {
+		n = G.nodes().size();
+		int[][] neighbors = SpringEmbedding.neighbors(G);
+		offsets = neighbors[0];
+		columns = neighbors[1];
+	}
+
+	/**
+	 * Returns the number of rows of the matrix.
+	 *
+	 * @return int
+	 */
+	int size() {
+		return n;
+	}
+
+	/**
+	 * Returns the degree of a node, i.e. the diagonal entry of its row.
+	 *
+	 * @param i A row.
+	 * @return int
+	 */
+	int degree(int i) {
+		return offsets[i + 1] - offsets[i];
+	}
+
+	/**
+	 * Returns an upper bound for the largest eigenvalue of the matrix, namely
+	 * twice the maximal degree (Gershgorin circle theorem).
+	 *
+	 * @return double
+	 */
+	double normBound() {
+		int max = 0;
+		for (int i = 0; i < n; i++)
+			max = Math.max(max, degree(i));
+		return 2. * max;
+	}
+
+	/**
+	 * Computes the product y = L x.
+	 *
+	 * @param x A vector of length n.
+	 * @param y A vector of length n in which the result is stored.
+	 */
+	void multiply(double[] x, double[] y) {
+		for (int i = 0; i < n; i++) {
+			double sum = degree(i) * x[i];
+			for (int e = offsets[i]; e < offsets[i + 1]; e++)
+				sum -= x[columns[e]];
+			y[i] = sum;
+		}
+	}
+
+	/**
+	 * Returns the matrix as a dense Jama matrix.
+	 *
+	 * @return Matrix
+	 */
+	Matrix toMatrix() {
+		Matrix L = new Matrix(n, n);
+		for (int i = 0; i < n; i++) {
+			L.set(i, i, degree(i));
+			for (int e = offsets[i]; e < offsets[i + 1]; e++)
+				L.set(i, columns[e], -1);
+		}
+		return L;
+	}
+}
@@ -1,7 +1,6 @@
 package Embeddings;
 
 import Graph.Graph;
-import Graph.Node;
 import Graph.Node3D;
 import Jama.EigenvalueDecomposition;
 import Jama.Matrix;
@@ -11,12 +10,29 @@ import Jama.Matrix;
  * that the nodes of the graph are aligned according to the eigenvectors
  * corresponding to the smallest non-zero eigenvalues of the Lagrangian matrix 
  * of the graph. This class provides a 2D layout and a 3D layout.
+ * <p>
+ * The Lagrangian matrix is stored as a sparse matrix (see 
+ * {@link SparseLaplacian SparseLaplacian}). For small graphs its full 
+ * eigendecomposition is computed with Jama, for larger graphs only the 
+ * needed eigenvectors are computed with the Lanczos method (see 
+ * {@link LanczosSolver LanczosSolver}).
  * 
  * @author Clemens Hofstadler
  * @version 1.0.0, 31st May 2019
  *
  */
 public class SpectralEmbedding {
+	/**
+	 * Graphs with at most DENSE_THRESHOLD nodes are handled with
+	 * a full eigendecomposition computed by Jama, larger graphs with 
+	 * the Lanczos method.
+	 */
+	static final int DENSE_THRESHOLD = 400;
+	/**
+	 * Seed for the random start vectors of the Lanczos method, such
+	 * that the layout of a graph is always the same.
+	 */
+	static final long SEED = 1;
 	/**
 	 * Aligns the nodes of a graph G according to a spectral 
 	 * embedding. Either in 2 dimensions (in the unit square)
@@ -53,7 +69,7 @@ public class SpectralEmbedding {
 	private static void defineLayout2D(Graph G) {
 		//Compute the Lagrangian matrix of G 
 		//and its eigenvectors
-		Matrix L = degreeMatrix(G).minus(adjacencyMatrix(G));		
+		SparseLaplacian L = new SparseLaplacian(G);
 		double[][] eig = getMinEigenvectors(L,2);
 		
 		//Determine min and max values appearing in the eigenvectors
@@ -62,10 +78,11 @@ public class SpectralEmbedding {
 		
 		//place the nodes according to the eigenvectors 
 		//but with values scaled to [0,1]
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
 		for(int i = 0; i < G.nodes().size(); i++) {
-			double x = (eig[0][i] - minMaxX[0])/(minMaxX[1] - minMaxX[0]);
-			double y = (eig[1][i] - minMaxY[0])/(minMaxY[1] - minMaxY[0]);
-			G.nodes().get(i).setPosition(x, y);
+			x[i] = (eig[0][i] - minMaxX[0])/(minMaxX[1] - minMaxX[0]);
+			y[i] = (eig[1][i] - minMaxY[0])/(minMaxY[1] - minMaxY[0]);
 		}
 	}
 //==============================================================================
@@ -78,7 +95,7 @@ public class SpectralEmbedding {
 	private static void defineLayout3D(Graph G) {
 		//Compute the Lagrangian matrix of G
 		//and its eigenvectors
-		Matrix L = degreeMatrix(G).minus(adjacencyMatrix(G));	
+		SparseLaplacian L = new SparseLaplacian(G);
 		double[][] eig = getMinEigenvectors(L,3);
 		
 		//Determine min and max values appearing in the eigenvectors
@@ -88,14 +105,11 @@ public class SpectralEmbedding {
 				
 		//place the nodes according to the eigenvectors 
 		//but with values scaled to [0,1]
+		double[][] p = G.coordinates3D();
 		for(int i = 0; i < G.nodes().size(); i++) {
-			double x = (eig[0][i] - minMaxX[0])/(minMaxX[1] - minMaxX[0]);
-			double y = (eig[1][i] - minMaxY[0])/(minMaxY[1] - minMaxY[0]);
-			double z = (eig[2][i] - minMaxZ[0])/(minMaxZ[1] - minMaxZ[0]);
-			Node oldNode = G.nodes().get(i);
-			Node3D newNode = new Node3D(oldNode.name(), oldNode.position(), new double[] {x,y,z});
-			newNode.setColor(oldNode.color());
-			G.nodes().set(i, newNode);
+			p[0][i] = (eig[0][i] - minMaxX[0])/(minMaxX[1] - minMaxX[0]);
+			p[1][i] = (eig[1][i] - minMaxY[0])/(minMaxY[1] - minMaxY[0]);
+			p[2][i] = (eig[2][i] - minMaxZ[0])/(minMaxZ[1] - minMaxZ[0]);
 		}
 		
 		//project nodes down
@@ -103,57 +117,23 @@ public class SpectralEmbedding {
 	}
 //==============================================================================
 // Matrix & eigenvector computations 
-//==============================================================================	
-	/**
-	 * Computes the adjacency matrix of the graph G. To compute 
-	 * this matrix, we consider the graph G to be undirected. This
-	 * means that the resulting adjacency matrix is always symmetric.
-	 * 
-	 * @param G A graph.
-	 * @return The adjacency matrix of G.
-	 */
-	private static Matrix adjacencyMatrix(Graph G) {
-		int n = G.nodes().size();
-		Matrix A = new Matrix(n,n);
-		for(int[] edge: G.edges()) {
-			A.set(edge[0], edge[1], 1);
-			if(edge[0] != edge[1])
-				A.set(edge[1], edge[0], 1);
-		}
-		
-		return A;
-	}
-//==============================================================================	
-	/**
-	 * Computes the degree matrix of the Graph G. i.e. a diagonal matrix where the
-	 * i-th diagonal element is the degree of the i-th node of G, where G is considered
-	 * as an undirected graph.
-	 * 
-	 * @param G A graph.
-	 * @return The degree matrix of G.
-	 */
-	private static Matrix degreeMatrix(Graph G) {
-		int n = G.nodes().size();
-		Matrix D = new Matrix(n,n);
-		for(int[] edge: G.edges()) {
-			D.set(edge[0], edge[0], D.get(edge[0],edge[0]) + 1);
-			if(edge[0] != edge[1])
-				D.set(edge[1], edge[1], D.get(edge[1],edge[1]) + 1);
-		}
-		return D;
-	}
 //==============================================================================	
 	/**
 	 * Computes eigenvectors corresponding to the "dim"
-	 * smallest non-zero eigenvalues of a symmetric matrix.
+	 * smallest non-zero eigenvalues of the Lagrangian matrix
+	 * of a graph.
 	 * 
-	 * @param M A symmetric matrix.
+	 * @param L The Lagrangian matrix of a graph.
 	 * @param dim Number of eigenvectors to be computed.
 	 * @return The eigenvectors for the "dim" smallest
-	 * non-zero eigenvalues of M.
+	 * non-zero eigenvalues of L.
 	 */
-	private static double[][] getMinEigenvectors(Matrix M,int dim) {
-		//compute the eigensystem of M
+	private static double[][] getMinEigenvectors(SparseLaplacian L,int dim) {
+		if(L.size() > DENSE_THRESHOLD)
+			return LanczosSolver.smallestEigenvectors(L, dim, SEED);
+		
+		//compute the eigensystem of L
+		Matrix M = L.toMatrix();
 		EigenvalueDecomposition eig = M.eig();
 		
 		//eigenvectors are sorted in ascending order
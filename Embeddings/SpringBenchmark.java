@@ -0,0 +1,133 @@
+package Embeddings;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import Graph.Graph;
+import Graph.Node;
+
+/**
+ * Measures the time and the memory allocated per iteration of the force-based
+ * layout of the class {@link SpringEmbedding SpringEmbedding}. Two graphs are
+ * measured: the graph stored in the file TestGraphs/Regular_Grid_16x16.txt
+ * (exact forces) and a random graph with 10000 nodes and 20000 edges
+ * (Barnes-Hut approximation). Each graph is laid out from the same random
+ * start several times with a fixed number of iterations; the first runs only
+ * warm up the JIT compiler.
+ * <p>
+ * Usage: java Embeddings.SpringBenchmark [path to Regular_Grid_16x16.txt]
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class SpringBenchmark {
+	/**
+	 * Number of runs which are not measured.
+	 */
+	private static final int WARMUP_RUNS = 3;
+	/**
+	 * Number of measured runs.
+	 */
+	private static final int MEASURED_RUNS = 5;
+
+	public static void main(String[] args) throws IOException {
+		String file = args.length > 0 ? args[0] : "TestGraphs/Regular_Grid_16x16.txt";
+		benchmark("Regular_Grid_16x16", load(file), 0, 200);
+		benchmark("random 10k nodes", randomGraph(10000, 2, 1), SpringEmbedding.DEFAULT_THETA, 20);
+	}
+
+	/**
+	 * Runs the layout of G repeatedly and prints the average time and allocated
+	 * memory per iteration.
+	 *
+	 * @param name       Name of the graph which is printed.
+	 * @param G          A Graph
+	 * @param theta      Opening angle of the Barnes-Hut approximation or 0.
+	 * @param iterations Number of iterations of each run.
+	 */
+	private static void benchmark(String name, Graph G, double theta, int iterations) {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		int n = G.nodes().size();
+		double[][] p = { G.xCoordinates(), G.yCoordinates() };
+		SpringEmbedding engine = new SpringEmbedding();
+		engine.setTheta(theta);
+
+		long time = 0;
+		long bytes = 0;
+		for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+			Random random = new Random(run);
+			for (int i = 0; i < n; i++) {
+				p[0][i] = random.nextDouble() * Math.sqrt(n);
+				p[1][i] = random.nextDouble() * Math.sqrt(n);
+			}
+			long bytes0 = bean.getThreadAllocatedBytes(thread);
+			long time0 = System.nanoTime();
+			engine.iterate(G, p, 2, iterations);
+			long time1 = System.nanoTime();
+			long bytes1 = bean.getThreadAllocatedBytes(thread);
+			if (run >= WARMUP_RUNS) {
+				time += time1 - time0;
+				bytes += bytes1 - bytes0;
+			}
+		}
+		long total = (long) MEASURED_RUNS * iterations;
+		System.out.printf("%-20s n=%-6d m=%-6d %12.0f ns/iteration %12.0f bytes/iteration%n", name, n,
+				G.edgeCount(), (double) time / total, (double) bytes / total);
+	}
+
+	/**
+	 * Reads a graph from a file, which contains one edge per line given by the
+	 * names of its nodes separated by a space.
+	 *
+	 * @param file Path to the file.
+	 * @return Graph
+	 * @throws IOException If the file cannot be read.
+	 */
+	private static Graph load(String file) throws IOException {
+		Graph G = new Graph();
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+			String line = in.readLine();
+			while (line != null) {
+				int space = line.indexOf(' ');
+				Node n1 = new Node(line.substring(0, space));
+				Node n2 = new Node(line.substring(space + 1));
+				G.addNode(n1);
+				G.addNode(n2);
+				if (!n1.equals(n2))
+					G.addEdge(n1, n2);
+				line = in.readLine();
+			}
+		}
+		return G;
+	}
+
+	/**
+	 * Generates a connected random graph consisting of a cycle through all nodes
+	 * and further random edges.
+	 *
+	 * @param n      Number of nodes.
+	 * @param degree Number of edges starting at each node.
+	 * @param seed   Seed of the random graph.
+	 * @return Graph
+	 */
+	private static Graph randomGraph(int n, int degree, long seed) {
+		Random random = new Random(seed);
+		Graph G = new Graph();
+		Node[] nodes = new Node[n];
+		for (int i = 0; i < n; i++) {
+			nodes[i] = new Node(Integer.toString(i));
+			G.addNode(nodes[i]);
+		}
+		for (int i = 0; i < n; i++) {
+			G.addEdge(nodes[i], nodes[(i + 1) % n]);
+			for (int k = 1; k < degree; k++)
+				G.addEdge(nodes[i], nodes[random.nextInt(n)]);
+		}
+		return G;
+	}
+}
@@ -1,11 +1,11 @@
 package Embeddings;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import Graph.Graph;
-import Graph.Node;
 import Graph.Node3D;
-import Graph.Vector;
 
 /**
  * Implements an force-based graph drawing algorithm. Edges are considered as
@@ -14,7 +14,14 @@ import Graph.Vector;
  * constellation is sought. In each step the algorithm tries to reduce the total
  * energy of the system, but stops after at most "MAXIMUM_ITERATIONS"
  * iterations.
- * 
+ * <p>
+ * An instance of this class carries its own configuration (the constants of
+ * the spring model, the step length, the tolerance, ...) and the state of the
+ * layout it is currently computing. Thus several instances can compute layouts
+ * at the same time. A single instance must only compute one layout at a time.
+ * The static methods 'defineLayout' use a new instance with the default
+ * configuration.
+ *
  * @author Lukas W&oumlgerer
  * @version 1.0.2, 23rd June 2019
  */
@@ -55,22 +62,102 @@ public class SpringEmbedding {
 	 * MAXIMUM_ITERATIONS iterations are performed.
 	 */
 	static final int MAXIMUM_ITERATIONS = 1000;
+	/**
+	 * Graphs with at least BARNES_HUT_THRESHOLD nodes are laid out with the
+	 * Barnes-Hut approximation of the repulsive forces, unless an opening angle is
+	 * given explicitly. For smaller graphs all pairs of nodes are considered.
+	 */
+	static final int BARNES_HUT_THRESHOLD = 1000;
+	/**
+	 * The opening angle used for the Barnes-Hut approximation if the graph has at
+	 * least BARNES_HUT_THRESHOLD nodes. For further information read more about
+	 * the class 'BarnesHutTree'.
+	 */
+	static final double DEFAULT_THETA = 0.8;
 
+//==============================================================================
+// Configuration
+//==============================================================================
+	/**
+	 * Ideal length of an edge (see K).
+	 */
+	private double k = K;
+	/**
+	 * Strength of the repulsive forces (see C).
+	 */
+	private double c = C;
+	/**
+	 * See INITIAL_STEP_LENGTH.
+	 */
+	private double initialStepLength = INITIAL_STEP_LENGTH;
+	/**
+	 * See TOLERANCE.
+	 */
+	private double tolerance = TOLERANCE;
+	/**
+	 * See T.
+	 */
+	private double stepFactor = T;
+	/**
+	 * See MAXIMUM_ITERATIONS.
+	 */
+	private int maximumIterations = MAXIMUM_ITERATIONS;
+	/**
+	 * Opening angle of the Barnes-Hut approximation. If theta is 0, the exact
+	 * forces are computed; if theta is negative, it is chosen depending on the
+	 * number of nodes (see BARNES_HUT_THRESHOLD).
+	 */
+	private double theta = -1;
+	/**
+	 * If not null, the forces are computed in parallel on this pool.
+	 */
+	private ForkJoinPool pool;
+	/**
+	 * Random number generator for the initial positions, or null if Math.random()
+	 * should be used.
+	 */
+	private Random random;
+	/**
+	 * If not null, snapshots of the positions are published into this buffer
+	 * while a layout is computed.
+	 */
+	private SnapshotBuffer snapshots;
+	/**
+	 * A snapshot is published every snapshotIterations iterations (0 for never).
+	 */
+	private int snapshotIterations;
+	/**
+	 * A snapshot is published if the last one is at least snapshotInterval
+	 * nanoseconds old (0 for never).
+	 */
+	private long snapshotInterval;
+
+//==============================================================================
+// State of the current layout
+//==============================================================================
 	/**
 	 * Represents how effective the last iterations were.
 	 */
-	static int progress;
+	private int progress;
 	/**
 	 * For further information on what the step length is for, read more about the
 	 * method 'updateSteplength'.
 	 */
-	static double step;
+	private double step;
 	/**
 	 * Represents the total energy of the system. The change of this value has
 	 * influence on how the variable 'step' changes.
 	 */
-	static double E;
+	private double E;
+	/**
+	 * Whether the layouts of this instance should stop after the current
+	 * iteration, set by another thread.
+	 */
+	private volatile boolean stopped;
 
+//==============================================================================
+// Static layout methods
+//==============================================================================
 	/**
 	 * Aligns the nodes of a Graph G either within in the unit square, or within the
 	 * unit cube. Nodes are aligned according to a force-based layout algorithm.
@@ -83,73 +170,191 @@ public class SpringEmbedding {
 	 *                   layout (only when dim=2 and layoutType=0) or randomly.
 	 */
 	public static void defineLayout(Graph G, int dimension, int layoutType) {
+		new SpringEmbedding().layout(G, dimension, layoutType);
+	}
+
+	/**
+	 * Aligns the nodes of a Graph G either within in the unit square, or within the
+	 * unit cube. Nodes are aligned according to a force-based layout algorithm,
+	 * where the repulsive forces are approximated with the Barnes-Hut method (see
+	 * 'BarnesHutTree') if theta is positive. This reduces the cost of one
+	 * iteration from O(N^2) to O(N log N).
+	 * 
+	 * @param G          A Graph
+	 * @param dimension  Can be 2 or 3, and decides whether the nodes should lie
+	 *                   within the unit square (dim=2) or within the unit cube
+	 *                   (dim=3)
+	 * @param layoutType Sets the initial positions of the nodes either to a grid
+	 *                   layout (only when dim=2 and layoutType=0) or randomly.
+	 * @param theta      Opening angle of the Barnes-Hut approximation. If theta is
+	 *                   not positive, the exact forces between all pairs of nodes
+	 *                   are computed.
+	 */
+	public static void defineLayout(Graph G, int dimension, int layoutType, double theta) {
+		SpringEmbedding engine = new SpringEmbedding();
+		engine.setTheta(Math.max(theta, 0));
+		engine.layout(G, dimension, layoutType);
+	}
+
+	/**
+	 * Aligns the nodes of a Graph G either within in the unit square, or within the
+	 * unit cube, like the method 'defineLayout', but the forces acting on the nodes
+	 * are computed in parallel on the common ForkJoinPool. For further information
+	 * read more about the method with all parameters.
+	 * 
+	 * @param G          A Graph
+	 * @param dimension  Can be 2 or 3, and decides whether the nodes should lie
+	 *                   within the unit square (dim=2) or within the unit cube
+	 *                   (dim=3)
+	 * @param layoutType Sets the initial positions of the nodes either to a grid
+	 *                   layout (only when dim=2 and layoutType=0) or randomly.
+	 * @param seed       Seed for the random initial positions.
+	 */
+	public static void defineLayoutParallel(Graph G, int dimension, int layoutType, long seed) {
+		double theta = G.nodes().size() >= BARNES_HUT_THRESHOLD ? DEFAULT_THETA : 0;
+		defineLayoutParallel(G, dimension, layoutType, theta, ForkJoinPool.commonPool(), seed);
+	}
+
+	/**
+	 * Aligns the nodes of a Graph G either within in the unit square, or within the
+	 * unit cube, where the forces acting on the nodes are computed in parallel on
+	 * the given pool. In contrast to the sequential layout, in which each node is
+	 * moved as soon as the forces acting on it are known, here all forces of one
+	 * iteration are computed from the same positions and all nodes are moved at
+	 * once afterwards (Jacobi instead of Gauss-Seidel iteration). Thus the result
+	 * differs slightly from the sequential one, but it only depends on the seed
+	 * and not on the number of threads of the pool.
+	 * 
+	 * @param G          A Graph
+	 * @param dimension  Can be 2 or 3, and decides whether the nodes should lie
+	 *                   within the unit square (dim=2) or within the unit cube
+	 *                   (dim=3)
+	 * @param layoutType Sets the initial positions of the nodes either to a grid
+	 *                   layout (only when dim=2 and layoutType=0) or randomly.
+	 * @param theta      Opening angle of the Barnes-Hut approximation or 0.
+	 * @param pool       The pool on which the forces are computed.
+	 * @param seed       Seed for the random initial positions.
+	 */
+	public static void defineLayoutParallel(Graph G, int dimension, int layoutType, double theta,
+			ForkJoinPool pool, long seed) {
+		SpringEmbedding engine = new SpringEmbedding();
+		engine.setTheta(Math.max(theta, 0));
+		engine.setPool(pool);
+		engine.setSeed(seed);
+		engine.layout(G, dimension, layoutType);
+	}
+
+//==============================================================================
+// Layout
+//==============================================================================
+	/**
+	 * Aligns the nodes of a Graph G either within in the unit square, or within the
+	 * unit cube, according to the configuration of this instance.
+	 * 
+	 * @param G          A Graph
+	 * @param dimension  Can be 2 or 3, and decides whether the nodes should lie
+	 *                   within the unit square (dim=2) or within the unit cube
+	 *                   (dim=3)
+	 * @param layoutType Sets the initial positions of the nodes either to a grid
+	 *                   layout (only when dim=2 and layoutType=0) or randomly.
+	 */
+	public void layout(Graph G, int dimension, int layoutType) {
 		if(G.nodes().size()==0)
 			return;
 
-		progress = 0;
-		step = INITIAL_STEP_LENGTH;
-		E = Double.MAX_VALUE;
-
 		if (dimension == 2) {
 			if (layoutType == 0)
 				GridEmbedding.defineLayout(G);
-			else
+			else if (random == null)
 				RandomEmbedding.defineLayout(G);
-			defineLayout2D(G);
+			else
+				RandomEmbedding.defineLayout(G, random);
+			double[][] p = { G.xCoordinates(), G.yCoordinates() };
+			iterate(G, p, 2, maximumIterations);
+			Node3D.scale(G);
+		}
+		if (dimension == 3) {
+			double[][] p = G.coordinates3D();
+			for (int i = 0; i < G.nodes().size(); i++)
+				for (int k = 0; k < 3; k++)
+					p[k][i] = random == null ? Math.random() : random.nextDouble();
+			iterate(G, p, 3, maximumIterations);
+			Node3D.project3DPoints(G);
 		}
-		if (dimension == 3)
-			defineLayout3D(G);
 	}
 
 	/**
-	 * Aligns the nodes of a Graph G either within in the unit square, according to
-	 * a force-based layout algorithm.
+	 * Moves the nodes of a Graph G, starting from their current positions,
+	 * according to the forces acting on them until either the layout does not
+	 * change anymore or maxIterations iterations are performed. The positions are
+	 * not scaled to the unit square/cube afterwards. On a {@link LayoutExecutor
+	 * LayoutExecutor} the progress is reported and the layout can be cancelled
+	 * after each iteration. If a SnapshotBuffer of the size of G is set, the
+	 * positions are published into it after the first iteration and then
+	 * according to the configured intervals.
 	 * 
-	 * @param G A Graph
+	 * @param G             A Graph
+	 * @param p             The coordinates of the nodes of G which are moved, one
+	 *                      array per dimension
+	 * @param dimension     Can be 2 or 3
+	 * @param maxIterations Maximal number of iterations
 	 */
-	private static void defineLayout2D(Graph G) {
-
-		for (int i = 0; i < G.nodes().size(); i++) {
-			Node oldNode = G.nodes().get(i);
-			Node3D newNode = new Node3D(oldNode.name(), oldNode.position(), oldNode.position());
-			newNode.setColor(oldNode.color());
-			G.nodes().set(i, newNode);
-		}
-
-		boolean converged = false;
-		int iter = 0;
-		while (!converged && iter < MAXIMUM_ITERATIONS) {
-			converged = iterateOnce(G, 2);
-			iter++;
-		}
-		for (int i = 0; i < G.nodes().size(); i++) {
-			G.nodes().get(i).setPosition(((Node3D) G.nodes().get(i)).getposition3D()[0],
-					((Node3D) G.nodes().get(i)).getposition3D()[1]);
-		}
-		Node3D.scale(G);
+	void iterate(Graph G, double[][] p, int dimension, int maxIterations) {
+		iterate(G, p, dimension, maxIterations, theta(G));
 	}
 
 	/**
-	 * Aligns the nodes of a Graph G either within in the unit cube, according to a
-	 * force-based layout algorithm.
+	 * Moves the nodes of a Graph G like 'iterate', but with the given opening
+	 * angle instead of the one of this instance.
 	 * 
-	 * @param G A Graph
+	 * @param G             A Graph
+	 * @param p             The coordinates of the nodes of G which are moved, one
+	 *                      array per dimension
+	 * @param dimension     Can be 2 or 3
+	 * @param maxIterations Maximal number of iterations
+	 * @param theta         Opening angle of the Barnes-Hut approximation or 0.
 	 */
-	private static void defineLayout3D(Graph G) {
-		for (int i = 0; i < G.nodes().size(); i++) {
-			double[] coord = { Math.random(), Math.random(), Math.random() };
-			Node oldNode = G.nodes().get(i);
-			Node3D newNode = new Node3D(oldNode.name(), oldNode.position(), coord);
-			newNode.setColor(oldNode.color());
-			G.nodes().set(i, newNode);
-		}
+	void iterate(Graph G, double[][] p, int dimension, int maxIterations, double theta) {
+		progress = 0;
+		step = initialStepLength;
+		E = Double.MAX_VALUE;
+
+		int numberOfNodes = G.nodes().size();
+		int[][] neighbors = neighbors(G);
+		BarnesHutTree tree = theta > 0 ? new BarnesHutTree(dimension) : null;
+		SpringForceTask task = null;
+		double[][] oldPositions = null;
+		if (pool != null)
+			task = new SpringForceTask(p, numberOfNodes, dimension, neighbors[0], neighbors[1], tree, theta, k, c);
+		else
+			oldPositions = new double[dimension][numberOfNodes];
+		double[] force = new double[dimension];
+		double[] repulsion = new double[dimension];
+
+		//coarse graphs of a multilevel layout are not published
+		SnapshotBuffer snapshots = this.snapshots != null && this.snapshots.size() == numberOfNodes
+				&& this.snapshots.dimension() == dimension ? this.snapshots : null;
+		long published = System.nanoTime();
+
 		boolean converged = false;
 		int iter = 0;
-		while (!converged && iter < MAXIMUM_ITERATIONS) {
-			converged = iterateOnce(G, 3);
+		while (!converged && !stopped && iter < maxIterations) {
+			LayoutExecutor.progress((double) iter / maxIterations);
+			if (pool != null)
+				converged = iterateParallel(G, p, dimension, tree, task);
+			else
+				converged = iterateOnce(p, numberOfNodes, dimension, neighbors[0], neighbors[1], tree, theta,
+						oldPositions, force, repulsion);
 			iter++;
+			if (snapshots != null) {
+				long now = System.nanoTime();
+				if (iter == 1 || snapshotIterations > 0 && iter % snapshotIterations == 0
+						|| snapshotInterval > 0 && now - published >= snapshotInterval) {
+					snapshots.publish(p, iter);
+					published = now;
+				}
+			}
 		}
-		Node3D.project3DPoints(G);
 	}
 
 	/**
@@ -162,118 +367,448 @@ public class SpringEmbedding {
 	 * procedure converged (i.e if the final embedding is reached). This can happen
 	 * either if the maximum number of iterations MAXIMUM_ITERATIONS is reached, or
 	 * the movement of the nodes were very small.
+	 * <p>
+	 * All arrays needed are passed by the caller, so that no memory is allocated
+	 * within an iteration.
 	 * 
-	 * @param G         A Graph
-	 * @param dimension Can be 2 or 3, and decides whether the nodes should lie
-	 *                  within the unit square (dim=2) or within the unit cube
-	 *                  (dim=3)
+	 * @param p             The coordinates of the nodes which are moved, one array
+	 *                      per dimension
+	 * @param numberOfNodes The number of nodes
+	 * @param dimension     Can be 2 or 3, and decides whether the nodes should lie
+	 *                      within the unit square (dim=2) or within the unit cube
+	 *                      (dim=3)
+	 * @param offsets       The neighbors of node i are targets[offsets[i]], ...,
+	 *                      targets[offsets[i+1]-1] (see 'neighbors')
+	 * @param targets       The neighbors of all nodes
+	 * @param tree          If not null, the repulsive forces are approximated with
+	 *                      this tree, which is rebuilt at the beginning of the
+	 *                      iteration.
+	 * @param theta         Opening angle of the Barnes-Hut approximation.
+	 * @param oldPositions  Array in which the positions before the iteration are
+	 *                      stored, stored like p
+	 * @param force         Array of length dimension for the total force acting
+	 *                      on a node
+	 * @param repulsion     Array of length dimension for the result of the tree
 	 * @return boolean True if process converged within this step, otherwise false.
 	 */
-	private static boolean iterateOnce(Graph G, int dimension) {
-		int numberOfNodes = G.nodes().size();
-
-		double E0;
-		double dist;
-		Vector force = new Vector(dimension);
-		Vector f = new Vector(dimension);
+	private boolean iterateOnce(double[][] p, int numberOfNodes, int dimension, int[] offsets, int[] targets,
+			BarnesHutTree tree, double theta, double[][] oldPositions, double[] force, double[] repulsion) {
+		if (tree != null)
+			tree.build(p, numberOfNodes);
+		for (int k = 0; k < dimension; k++)
+			System.arraycopy(p[k], 0, oldPositions[k], 0, numberOfNodes);
 
-		double[][] oldPositions = new double[numberOfNodes][dimension];
-		for (int i = 0; i < numberOfNodes; i++) {
-			for (int j = 0; j < dimension; j++)
-				oldPositions[i][j] = ((Node3D) G.nodes().get(i)).getposition3D()[j];
-		}
-
-		E0 = E;
+		double E0 = E;
 		E = 0.;
 		for (int i = 0; i < numberOfNodes; i++) {
-			// find adjacent nodes
-			ArrayList<Integer> posOfAdjacentNodes = new ArrayList<>();
-			for (int[] edge : G.edges()) {
-				if (edge[0] != edge[1]) {
-					if (edge[0] == i) {
-						if (posOfAdjacentNodes.indexOf(edge[1]) == -1)
-							posOfAdjacentNodes.add(edge[1]);
-					} else if (edge[1] == i) {
-						if (posOfAdjacentNodes.indexOf(edge[0]) == -1)
-							posOfAdjacentNodes.add(edge[0]);
-					}
-				}
-			}
-
-			double[] zeros = { 0, 0, 0 };
-			force.setCoordinates(zeros);
+			for (int k = 0; k < dimension; k++)
+				force[k] = 0;
 			// sum up all attracting forces acting on the current node
-			for (int j : posOfAdjacentNodes) {
-				dist = distance(((Node3D) G.nodes().get(i)).getposition3D(),
-						((Node3D) G.nodes().get(j)).getposition3D());
-				double[] diff = new double[dimension];
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				int j = targets[e];
+				double dist = distance(p, i, j, dimension);
+				double f = attractiveForce(dist) / dist;
 				for (int k = 0; k < dimension; k++)
-					diff[k] = ((Node3D) G.nodes().get(j)).getposition3D()[k]
-							- ((Node3D) G.nodes().get(i)).getposition3D()[k];
-				f.setCoordinates(diff);
-				f.multiply(attractiveForce(dist) / dist);
-				force.add(f);
+					force[k] += (p[k][j] - p[k][i]) * f;
 			}
 			// add all repelling forces acting on the current node
-			for (int j = 0; j < numberOfNodes; j++) {
-				if (i != j) {
-					dist = distance(((Node3D) G.nodes().get(i)).getposition3D(),
-							((Node3D) G.nodes().get(j)).getposition3D());
-					double[] diff = new double[dimension];
-					for (int k = 0; k < dimension; k++)
-						diff[k] = ((Node3D) G.nodes().get(j)).getposition3D()[k]
-								- ((Node3D) G.nodes().get(i)).getposition3D()[k];
-					f.setCoordinates(diff);
-					f.multiply(repulsiveForce(dist) / dist);
-					force.add(f);
+			if (tree != null) {
+				// the tree computes sum of (p_j - p_i)/d^2, i.e. the repulsive
+				// forces up to the factor repulsiveForce(d)*d = -C*K^2
+				tree.repulsion(p, i, theta, repulsion);
+				for (int k = 0; k < dimension; k++)
+					force[k] += repulsion[k] * (-c * this.k * this.k);
+			} else {
+				for (int j = 0; j < numberOfNodes; j++) {
+					if (i != j) {
+						double dist = distance(p, i, j, dimension);
+						double f = repulsiveForce(dist) / dist;
+						for (int k = 0; k < dimension; k++)
+							force[k] += (p[k][j] - p[k][i]) * f;
+					}
 				}
 			}
 
 			// set new position of current node
-			double magnitude = force.length();
+			double magnitude = 0;
+			for (int k = 0; k < dimension; k++)
+				magnitude += force[k] * force[k];
+			magnitude = Math.sqrt(magnitude);
 			if (magnitude > 0) {
-				E += Math.pow(magnitude, 2);
-				force.multiply(step / magnitude);
-
-				double[] newPosition = new double[dimension];
-				for (int k = 0; k < dimension; k++) {
-					newPosition[k] = ((Node3D) G.nodes().get(i)).getposition3D()[k] + force.coordinates()[k];
-				}
-				((Node3D) G.nodes().get(i)).setPosition3D(newPosition);
+				E += magnitude * magnitude;
+				double f = step / magnitude;
+				for (int k = 0; k < dimension; k++)
+					p[k][i] += force[k] * f;
 			}
 		}
 
 		step = updateSteplength(step, E, E0);
 		double measure = 0.;
-		for (int i = 0; i < numberOfNodes; i++) {
-			for (int k = 0; k < dimension; k++)
-				measure += Math.pow(oldPositions[i][k] - ((Node3D) G.nodes().get(i)).getposition3D()[k], 2);
+		for (int k = 0; k < dimension; k++) {
+			double[] old = oldPositions[k];
+			double[] current = p[k];
+			for (int i = 0; i < numberOfNodes; i++) {
+				double d = old[i] - current[i];
+				measure += d * d;
+			}
 		}
 		measure = Math.sqrt(measure);
-		if (measure < K * TOLERANCE) {
-			System.out.println("Converged!");
-			return true;
+		return measure < k * tolerance;
+	}
+
+	/**
+	 * Performs one iteration like the method 'iterateOnce', but all forces are
+	 * computed from the positions at the beginning of the iteration, in parallel
+	 * on the pool of this instance, and all nodes are moved afterwards. The total
+	 * energy and the change of the layout are summed up over fixed chunks of nodes
+	 * in a fixed order, so the result does not depend on the scheduling of the
+	 * threads.
+	 * 
+	 * @param G         A Graph
+	 * @param p         The coordinates of the nodes of G which are moved, one
+	 *                  array per dimension
+	 * @param dimension Can be 2 or 3
+	 * @param tree      If not null, the repulsive forces are approximated with
+	 *                  this tree, which is rebuilt at the beginning of the
+	 *                  iteration.
+	 * @param task      The task computing the forces.
+	 * @return boolean True if process converged within this step, otherwise false.
+	 */
+	private boolean iterateParallel(Graph G, double[][] p, int dimension, BarnesHutTree tree,
+			SpringForceTask task) {
+		int numberOfNodes = G.nodes().size();
+		if (tree != null)
+			tree.build(p, numberOfNodes);
+
+		task.prepare(step);
+		pool.invoke(task);
+
+		double[][] move = task.move();
+		for (int k = 0; k < dimension; k++)
+			for (int i = 0; i < numberOfNodes; i++)
+				p[k][i] += move[k][i];
+
+		double E0 = E;
+		E = task.energy();
+		step = updateSteplength(step, E, E0);
+		return task.movement() < k * tolerance;
+	}
+
+//==============================================================================
+// Getters and setters
+//==============================================================================
+	/**
+	 * Getter for the ideal length of an edge.
+	 * 
+	 * @return double
+	 */
+	public double k() {
+		return k;
+	}
+
+	/**
+	 * Setter for the ideal length of an edge (default K).
+	 * 
+	 * @param k A positive number.
+	 */
+	public void setK(double k) {
+		this.k = k;
+	}
+
+	/**
+	 * Getter for the strength of the repulsive forces.
+	 * 
+	 * @return double
+	 */
+	public double c() {
+		return c;
+	}
+
+	/**
+	 * Setter for the strength of the repulsive forces (default C).
+	 * 
+	 * @param c A positive number.
+	 */
+	public void setC(double c) {
+		this.c = c;
+	}
+
+	/**
+	 * Getter for the step length with which each layout starts.
+	 * 
+	 * @return double
+	 */
+	public double initialStepLength() {
+		return initialStepLength;
+	}
+
+	/**
+	 * Setter for the step length with which each layout starts (default
+	 * INITIAL_STEP_LENGTH).
+	 * 
+	 * @param initialStepLength A positive number.
+	 */
+	public void setInitialStepLength(double initialStepLength) {
+		this.initialStepLength = initialStepLength;
+	}
+
+	/**
+	 * Getter for the tolerance. A layout has converged as soon as the change
+	 * between two iterations is less than k*tolerance.
+	 * 
+	 * @return double
+	 */
+	public double tolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * Setter for the tolerance (default TOLERANCE).
+	 * 
+	 * @param tolerance A positive number.
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Getter for the factor by which the step length is adjusted.
+	 * 
+	 * @return double
+	 */
+	public double stepFactor() {
+		return stepFactor;
+	}
+
+	/**
+	 * Setter for the factor by which the step length is adjusted (default T).
+	 * 
+	 * @param stepFactor A number between 0 and 1.
+	 */
+	public void setStepFactor(double stepFactor) {
+		this.stepFactor = stepFactor;
+	}
+
+	/**
+	 * Getter for the maximal number of iterations of a layout.
+	 * 
+	 * @return int
+	 */
+	public int maximumIterations() {
+		return maximumIterations;
+	}
+
+	/**
+	 * Setter for the maximal number of iterations of a layout (default
+	 * MAXIMUM_ITERATIONS).
+	 * 
+	 * @param maximumIterations A positive number.
+	 */
+	public void setMaximumIterations(int maximumIterations) {
+		this.maximumIterations = maximumIterations;
+	}
+
+	/**
+	 * Getter for the opening angle of the Barnes-Hut approximation.
+	 * 
+	 * @return double Negative if the opening angle is chosen automatically.
+	 */
+	public double theta() {
+		return theta;
+	}
+
+	/**
+	 * Setter for the opening angle of the Barnes-Hut approximation. If theta is
+	 * 0, the exact forces are computed. If theta is negative (the default),
+	 * DEFAULT_THETA is used for graphs with at least BARNES_HUT_THRESHOLD nodes
+	 * and the exact forces otherwise.
+	 * 
+	 * @param theta The opening angle.
+	 */
+	public void setTheta(double theta) {
+		this.theta = theta;
+	}
+
+	/**
+	 * Getter for the pool on which the forces are computed.
+	 * 
+	 * @return ForkJoinPool null if the forces are computed sequentially.
+	 */
+	public ForkJoinPool pool() {
+		return pool;
+	}
+
+	/**
+	 * Setter for the pool on which the forces are computed. If the pool is not
+	 * null (default), the forces are computed in parallel (see
+	 * 'defineLayoutParallel').
+	 * 
+	 * @param pool A ForkJoinPool or null.
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the seed of the random initial positions. Without a seed, the
+	 * positions are drawn with Math.random().
+	 * 
+	 * @param seed The seed.
+	 */
+	public void setSeed(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Lets the layouts of this instance publish intermediate positions, such that
+	 * another thread can draw the layout while it is computed. The positions are
+	 * published after the first iteration and afterwards whenever one of the two
+	 * intervals has passed. They are not scaled to the unit square/cube. Only
+	 * layouts of graphs with buffer.size() nodes in buffer.dimension() dimensions
+	 * are published.
+	 * 
+	 * @param buffer       A SnapshotBuffer or null to publish nothing (default).
+	 * @param iterations   Number of iterations between two snapshots, 0 for no
+	 *                     limit.
+	 * @param milliseconds Time between two snapshots in milliseconds, 0 for no
+	 *                     limit.
+	 */
+	public void setSnapshots(SnapshotBuffer buffer, int iterations, long milliseconds) {
+		snapshots = buffer;
+		snapshotIterations = iterations;
+		snapshotInterval = milliseconds * 1000000;
+	}
+
+	/**
+	 * Stops the layouts of this instance after the current iteration, as if they
+	 * had converged: the current positions are scaled and kept as the final
+	 * layout. Can be called by any thread. The instance stays stopped, so later
+	 * layouts only compute their initial positions.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Returns whether {@link #stop() stop} was called, i.e. whether the layouts
+	 * of this instance may be unfinished.
+	 * 
+	 * @return boolean
+	 */
+	public boolean stopped() {
+		return stopped;
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Returns the opening angle of the Barnes-Hut approximation used for the
+	 * Graph G.
+	 * 
+	 * @param G A Graph
+	 * @return The opening angle or 0 if the exact forces should be computed.
+	 */
+	double theta(Graph G) {
+		if (theta >= 0)
+			return theta;
+		return G.nodes().size() >= BARNES_HUT_THRESHOLD ? DEFAULT_THETA : 0;
+	}
+
+	/**
+	 * Computes for each node of G the list of its neighbors, where the direction
+	 * of the edges is ignored, and every neighbor is listed only once. Loops are
+	 * ignored. The neighbors of each node are listed in the order of the edges
+	 * connecting them to the node in {@link Graph#edges() G.edges()}, so the
+	 * forces are always summed up in the same order. If G stores its edges only
+	 * in its adjacency index, the lists are read from the index without creating
+	 * the list of edges. The list is computed once per layout, such that the
+	 * iterations do not have to search the edges.
+	 * 
+	 * @param G A Graph
+	 * @return An array {offsets, targets}, such that the neighbors of node i are
+	 *         targets[offsets[i]], ..., targets[offsets[i+1]-1].
+	 */
+	static int[][] neighbors(Graph G) {
+		int n = G.nodes().size();
+		int[] offsets = new int[n + 1];
+		int[] targets;
+		if (G.hasEdgeList()) {
+			for (int[] edge : G.edges()) {
+				offsets[edge[0] + 1]++;
+				offsets[edge[1] + 1]++;
+			}
+			for (int i = 0; i < n; i++)
+				offsets[i + 1] += offsets[i];
+			targets = new int[offsets[n]];
+			int[] next = Arrays.copyOf(offsets, n);
+			for (int[] edge : G.edges()) {
+				targets[next[edge[0]]++] = edge[1];
+				targets[next[edge[1]]++] = edge[0];
+			}
+		} else {
+			// edges() would list the edges grouped by their starting node, so the
+			// edges of node i are the incoming ones from nodes before i, its
+			// outgoing ones and the incoming ones from nodes after i
+			int[] outOffsets = G.outOffsets();
+			int[] outTargets = G.outTargets();
+			int[] inOffsets = G.inOffsets();
+			int[] inSources = G.inSources();
+			for (int i = 0; i < n; i++)
+				offsets[i + 1] = offsets[i] + (outOffsets[i + 1] - outOffsets[i]) + (inOffsets[i + 1] - inOffsets[i]);
+			targets = new int[offsets[n]];
+			for (int i = 0; i < n; i++) {
+				int next = offsets[i];
+				int k = inOffsets[i];
+				for (; k < inOffsets[i + 1] && inSources[k] < i; k++)
+					targets[next++] = inSources[k];
+				for (int e = outOffsets[i]; e < outOffsets[i + 1]; e++)
+					targets[next++] = outTargets[e];
+				for (; k < inOffsets[i + 1]; k++)
+					targets[next++] = inSources[k];
+			}
 		}
 
-		return false;
+		// remove loops and neighbors listed twice (edges in both directions),
+		// keeping the first occurrence
+		int[] seen = new int[n];
+		Arrays.fill(seen, -1);
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			int start = offsets[i];
+			offsets[i] = m;
+			for (int e = start; e < offsets[i + 1]; e++) {
+				int j = targets[e];
+				if (j != i && seen[j] != i) {
+					seen[j] = i;
+					targets[m++] = j;
+				}
+			}
+		}
+		offsets[n] = m;
+		return new int[][] { offsets, targets };
 	}
 
 	/**
 	 * Returns the Euclidean distance between two points.
 	 * 
-	 * @param v1 First point
-	 * @param v2 Second point
+	 * @param p         The coordinates of all points, one array per dimension.
+	 * @param i         Index of the first point
+	 * @param j         Index of the second point
+	 * @param dimension The number of coordinates to take into account
 	 * @return double
 	 */
-	private static double distance(double[] v1, double[] v2) {
+	private static double distance(double[][] p, int i, int j, int dimension) {
 		double sum = 0;
-		for (int k = 0; k < v1.length; k++)
-			sum += Math.pow(v1[k] - v2[k], 2);
+		for (int k = 0; k < dimension; k++) {
+			double d = p[k][i] - p[k][j];
+			sum += d * d;
+		}
 		return Math.sqrt(sum);
 	}
 
 	/**
-	 * This method updates the static variable 'step', which has affect on how much
+	 * This method updates the variable 'step', which has affect on how much
 	 * each nodes is moved within an iteration. A high value of 'step' corresponds
 	 * to much greater movement than a smaller value. How the value will change
 	 * depends on the performance of the last iteration, and thus on the previously
@@ -285,17 +820,17 @@ public class SpringEmbedding {
 	 * @param Energy0 Total energy after iteration.
 	 * @return double New step-length
 	 */
-	private static double updateSteplength(double step, double Energy, double Energy0) {
+	private double updateSteplength(double step, double Energy, double Energy0) {
 		if (Energy < Energy0) {
 			progress++;
 			if (progress > 4) {
 				progress = 0;
-				return (step / T);
+				return (step / stepFactor);
 			}
 			return step;
 		} else {
 			progress = 0;
-			return (T * step);
+			return (stepFactor * step);
 		}
 	}
 
@@ -307,8 +842,8 @@ public class SpringEmbedding {
 	 * @param d Distance between two points
 	 * @return double Magnitude of force between two points with distance d.
 	 */
-	private static double repulsiveForce(double d) {
-		return (-C * Math.pow(K, 2) / d);
+	private double repulsiveForce(double d) {
+		return (-c * k * k / d);
 	}
 
 	/**
@@ -319,8 +854,8 @@ public class SpringEmbedding {
 	 * @param d Distance between two points
 	 * @return double Magnitude of force between two points with distance d.
 	 */
-	private static double attractiveForce(double d) {
-		return (Math.pow(d, 2) / K);
+	private double attractiveForce(double d) {
+		return (d * d / k);
 	}
 
 }
@@ -0,0 +1,283 @@
+package Embeddings;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes one Jacobi step of the force-based layout of the class
+ * {@link SpringEmbedding SpringEmbedding} on a ForkJoinPool. In contrast to
+ * the sequential version, where every node immediately sees the new positions
+ * of the nodes moved before it, all forces are computed from the positions at
+ * the beginning of the step and the nodes are only moved after all forces are
+ * known. Hence the forces acting on different nodes can be computed in
+ * parallel.
+ * <p>
+ * The nodes are split into chunks of fixed size, independent of the number of
+ * threads. Each chunk writes its moves, its part of the energy and its part of
+ * the movement into its own slots, and these parts are summed up in the order
+ * of the chunks afterwards. Therefore the result of a step does not depend on
+ * how the chunks are scheduled.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+class SpringForceTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Number of nodes handled by one chunk.
+	 */
+	static final int CHUNK_SIZE = 256;
+
+	/**
+	 * The coordinates of the nodes, one array per dimension. They are not changed
+	 * while the forces are computed.
+	 */
+	private final double[][] p;
+	/**
+	 * The computed move of each node, stored like the coordinates.
+	 */
+	private final double[][] move;
+	/**
+	 * Can be 2 or 3.
+	 */
+	private final int dimension;
+	/**
+	 * Number of nodes.
+	 */
+	private final int n;
+	/**
+	 * The neighbors of node i are stored in targets[offsets[i]], ...,
+	 * targets[offsets[i+1]-1].
+	 */
+	private final int[] offsets;
+	private final int[] targets;
+	/**
+	 * If not null, the repulsive forces are approximated with this tree, which
+	 * has to be built over the coordinates p.
+	 */
+	private final BarnesHutTree tree;
+	/**
+	 * Opening angle of the Barnes-Hut approximation.
+	 */
+	private final double theta;
+	/**
+	 * Squared magnitudes of the forces summed up per chunk.
+	 */
+	private final double[] energy;
+	/**
+	 * Squared lengths of the moves summed up per chunk.
+	 */
+	private final double[] movement;
+	/**
+	 * For each chunk an array to store a repulsion and a stack to traverse the
+	 * tree, such that no chunk allocates memory.
+	 */
+	private final double[][] sums;
+	private final int[][] stacks;
+	/**
+	 * Factor of the attracting forces, i.e. 1/k, where k is the ideal length of
+	 * an edge.
+	 */
+	private final double attraction;
+	/**
+	 * Factor of the repelling forces, i.e. -c*k^2.
+	 */
+	private final double repulsion;
+	/**
+	 * Current step length, shared by all chunks of one step.
+	 */
+	private double step;
+	/**
+	 * The chunks lo, ..., hi-1 are computed by this task.
+	 */
+	private final int lo;
+	private final int hi;
+
+	/**
+	 * Constructor for the task computing all chunks.
+	 *
+	 * @param p         The coordinates of the nodes, one array per dimension.
+	 * @param n         The number of nodes.
+	 * @param dimension Can be 2 or 3.
+	 * @param offsets   Offsets of the neighbors of each node into targets.
+	 * @param targets   The neighbors of all nodes.
+	 * @param tree      A Barnes-Hut tree or null.
+	 * @param theta     Opening angle of the Barnes-Hut approximation.
+	 * @param k         Ideal length of an edge.
+	 * @param c         Strength of the repulsive forces.
+	 */
+	SpringForceTask(double[][] p, int n, int dimension, int[] offsets, int[] targets, BarnesHutTree tree,
+			double theta, double k, double c) {
+		this.p = p;
+		this.n = n;
+		this.dimension = dimension;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.tree = tree;
+		this.theta = theta;
+		attraction = 1 / k;
+		repulsion = -c * k * k;
+		move = new double[dimension][n];
+		int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		energy = new double[chunks];
+		movement = new double[chunks];
+		sums = new double[chunks][dimension];
+		stacks = new int[chunks][];
+		if (tree != null)
+			for (int chunk = 0; chunk < chunks; chunk++)
+				stacks[chunk] = tree.newStack();
+		lo = 0;
+		hi = chunks;
+	}
+
+	/**
+	 * Constructor for a task computing the chunks lo, ..., hi-1.
+	 *
+	 * @param root The task computing all chunks.
+	 * @param lo   First chunk.
+	 * @param hi   Last chunk (exclusive).
+	 */
+	private SpringForceTask(SpringForceTask root, int lo, int hi) {
+		p = root.p;
+		n = root.n;
+		dimension = root.dimension;
+		offsets = root.offsets;
+		targets = root.targets;
+		tree = root.tree;
+		theta = root.theta;
+		attraction = root.attraction;
+		repulsion = root.repulsion;
+		move = root.move;
+		energy = root.energy;
+		movement = root.movement;
+		sums = root.sums;
+		stacks = root.stacks;
+		step = root.step;
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	@Override
+	protected void compute() {
+		if (hi - lo == 1) {
+			computeChunk(lo);
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		invokeAll(new SpringForceTask(this, lo, mid), new SpringForceTask(this, mid, hi));
+	}
+
+	/**
+	 * Prepares the task for the next step.
+	 *
+	 * @param step The step length of the next step.
+	 */
+	void prepare(double step) {
+		this.step = step;
+		reinitialize();
+	}
+
+//==============================================================================
+// Results of the last step
+//==============================================================================
+	/**
+	 * Returns the moves computed in the last step.
+	 *
+	 * @return The moves, stored like the coordinates.
+	 */
+	double[][] move() {
+		return move;
+	}
+
+	/**
+	 * Returns the total energy of the last step, i.e. the sum of the squared
+	 * magnitudes of all forces.
+	 *
+	 * @return double
+	 */
+	double energy() {
+		double E = 0;
+		for (double e : energy)
+			E += e;
+		return E;
+	}
+
+	/**
+	 * Returns the length of the change of the layout in the last step.
+	 *
+	 * @return double
+	 */
+	double movement() {
+		double measure = 0;
+		for (double m : movement)
+			measure += m;
+		return Math.sqrt(measure);
+	}
+
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Computes the forces acting on the nodes of one chunk and their moves.
+	 *
+	 * @param chunk The index of the chunk.
+	 */
+	private void computeChunk(int chunk) {
+		double[] sum = sums[chunk];
+		double chunkEnergy = 0;
+		double chunkMovement = 0;
+		int end = Math.min(n, (chunk + 1) * CHUNK_SIZE);
+		for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+			double fx = 0, fy = 0, fz = 0;
+			// attracting forces: (p_j - p_i) * attractiveForce(d)/d
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				int j = targets[e];
+				double dx = p[0][j] - p[0][i];
+				double dy = p[1][j] - p[1][i];
+				double dz = dimension == 3 ? p[2][j] - p[2][i] : 0;
+				double d = Math.sqrt(dx * dx + dy * dy + dz * dz) * attraction;
+				fx += d * dx;
+				fy += d * dy;
+				fz += d * dz;
+			}
+			// repelling forces: (p_j - p_i) * repulsiveForce(d)/d
+			double r = repulsion;
+			if (tree != null) {
+				tree.repulsion(p, i, theta, sum, stacks[chunk]);
+				fx += r * sum[0];
+				fy += r * sum[1];
+				if (dimension == 3)
+					fz += r * sum[2];
+			} else {
+				for (int j = 0; j < n; j++) {
+					if (j == i)
+						continue;
+					double dx = p[0][j] - p[0][i];
+					double dy = p[1][j] - p[1][i];
+					double dz = dimension == 3 ? p[2][j] - p[2][i] : 0;
+					double d2 = dx * dx + dy * dy + dz * dz;
+					if (d2 == 0)
+						continue;
+					fx += r * dx / d2;
+					fy += r * dy / d2;
+					fz += r * dz / d2;
+				}
+			}
+
+			double magnitude2 = fx * fx + fy * fy + fz * fz;
+			if (magnitude2 > 0) {
+				chunkEnergy += magnitude2;
+				double scale = step / Math.sqrt(magnitude2);
+				move[0][i] = scale * fx;
+				move[1][i] = scale * fy;
+				if (dimension == 3)
+					move[2][i] = scale * fz;
+				chunkMovement += step * step;
+			} else {
+				for (int k = 0; k < dimension; k++)
+					move[k][i] = 0;
+			}
+		}
+		energy[chunk] = chunkEnergy;
+		movement[chunk] = chunkMovement;
+	}
+}
@@ -7,10 +7,11 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenu;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.util.function.Consumer;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JLabel;
@@ -51,12 +52,17 @@ import Embeddings.SpringEmbedding;
 import Embeddings.CircularEmbedding;
 import Embeddings.GridEmbedding;
 import Embeddings.LayeredEmbedding;
+import Embeddings.LayoutCache;
+import Embeddings.LayoutExecutor;
 import Embeddings.LinearEmbedding;
 import Embeddings.RandomEmbedding;
+import Embeddings.SnapshotBuffer;
 import Embeddings.SpectralEmbedding;
+import Graph.BinaryGraphFile;
 import Graph.Graph;
 import Graph.Node;
 import Graph.Node3D;
+import Graph.ParallelEdgeListLoader;
 import GraphDrawing.DrawingArea;
 import GraphDrawing.GraphDrawer;
 /**
@@ -97,6 +103,30 @@ public class GUI {
 	 * The node the user has last clicked on.
 	 */
 	private Node markedNode;
+	/**
+	 * Cache of the expensive layouts of unchanged graphs.
+	 */
+	private final LayoutCache layoutCache = new LayoutCache();
+	/**
+	 * Computes the layouts in the background, such that the window
+	 * stays responsive.
+	 */
+	private final LayoutExecutor layoutExecutor = new LayoutExecutor(EventQueue::invokeLater);
+	/**
+	 * Layouts taking longer than this number of milliseconds are stopped.
+	 */
+	private static final long LAYOUT_TIMEOUT = 600000;
+	/**
+	 * A running spring embedding publishes its positions every
+	 * SNAPSHOT_ITERATIONS iterations or SNAPSHOT_INTERVAL milliseconds.
+	 */
+	private static final int SNAPSHOT_ITERATIONS = 10;
+	private static final long SNAPSHOT_INTERVAL = 100;
+	/**
+	 * At most INFO_LIMIT nodes and INFO_LIMIT edges are listed in the
+	 * information about the graph.
+	 */
+	private static final int INFO_LIMIT = 10000;
 	
 //===========================================================================================
 	/**
@@ -151,6 +181,134 @@ public class GUI {
 		JButton gridLayoutButton = new JButton("Grid as start position");
 		JPanel springButtonsContainer = new JPanel();
 		JButton saveButton = new JButton("Save as png");
+		JPanel layoutProgressContainer = new JPanel();
+		JProgressBar layoutProgress = new JProgressBar(0, 100);
+		JButton cancelLayoutButton = new JButton("Cancel");
+		JButton stopLayoutButton = new JButton("Stop");
+//===========================================================================================
+//Layouts in the background
+//===========================================================================================
+		/**
+		 * Computes layouts with the layout executor and shows them as soon
+		 * as they are finished. Meanwhile the old layout can still be 
+		 * zoomed and moved.
+		 */
+		class LayoutRunner {
+			/**
+			 * Number of started layouts, used to ignore the results of 
+			 * replaced layouts.
+			 */
+			int started;
+			/**
+			 * The running spring embedding, or null.
+			 */
+			SpringEmbedding spring;
+			
+			/**
+			 * Starts a layout of the current graph.
+			 * 
+			 * @param dimension The dimension of the layout, 2 or 3.
+			 * @param embedding Computes the layout of a graph.
+			 * @param view Adapts the stats of the GUI to the new layout.
+			 */
+			void run(int dimension, Consumer<Graph> embedding, Runnable view) {
+				if(G==null)
+					return;
+				int number = ++started;
+				spring = null;
+				drawingArea.stopSnapshots();
+				stopLayoutButton.setVisible(false);
+				layoutProgress.setValue(0);
+				layoutProgressContainer.setVisible(true);
+				layoutExecutor.submit(G, dimension, embedding, LAYOUT_TIMEOUT, new LayoutExecutor.Listener() {
+					public void progress(double fraction) {
+						layoutProgress.setValue((int) (100 * fraction));
+					}
+					
+					public void finished(Graph H) {
+						end();
+						drawingArea.reset();
+						view.run();
+						drawingArea.setGraph(H);
+						drawingArea.paint(drawingArea.getGraphics());
+					}
+					
+					public void cancelled() {
+						end();
+						drawingArea.paint(drawingArea.getGraphics());
+					}
+					
+					public void failed(Throwable ex) {
+						end();
+						drawingArea.paint(drawingArea.getGraphics());
+						ex.printStackTrace();
+						infoField.setText("Layout failed: " + ex);
+					}
+					
+					private void end() {
+						if(number != started)
+							return;
+						spring = null;
+						drawingArea.stopSnapshots();
+						layoutProgressContainer.setVisible(false);
+					}
+				});
+			}
+			
+			/**
+			 * Starts a 2D spring embedding of the current graph, which is 
+			 * drawn while it is computed and can be stopped early.
+			 * 
+			 * @param layoutType 0 to start from the grid layout, 1 to start 
+			 * from random positions.
+			 * @param view Adapts the stats of the GUI to the new layout.
+			 */
+			void runSpring(int layoutType, Runnable view) {
+				if(G==null)
+					return;
+				SpringEmbedding engine = new SpringEmbedding();
+				SnapshotBuffer snapshots = new SnapshotBuffer(G.nodes().size(), 2);
+				engine.setSnapshots(snapshots, SNAPSHOT_ITERATIONS, SNAPSHOT_INTERVAL);
+				if(layoutType == 0)
+					run(2, H -> cachedSpring(H, engine), view);
+				else
+					run(2, H -> engine.layout(H, 2, 1), view);
+				spring = engine;
+				stopLayoutButton.setVisible(true);
+				drawingArea.showSnapshots(snapshots);
+			}
+			
+			/**
+			 * Stops the running spring embedding and keeps its current 
+			 * positions as the layout.
+			 */
+			void stop() {
+				if(spring != null)
+					spring.stop();
+			}
+			
+			/**
+			 * Like the spring embedding with the grid as start position on 
+			 * the layout cache, but layouts stopped early are not cached.
+			 */
+			void cachedSpring(Graph H, SpringEmbedding engine) {
+				String key = LayoutCache.key(H, 2, "spring", 0);
+				try {
+					if(layoutCache.restore(H, key))
+						return;
+				} catch (IOException ex) {
+					//the layout is computed again
+				}
+				engine.layout(H, 2, 0);
+				try {
+					if(!engine.stopped())
+						layoutCache.store(H, key, 2);
+				} catch (IOException ex) {
+					//the layout is only not cached
+				}
+			}
+		}
+		LayoutRunner layouts = new LayoutRunner();
 //===========================================================================================
 //Resizing of the components
 //===========================================================================================
@@ -216,23 +374,11 @@ public class GUI {
 				
 				if (val == JFileChooser.APPROVE_OPTION) {
 				    File file = fileChooser.getSelectedFile();
-				    try (BufferedReader in = new BufferedReader(new FileReader(file))) {
-				    	
-				    	G = new Graph();
-				    	
+				    try {
 				    	infoField.setText("");
-				        String line = in.readLine();
-				        while (line != null) {
-				        	int space = line.indexOf(' ');
-				        	Node n1 = new Node(line.substring(0, space));
-				        	Node n2 = new Node(line.substring(space + 1, line.length()));
-				        	G.addNode(n1);
-			        		G.addNode(n2);
-				        	if(!n1.equals(n2)) {
-				        		G.addEdge(n1, n2);
-				        	}
-				        	line = in.readLine();	
-				        }
+				    	layoutExecutor.cancel();
+				    	BinaryGraphFile binary = BinaryGraphFile.isBinary(file) ? BinaryGraphFile.open(file) : null;
+				    	G = binary != null ? binary.toGraph() : ParallelEdgeListLoader.load(file);
 				        
 				        //adapt all stats
 						drawingArea.reset();
@@ -243,8 +389,9 @@ public class GUI {
 						drawingArea.setThreeDLayout(false);
 						G.setDirected(rdbtnDirected.isSelected());
 						
-						//set new graph
-				        GridEmbedding.defineLayout(G);
+						//set new graph, binary files may contain a layout
+						if(binary == null || !binary.hasCoordinates())
+							GridEmbedding.defineLayout(G);
 				        drawingArea.setGraph(G);
 				        
 				        //print everything needed
@@ -265,37 +412,26 @@ public class GUI {
 		JMenuItem mntmRandomEmbedding = new JMenuItem("Random embedding");
 		mntmRandomEmbedding.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				
-				//adapt all stats
-				drawingArea.reset();
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				drawingArea.setThreeDLayout(false);
-				drawingArea.setLinearEdges(true);
-				//print new layout
-				RandomEmbedding.defineLayout(G);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> RandomEmbedding.defineLayout(H), () -> {
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setThreeDLayout(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		
 		JMenuItem mntmCircularEmbedding = new JMenuItem("Circular embedding");
 		mntmCircularEmbedding.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-		        drawingArea.setLinearEdges(true);
-		        //print new layout
-				CircularEmbedding.defineLayout(G);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> CircularEmbedding.defineLayout(H), () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		mnLayout.add(mntmCircularEmbedding);
@@ -303,18 +439,13 @@ public class GUI {
 		JMenuItem mntmGridEmbedding = new JMenuItem("Grid embedding");
 		mntmGridEmbedding.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				drawingArea.setLinearEdges(true);
-				//print new layout
-				GridEmbedding.defineLayout(G);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> GridEmbedding.defineLayout(H), () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		mnLayout.add(mntmGridEmbedding);
@@ -322,18 +453,13 @@ public class GUI {
 		JMenuItem mntmLayeredEmbedding = new JMenuItem("Layered embedding");
 		mntmLayeredEmbedding.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				drawingArea.setLinearEdges(true);
-				//print new layout
-				LayeredEmbedding.defineLayout(G);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> LayeredEmbedding.defineLayout(H), () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		mnLayout.add(mntmLayeredEmbedding);
@@ -341,18 +467,13 @@ public class GUI {
 		JMenuItem mntmLinearEmbedding = new JMenuItem("Linear embedding");
 		mntmLinearEmbedding.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				drawingArea.setLinearEdges(false);
-				 //print new layout
-				LinearEmbedding.defineLayout(G);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> LinearEmbedding.defineLayout(H), () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(false);
+				});
 			}
 		});
 		mnLayout.add(mntmLinearEmbedding);
@@ -361,45 +482,26 @@ public class GUI {
 		JMenuItem mntmSpectralEmbedding2D = new JMenuItem("2D layout");
 		mntmSpectralEmbedding2D.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-		        drawingArea.setLinearEdges(true);
-		        //print new layout
-				SpectralEmbedding.defineLayout(G,2);
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(2, H -> layoutCache.defineLayout(H, 2, K -> SpectralEmbedding.defineLayout(K, 2), "spectral"), () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		
 		JMenuItem mntmSpectralEmbedding3D = new JMenuItem("3D layout");
 		mntmSpectralEmbedding3D.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(true);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				drawingArea.setLinearEdges(true);
-				int index = 0;
-				if(markedNode != null)
-					index = G.nodes().indexOf(markedNode);
-				//print new layout
-				SpectralEmbedding.defineLayout(G,3);
-				if(markedNode != null) {
-					Node n = G.nodes().get(index);
-					GraphDrawer.markNode(n);
-					GraphDrawer.markAdjacentNodes(G, n);
-					markedNode = n;
-				}
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.run(3, H -> layoutCache.defineLayout(H, 3, K -> SpectralEmbedding.defineLayout(K, 3), "spectral"), () -> {
+					drawingArea.setThreeDLayout(true);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		
@@ -411,59 +513,27 @@ public class GUI {
 		JMenuItem mntmSpringEmbedding2D = new JMenuItem("2D layout");
 		mntmSpringEmbedding2D.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(false);
-				randomButton.setVisible(true);
-				gridLayoutButton.setVisible(true);
-				drawingArea.setLinearEdges(true);
-				//AdaptiveSpringEmbedding.defineLayout(G, 0);
-				int index = 0;
-				if(markedNode != null)
-					index = G.nodes().indexOf(markedNode);
-				//print new layout
-				SpringEmbedding.defineLayout(G,2,0);
-				
-				if(markedNode != null) {
-					Node n = G.nodes().get(index);
-					GraphDrawer.markNode(n);
-					GraphDrawer.markAdjacentNodes(G, n);
-					markedNode = n;
-				}
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				layouts.runSpring(0, () -> {
+					drawingArea.setThreeDLayout(false);
+					randomButton.setVisible(true);
+					gridLayoutButton.setVisible(true);
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		
 		JMenuItem mntmSpringEmbedding3D = new JMenuItem("3D layout");
 		mntmSpringEmbedding3D.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if(G==null)
-					return;
-				//adapt all stats
-				drawingArea.reset();
-				drawingArea.setThreeDLayout(true);
-				drawingArea.setLinearEdges(true);
-				randomButton.setVisible(false);
-				gridLayoutButton.setVisible(false);
-				//print new layout
-				//SpringEmbedding3D.defineLayout(G);
-				int index = 0;
-				if(markedNode != null)
-					index = G.nodes().indexOf(markedNode);
-				//print new layout
-				SpringEmbedding.defineLayout(G,3,0);
-				
-				if(markedNode != null) {
-					Node n = G.nodes().get(index);
-					GraphDrawer.markNode(n);
-					GraphDrawer.markAdjacentNodes(G, n);
-					markedNode = n;
-				}
-				drawingArea.setGraph(G);
-		        drawingArea.paint(drawingArea.getGraphics());
+				//compute the new layout in the background, then adapt all stats
+				//not cached: it starts from random positions
+				layouts.run(3, H -> SpringEmbedding.defineLayout(H, 3, 0), () -> {
+					drawingArea.setThreeDLayout(true);
+					drawingArea.setLinearEdges(true);
+					randomButton.setVisible(false);
+					gridLayoutButton.setVisible(false);
+				});
 			}
 		});
 		
@@ -583,6 +653,29 @@ public class GUI {
 		bg.add(rdbtnUndirected);
 		directedButtonsContainer.add(rdbtnUndirected);
 						
+		GridBagConstraints gbc_layoutProgressContainer = new GridBagConstraints();
+		gbc_layoutProgressContainer.fill = GridBagConstraints.HORIZONTAL;
+		gbc_layoutProgressContainer.insets = new Insets(0, 0, 5, 0);
+		gbc_layoutProgressContainer.gridx = 0;
+		gbc_layoutProgressContainer.gridy = 6;
+		settingsArea.add(layoutProgressContainer, gbc_layoutProgressContainer);
+		layoutProgressContainer.setLayout(new FlowLayout(FlowLayout.CENTER, 5, 5));
+		layoutProgressContainer.add(layoutProgress);
+		layoutProgressContainer.add(stopLayoutButton);
+		layoutProgressContainer.add(cancelLayoutButton);
+		layoutProgressContainer.setVisible(false);
+		cancelLayoutButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				layoutExecutor.cancel();
+			}
+		});
+		stopLayoutButton.setToolTipText("Keep the current positions as the layout");
+		stopLayoutButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				layouts.stop();
+			}
+		});
+		
 		GridBagConstraints gbc_directedButtonsContainer = new GridBagConstraints();
 		gbc_directedButtonsContainer.fill = GridBagConstraints.BOTH;
 		gbc_directedButtonsContainer.insets = new Insets(0, 0, 5, 0);
@@ -603,11 +696,9 @@ public class GUI {
 //===========================================================================================
 		gridLayoutButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				drawingArea.reset();
-				SpringEmbedding.defineLayout(G, 2, 0);
-				drawingArea.setGraph(G);
-				drawingArea.setLinearEdges(true);
-				drawingArea.paint(drawingArea.getGraphics());
+				layouts.runSpring(0, () -> {
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		gridLayoutButton.setVisible(false);
@@ -617,11 +708,9 @@ public class GUI {
 //===========================================================================================
 		randomButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				drawingArea.reset();
-				SpringEmbedding.defineLayout(G, 2, 1);
-				drawingArea.setGraph(G);
-				drawingArea.setLinearEdges(true);
-				drawingArea.paint(drawingArea.getGraphics());
+				layouts.runSpring(1, () -> {
+					drawingArea.setLinearEdges(true);
+				});
 			}
 		});
 		randomButton.setVisible(false);
@@ -655,6 +744,7 @@ public class GUI {
 				if(drawingArea.threeDLayout())
 				{
 					Node3D.rotate(tf.getActionCommand(), G);
+					drawingArea.positionsChanged();
 					drawingArea.paint(drawingArea.getGraphics());
 				}
 			}
@@ -703,7 +793,8 @@ public class GUI {
 //===============================================================================
 	/**
 	 * Prints information about the graph on a JTextArea. This information includes
-	 * the names of all nodes of the graph as well as all edges.
+	 * the names of the nodes of the graph as well as the edges, where large graphs
+	 * are cut off after INFO_LIMIT nodes and edges.
 	 * 
 	 * @param t The JTextArea on which the information will be displayed.
 	 */
@@ -712,21 +803,29 @@ public class GUI {
 			return;
 		
 		//Print the nodes
-		String str = "V = {" + G.nodes().get(0).name();
-		for(int i = 1; i < G.nodes().size(); i++)
-			str += ", " + G.nodes().get(i).name();
+		int n = Math.min(G.nodes().size(), INFO_LIMIT);
+		StringBuilder str = new StringBuilder("V = {" + G.nodes().get(0).name());
+		for(int i = 1; i < n; i++)
+			str.append(", ").append(G.nodes().get(i).name());
+		if(n < G.nodes().size())
+			str.append(", ...");
 		
-		//Print the edges
-		str += "}\n\n" + "E = {";
-		for(int i = 0; i < G.edges().size(); i++){
-			if(i > 0)
-				str += ", ";
-			int[] edge = G.edges().get(i);
-			str += "(" + G.nodes().get(edge[0]).name() + "," + G.nodes().get(edge[1]).name() + ")";
-		}
-		str += "}";
+		//Print the edges, grouped by their starting nodes
+		str.append("}\n\n" + "E = {");
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
+		int m = Math.min(targets.length, INFO_LIMIT);
+		for(int i = 0, k = 0; k < m; i++)
+			for(; k < offsets[i+1] && k < m; k++) {
+				if(k > 0)
+					str.append(", ");
+				str.append("(" + G.nodes().get(i).name() + "," + G.nodes().get(targets[k]).name() + ")");
+			}
+		if(m < targets.length)
+			str.append(", ...");
+		str.append("}");
 		
-		t.setText(str);
+		t.setText(str.toString());
 		t.setCaretPosition(0);
 	}
 	
@@ -0,0 +1,599 @@
+package Graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A graph stored in a compact binary file, which can be opened without
+ * parsing: the file is memory mapped and its arrays are accessed directly
+ * through buffers, so opening a file takes constant time no matter how
+ * large the graph is. {@link #toGraph() toGraph} copies the content into
+ * a {@link Graph Graph}, where the offsets and targets are copied in bulk
+ * and become the only storage of the edges of the graph until its list of
+ * edges is needed (see {@link Graph#edges() edges}).
+ * <p>
+ * All numbers are stored in little endian byte order. The file consists
+ * of a header and several blocks, each of which starts at a multiple of
+ * 8 bytes:
+ * <ul>
+ * <li> the header: the magic number MAGIC, the version, the flags (see
+ * DIRECTED, COORDINATES, COORDINATES_3D, COLORS), four reserved bytes,
+ * the number of nodes N and the number of edges E (as longs) and the
+ * number of bytes of all names (as long), 40 bytes in total
+ * <li> the name offsets: N+1 ints, the name of node i consists of the
+ * bytes from offset i to offset i+1 of the names block
+ * <li> the names: the UTF-8 encoded names of all nodes
+ * <li> the offsets of the outgoing edges: N+1 ints, the targets of the
+ * edges starting in node i are stored at the positions offset i to
+ * offset i+1 - 1 of the targets block
+ * <li> the targets: E ints
+ * <li> if the flag COORDINATES is set: the x- and the y-coordinates,
+ * N doubles each
+ * <li> if the flag COORDINATES_3D is set: the three coordinates of the
+ * 3 dimensional positions, N doubles each
+ * <li> if the flag COLORS is set: the colors of the nodes, N ints
+ * </ul>
+ * Each block is mapped on its own, so a single block must not be larger
+ * than 2 GB (e.g. at most about 500 million edges).
+ * <p>
+ * Usage: java Graph.BinaryGraphFile input.txt output converts an edge
+ * list file into a binary file.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class BinaryGraphFile {
+	/**
+	 * The first four bytes of every binary graph file ("GDBG").
+	 */
+	public static final int MAGIC = 0x47424447;
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Flag for a directed graph.
+	 */
+	public static final int DIRECTED = 1;
+	/**
+	 * Flag for a file containing x- and y-coordinates.
+	 */
+	public static final int COORDINATES = 2;
+	/**
+	 * Flag for a file containing 3 dimensional positions.
+	 */
+	public static final int COORDINATES_3D = 4;
+	/**
+	 * Flag for a file containing colors.
+	 */
+	public static final int COLORS = 8;
+	/**
+	 * Size of the header in bytes.
+	 */
+	private static final int HEADER_SIZE = 40;
+
+	/**
+	 * The flags of the file.
+	 */
+	private final int flags;
+	/**
+	 * Number of nodes.
+	 */
+	private final int n;
+	/**
+	 * Number of edges.
+	 */
+	private final int m;
+	/**
+	 * The blocks of the file (see above), null if they are not contained.
+	 */
+	private final IntBuffer nameOffsets;
+	private final ByteBuffer names;
+	private final IntBuffer offsets;
+	private final IntBuffer targets;
+	private final DoubleBuffer x;
+	private final DoubleBuffer y;
+	private final DoubleBuffer[] coordinates3D;
+	private final IntBuffer colors;
+//=======================================================================
+// Constructor
+//=======================================================================
+	/**
+	 * Maps all blocks of a binary graph file.
+	 *
+	 * @param channel A channel of the file.
+	 * @throws IOException If the file cannot be read or is no binary
+	 * graph file.
+	 */
+	private BinaryGraphFile(FileChannel channel) throws IOException {
+		ByteBuffer header = map(channel, 0, HEADER_SIZE);
+		if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+			throw new IOException("Not a binary graph file of version " + VERSION);
+		flags = header.getInt(8);
+		long nodes = header.getLong(16);
+		long edges = header.getLong(24);
+		long nameBytes = header.getLong(32);
+		if(nodes < 0 || edges < 0 || nameBytes < 0)
+			throw new IOException("Negative size in the header");
+		if(nodes >= Integer.MAX_VALUE || edges >= Integer.MAX_VALUE || nameBytes > Integer.MAX_VALUE)
+			throw new IOException("Graph too large");
+		n = (int) nodes;
+		m = (int) edges;
+
+		long position = HEADER_SIZE;
+		nameOffsets = map(channel, position, 4L*(n+1)).asIntBuffer();
+		position = align(position + 4L*(n+1));
+		names = map(channel, position, nameBytes);
+		position = align(position + nameBytes);
+		offsets = map(channel, position, 4L*(n+1)).asIntBuffer();
+		position = align(position + 4L*(n+1));
+		targets = map(channel, position, 4L*m).asIntBuffer();
+		position = align(position + 4L*m);
+		if((flags & COORDINATES) != 0) {
+			x = map(channel, position, 8L*n).asDoubleBuffer();
+			y = map(channel, position + 8L*n, 8L*n).asDoubleBuffer();
+			position += 16L*n;
+		}
+		else {
+			x = null;
+			y = null;
+		}
+		if((flags & COORDINATES_3D) != 0) {
+			coordinates3D = new DoubleBuffer[3];
+			for(int k = 0; k < 3; k++) {
+				coordinates3D[k] = map(channel, position, 8L*n).asDoubleBuffer();
+				position += 8L*n;
+			}
+		}
+		else
+			coordinates3D = null;
+		colors = (flags & COLORS) != 0 ? map(channel, position, 4L*n).asIntBuffer() : null;
+	}
+//=======================================================================
+// Reading and writing
+//=======================================================================
+	/**
+	 * Opens a binary graph file. The blocks of the file are memory mapped,
+	 * nothing is read until the buffers are accessed.
+	 *
+	 * @param file A binary graph file.
+	 * @return BinaryGraphFile
+	 * @throws IOException If the file cannot be read or is no binary
+	 * graph file.
+	 */
+	public static BinaryGraphFile open(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new BinaryGraphFile(channel);
+		}
+	}
+
+	/**
+	 * Checks whether a file starts with the magic number of binary graph
+	 * files.
+	 *
+	 * @param file A file.
+	 * @return boolean
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+			return !buffer.hasRemaining() && buffer.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Reads a graph from a file, which is either a binary graph file or
+	 * an edge list file (see {@link ParallelEdgeListLoader ParallelEdgeListLoader}).
+	 *
+	 * @param file A binary graph file or an edge list file.
+	 * @return The graph stored in the file.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static Graph load(File file) throws IOException {
+		if(isBinary(file))
+			return open(file).toGraph();
+		return ParallelEdgeListLoader.load(file);
+	}
+
+	/**
+	 * Writes a graph with its layout (the coordinates, the 3 dimensional
+	 * positions if there are any, and the colors) into a binary file.
+	 *
+	 * @param G A graph.
+	 * @param file The file to be written.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(Graph G, File file) throws IOException {
+		write(G, file, true);
+	}
+
+	/**
+	 * Writes a graph into a binary file.
+	 *
+	 * @param G A graph.
+	 * @param file The file to be written.
+	 * @param layout Whether the coordinates, the 3 dimensional positions
+	 * (if there are any) and the colors are written as well.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(Graph G, File file, boolean layout) throws IOException {
+		int n = G.nodes().size();
+		int m = G.edgeCount();
+		byte[][] names = new byte[n][];
+		long nameBytes = 0;
+		for(int i = 0; i < n; i++) {
+			names[i] = G.nodes().get(i).name().getBytes(StandardCharsets.UTF_8);
+			nameBytes += names[i].length;
+		}
+		if(nameBytes > Integer.MAX_VALUE)
+			throw new IOException("Names too long");
+		int flags = G.directed() ? DIRECTED : 0;
+		if(layout)
+			flags |= COORDINATES | COLORS | (G.hasCoordinates3D() ? COORDINATES_3D : 0);
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			Writer out = new Writer(channel);
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			out.putInt(flags);
+			out.putInt(0);
+			out.putLong(n);
+			out.putLong(m);
+			out.putLong(nameBytes);
+			int offset = 0;
+			for(int i = 0; i < n; i++) {
+				out.putInt(offset);
+				offset += names[i].length;
+			}
+			out.putInt(offset);
+			out.align();
+			for(byte[] name: names)
+				out.put(name);
+			out.align();
+			int[] outOffsets = G.outOffsets();
+			for(int i = 0; i <= n; i++)
+				out.putInt(outOffsets[i]);
+			out.align();
+			int[] outTargets = G.outTargets();
+			for(int k = 0; k < m; k++)
+				out.putInt(outTargets[k]);
+			out.align();
+			if((flags & COORDINATES) != 0) {
+				out.putDoubles(G.xCoordinates(), n);
+				out.putDoubles(G.yCoordinates(), n);
+			}
+			if((flags & COORDINATES_3D) != 0)
+				for(double[] coordinates: G.coordinates3D())
+					out.putDoubles(coordinates, n);
+			if((flags & COLORS) != 0) {
+				int[] colors = G.colors();
+				for(int i = 0; i < n; i++)
+					out.putInt(colors[i]);
+			}
+			out.flush();
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		write(ParallelEdgeListLoader.load(new File(args[0])), new File(args[1]), false);
+	}
+
+	/**
+	 * Copies the content of the file into a new graph. The edges of the
+	 * graph are sorted by their starting nodes. The offsets and targets
+	 * are copied in bulk and become the index of the outgoing edges of
+	 * the graph, which stores no other copy of the edges until its list
+	 * of edges or its index of the incoming edges is needed. If different
+	 * names in the file decode to the same string, these nodes are merged
+	 * and get the position and color of the last of them.
+	 *
+	 * @return Graph
+	 * @throws IOException If the offsets of the names or edges are not
+	 * ascending, if a target is not a node, or if an edge occurs twice.
+	 */
+	public Graph toGraph() throws IOException {
+		int[] start = new int[n+1];
+		nameOffsets.get(0, start);
+		byte[] bytes = new byte[names.capacity()];
+		names.get(0, bytes);
+		checkOffsets(start, bytes.length, "names");
+		String[] result = new String[n];
+		for(int i = 0; i < n; i++)
+			result[i] = new String(bytes, start[i], start[i+1] - start[i], StandardCharsets.UTF_8);
+		Graph G = new Graph();
+		int[] index = EdgeListLoader.addNodes(G, result);
+		int[] outOffsets = new int[n+1];
+		offsets.get(0, outOffsets);
+		int[] outTargets = new int[m];
+		targets.get(0, outTargets);
+		checkOffsets(outOffsets, m, "edges");
+		checkTargets(outOffsets, outTargets);
+		if(index == null)
+			G.addDistinctEdges(outOffsets, outTargets);
+		else {
+			//names decoded to the same string became one node
+			int[] sources = new int[m];
+			for(int i = 0; i < n; i++)
+				for(int k = outOffsets[i]; k < outOffsets[i+1]; k++) {
+					sources[k] = index[i];
+					outTargets[k] = index[outTargets[k]];
+				}
+			G.addEdges(sources, outTargets, m);
+		}
+		G.setDirected(directed());
+		if(x != null) {
+			copy(x, G.xCoordinates(), index);
+			copy(y, G.yCoordinates(), index);
+		}
+		if(coordinates3D != null) {
+			double[][] p = G.coordinates3D();
+			for(int k = 0; k < 3; k++)
+				copy(coordinates3D[k], p[k], index);
+		}
+		if(colors != null) {
+			if(index == null)
+				colors.get(0, G.colors(), 0, n);
+			else
+				for(int i = 0; i < n; i++)
+					G.colors()[index[i]] = colors.get(i);
+		}
+		return G;
+	}
+//=======================================================================
+// Getter
+//=======================================================================
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return int
+	 */
+	public int nodes() {
+		return n;
+	}
+
+	/**
+	 * Returns the number of edges.
+	 *
+	 * @return int
+	 */
+	public int edges() {
+		return m;
+	}
+
+	/**
+	 * Returns whether the graph is directed.
+	 *
+	 * @return boolean
+	 */
+	public boolean directed() {
+		return (flags & DIRECTED) != 0;
+	}
+
+	/**
+	 * Returns the name of node i.
+	 *
+	 * @param i A node.
+	 * @return String
+	 */
+	public String name(int i) {
+		int from = nameOffsets.get(i);
+		byte[] bytes = new byte[nameOffsets.get(i+1) - from];
+		names.get(from, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the offsets of the outgoing edges: the targets of the edges
+	 * starting in node i are stored in targets() at the positions
+	 * offsets().get(i), ..., offsets().get(i+1)-1.
+	 *
+	 * @return A read-only buffer of N+1 ints.
+	 */
+	public IntBuffer offsets() {
+		return offsets.duplicate();
+	}
+
+	/**
+	 * Returns the targets of the edges, grouped by their starting nodes
+	 * (see offsets()).
+	 *
+	 * @return A read-only buffer of E ints.
+	 */
+	public IntBuffer targets() {
+		return targets.duplicate();
+	}
+
+	/**
+	 * Returns whether the file contains x- and y-coordinates.
+	 *
+	 * @return boolean
+	 */
+	public boolean hasCoordinates() {
+		return x != null;
+	}
+
+	/**
+	 * Returns the x-coordinates of the nodes.
+	 *
+	 * @return A read-only buffer of N doubles or null if the file does not
+	 * contain coordinates.
+	 */
+	public DoubleBuffer x() {
+		return x == null ? null : x.duplicate();
+	}
+
+	/**
+	 * Returns the y-coordinates of the nodes.
+	 *
+	 * @return A read-only buffer of N doubles or null if the file does not
+	 * contain coordinates.
+	 */
+	public DoubleBuffer y() {
+		return y == null ? null : y.duplicate();
+	}
+
+	/**
+	 * Returns the k-th coordinates of the 3 dimensional positions.
+	 *
+	 * @param k 0, 1 or 2.
+	 * @return A read-only buffer of N doubles or null if the file does not
+	 * contain 3 dimensional positions.
+	 */
+	public DoubleBuffer coordinates3D(int k) {
+		return coordinates3D == null ? null : coordinates3D[k].duplicate();
+	}
+
+	/**
+	 * Returns the colors of the nodes as sRGB values.
+	 *
+	 * @return A read-only buffer of N ints or null if the file does not
+	 * contain colors.
+	 */
+	public IntBuffer colors() {
+		return colors == null ? null : colors.duplicate();
+	}
+//=======================================================================
+// Auxiliary functions
+//=======================================================================
+	/**
+	 * Maps a block of a file in little endian byte order.
+	 */
+	private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+		if(size > Integer.MAX_VALUE)
+			throw new IOException("Block of " + size + " bytes too large");
+		if(position + size > channel.size())
+			throw new IOException("File too short");
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Copies the values of the nodes of the file into an array of the
+	 * graph, where node i of the file became node index[i] of the graph,
+	 * or node i if index is null.
+	 */
+	private void copy(DoubleBuffer values, double[] array, int[] index) {
+		if(index == null)
+			values.get(0, array, 0, n);
+		else
+			for(int i = 0; i < n; i++)
+				array[index[i]] = values.get(i);
+	}
+
+	/**
+	 * Checks that offsets into a block of a given size start at 0, never
+	 * decrease and end at the size of the block.
+	 */
+	private static void checkOffsets(int[] offsets, int size, String block) throws IOException {
+		boolean valid = offsets[0] == 0 && offsets[offsets.length-1] == size;
+		for(int i = 0; valid && i + 1 < offsets.length; i++)
+			valid = offsets[i] <= offsets[i+1];
+		if(!valid)
+			throw new IOException("Invalid offsets of the " + block);
+	}
+
+	/**
+	 * Checks that every target is a node and that no node has the same
+	 * target twice.
+	 */
+	private static void checkTargets(int[] offsets, int[] targets) throws IOException {
+		int n = offsets.length - 1;
+		//last[j] - 1 is the last node found with an edge to node j
+		int[] last = new int[n];
+		for(int i = 0; i < n; i++)
+			for(int k = offsets[i]; k < offsets[i+1]; k++) {
+				int j = targets[k];
+				if(j < 0 || j >= n)
+					throw new IOException("Invalid target " + j + " of node " + i);
+				if(last[j] == i + 1)
+					throw new IOException("Duplicate edge from node " + i + " to node " + j);
+				last[j] = i + 1;
+			}
+	}
+
+	/**
+	 * Rounds a position up to a multiple of 8.
+	 */
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	/**
+	 * Writes numbers in little endian byte order through a buffer.
+	 */
+	private static class Writer {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+		/**
+		 * Number of bytes written so far.
+		 */
+		private long position;
+
+		Writer(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		void putInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+			position += 4;
+		}
+
+		void putLong(long value) throws IOException {
+			ensure(8);
+			buffer.putLong(value);
+			position += 8;
+		}
+
+		void putDoubles(double[] values, int count) throws IOException {
+			for(int i = 0; i < count; i++) {
+				ensure(8);
+				buffer.putDouble(values[i]);
+			}
+			position += 8L*count;
+		}
+
+		void put(byte[] bytes) throws IOException {
+			for(byte b: bytes) {
+				ensure(1);
+				buffer.put(b);
+			}
+			position += bytes.length;
+		}
+
+		/**
+		 * Fills up the current block with zeros to a multiple of 8 bytes.
+		 */
+		void align() throws IOException {
+			while(position % 8 != 0) {
+				ensure(1);
+				buffer.put((byte) 0);
+				position++;
+			}
+		}
+
+		/**
+		 * Makes sure that the buffer has space for the given number of bytes.
+		 */
+		private void ensure(int bytes) throws IOException {
+			if(buffer.remaining() < bytes)
+				flush();
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while(buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package Graph;
+
+/**
+ * Determines the 2D plane onto which the 3 dimensional positions of the nodes
+ * of a graph are projected (see {@link Node3D#project3DPoints(Graph)
+ * Node3D.project3DPoints(Graph)}). This plane is determined by the two vectors
+ * X and Y (which are always normal to each other) and the origin of the
+ * coordinate system. The plane can be rotated in different directions.
+ * <p>
+ * Every graph owns its own camera (see {@link Graph#camera() Graph.camera()}),
+ * so rotating the view of one graph does not affect any other graph.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class Camera {
+	/**
+	 * The angle by which the plane is rotated with each key stroke.
+	 */
+	private static final double ANGLE = 0.05;
+
+	/**
+	 * The two vectors X and Y (which are always normal to each other) and the
+	 * origin of the coordinate system determine a plane lying in three dimensional
+	 * space.
+	 */
+	private final Vector X = new Vector(3, new double[] { 0, 1, 0 });
+	/**
+	 * The two vectors X and Y (which are always normal to each other) and the
+	 * origin of the coordinate system determine a plane lying in three dimensional
+	 * space.
+	 */
+	private final Vector Y = new Vector(3, new double[] { 0, 0, 1 });
+
+	/**
+	 * Returns the current directions of the plane, i.e. copies of the vectors X,
+	 * Y and their cross product (the direction in which the distance to the plane
+	 * is measured).
+	 *
+	 * @return double[][] An array {X, Y, X x Y}.
+	 */
+	public synchronized double[][] axes() {
+		return new double[][] { X.coordinates().clone(), Y.coordinates().clone(),
+				Vector.crossProduct(X, Y).coordinates() };
+	}
+
+	/**
+	 * Rotates the plane according to a key stroke: "a" and "d" rotate the vector
+	 * X around Y, "w" and "s" rotate the vector Y around X. Any other key does not
+	 * change the plane.
+	 *
+	 * @param c Keyboard symbol that got hit
+	 */
+	public synchronized void rotate(String c) {
+		if (c.equals("d") || c.equals("D") || c.equals("a") || c.equals("A")) {
+			double alpha = ANGLE;
+			if (c.equals("a") || c.equals("A"))
+				alpha = -ANGLE;
+
+			Vector xRot = new Vector(3, X.coordinates());
+			xRot.multiply(Math.cos(alpha));
+			Vector dummy = Vector.crossProduct(Y, X);
+			dummy.multiply(Math.sin(alpha));
+			xRot.add(dummy);
+			dummy.setCoordinates(Y.coordinates());
+			dummy.multiply(Vector.dotProduct(Y, X) * (1 - Math.cos(alpha)));
+			xRot.add(dummy);
+
+			X.setCoordinates(xRot.coordinates());
+		}
+
+		if (c.equals("w") || c.equals("W") || c.equals("s") || c.equals("S")) {
+			double alpha = ANGLE;
+			if (c.equals("s") || c.equals("S"))
+				alpha = -ANGLE;
+
+			Vector yRot = new Vector(3, Y.coordinates());
+			yRot.multiply(Math.cos(alpha));
+			Vector dummy = Vector.crossProduct(X, Y);
+			dummy.multiply(Math.sin(alpha));
+			yRot.add(dummy);
+			dummy.setCoordinates(X.coordinates());
+			dummy.multiply(Vector.dotProduct(X, Y) * (1 - Math.cos(alpha)));
+			yRot.add(dummy);
+
+			Y.setCoordinates(yRot.coordinates());
+		}
+	}
+}
@@ -0,0 +1,375 @@
+package Graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads graphs from edge list files as found in the folder TestGraphs.
+ * Each line of such a file contains the names of two nodes separated
+ * by a space, which determines an edge between these nodes. A line
+ * containing only one name adds a node without an edge, an edge from
+ * a node to itself only adds the node.
+ * <p>
+ * The file is read through memory mapped windows of a FileChannel and
+ * the names are parsed directly from the bytes: every name is stored
+ * once in a hash table of byte sequences, so no objects are created
+ * per line. Only at the end one String per node is created and the
+ * graph is built in bulk (see {@link Graph#addNodes(String[]) addNodes}
+ * and {@link Graph#addEdges(int[], int[], int) addEdges}).
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class EdgeListLoader {
+	/**
+	 * Maximal size of a memory mapped window of the file.
+	 */
+	static final int WINDOW_SIZE = 1 << 30;
+	/**
+	 * Marks the keys of names with at least 8 bytes. Shorter names 
+	 * are packed into their keys together with their lengths, so 
+	 * they are equal if and only if their keys are equal. The key of
+	 * a longer name consists of this mark and a hash code of the name.
+	 */
+	private static final long LONG_NAME = 0xffL << 56;
+
+	/**
+	 * The bytes of all names one after the other.
+	 */
+	private byte[] bytes = new byte[1 << 12];
+	/**
+	 * Number of used entries of the array bytes.
+	 */
+	private int used;
+	/**
+	 * The name of node i consists of the bytes start[i], ..., start[i+1]-1.
+	 */
+	private int[] start = new int[1 << 10];
+	/**
+	 * Number of different names.
+	 */
+	private int names;
+	/**
+	 * Hash table with open addressing, where slot i consists of the
+	 * entries 2*i (the key of a name, see 'key') and 2*i+1 (the index
+	 * of its node plus 1, or 0 for an unused slot). Keeping both in
+	 * one array means that a lookup usually touches only one cache
+	 * line. The number of slots is always a power of two.
+	 */
+	private long[] table = new long[1 << 12];
+	/**
+	 * The edges read so far given by the indices of their nodes.
+	 */
+	private int[] sources = new int[1 << 10];
+	private int[] targets = new int[1 << 10];
+	/**
+	 * Number of edges read so far.
+	 */
+	private int edges;
+//=======================================================================
+// Reading graphs
+//=======================================================================
+	/**
+	 * Reads a graph from an edge list file.
+	 *
+	 * @param file An edge list file.
+	 * @return The graph described by the file.
+	 * @throws IOException If the file cannot be read or contains a line
+	 * which is longer than the size of a memory mapped window.
+	 */
+	public static Graph load(File file) throws IOException {
+		EdgeListLoader loader = new EdgeListLoader();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			while(position < size) {
+				long length = Math.min(WINDOW_SIZE, size - position);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				boolean last = position + length == size;
+				int end = loader.parse(buffer, 0, (int) length, last);
+				if(end == 0)
+					throw new IOException("Line longer than " + WINDOW_SIZE + " bytes in " + file);
+				position += end;
+			}
+		}
+		return loader.toGraph();
+	}
+
+	/**
+	 * Builds the graph from the names and edges read so far.
+	 *
+	 * @return Graph
+	 */
+	Graph toGraph() {
+		Graph G = new Graph();
+		int[] index = addNodes(G);
+		if(index != null)
+			for(int k = 0; k < edges; k++) {
+				sources[k] = index[sources[k]];
+				targets[k] = index[targets[k]];
+			}
+		G.addEdges(sources, targets, edges);
+		return G;
+	}
+
+	/**
+	 * Adds nodes with the names read so far to a new graph G.
+	 *
+	 * @param G An empty graph.
+	 * @return See {@link #addNodes(Graph, String[])}.
+	 */
+	int[] addNodes(Graph G) {
+		String[] result = new String[names];
+		for(int i = 0; i < names; i++)
+			result[i] = name(i);
+		return addNodes(G, result);
+	}
+
+	/**
+	 * Adds nodes with the given names to a new graph G.
+	 *
+	 * @param G An empty graph.
+	 * @param names Names of the nodes.
+	 * @return Null if the i-th name became the i-th node of G for all i.
+	 * Otherwise (if different byte sequences were decoded to the same
+	 * name) the index of the node of each name.
+	 */
+	static int[] addNodes(Graph G, String[] names) {
+		G.addNodes(names);
+		if(G.nodes().size() == names.length)
+			return null;
+		int[] index = new int[names.length];
+		for(int i = 0; i < names.length; i++)
+			index[i] = G.indexOf(new Node(names[i]));
+		return index;
+	}
+
+	/**
+	 * Parses the complete lines between two positions of a buffer. The
+	 * last line counts as complete only if it is the end of the file.
+	 *
+	 * @param buffer A window of the file.
+	 * @param from The position where the first line starts.
+	 * @param to The position after the last byte to be parsed.
+	 * @param last Whether the position "to" is the end of the file.
+	 * @return The position after the last complete line which was parsed.
+	 */
+	int parse(ByteBuffer buffer, int from, int to, boolean last) {
+		int lineStart = from;
+		for(int i = from; i < to; i++)
+			if(buffer.get(i) == '\n') {
+				parseLine(buffer, lineStart, i);
+				lineStart = i + 1;
+			}
+		if(last && lineStart < to) {
+			parseLine(buffer, lineStart, to);
+			lineStart = to;
+		}
+		return lineStart - from;
+	}
+
+	/**
+	 * Returns the number of different names read so far.
+	 *
+	 * @return int
+	 */
+	int names() {
+		return names;
+	}
+
+	/**
+	 * Returns the number of edges read so far.
+	 *
+	 * @return int
+	 */
+	int edges() {
+		return edges;
+	}
+
+	/**
+	 * Returns the index of the starting node of the k-th edge.
+	 *
+	 * @param k An edge.
+	 * @return int
+	 */
+	int source(int k) {
+		return sources[k];
+	}
+
+	/**
+	 * Returns the index of the ending node of the k-th edge.
+	 *
+	 * @param k An edge.
+	 * @return int
+	 */
+	int target(int k) {
+		return targets[k];
+	}
+
+	/**
+	 * Returns the name of node i.
+	 *
+	 * @param i A node.
+	 * @return String
+	 */
+	String name(int i) {
+		return new String(bytes, start[i], start[i+1] - start[i], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns a hash code of the name of node i, which only depends on
+	 * the bytes of the name.
+	 *
+	 * @param i A node.
+	 * @return int
+	 */
+	int hash(int i) {
+		return spread(key(ByteBuffer.wrap(bytes), start[i], start[i+1]));
+	}
+
+	/**
+	 * Looks up the name of node i of another loader and returns its
+	 * index in this loader, where a new index is assigned if the name
+	 * is not known yet.
+	 *
+	 * @param other Another loader.
+	 * @param i The index of a node of the other loader.
+	 * @return The index of the name in this loader.
+	 */
+	int intern(EdgeListLoader other, int i) {
+		return intern(ByteBuffer.wrap(other.bytes), other.start[i], other.start[i+1]);
+	}
+
+//=======================================================================
+// Auxiliary functions
+//=======================================================================
+	/**
+	 * Parses the line consisting of the bytes from to-1. As in the
+	 * GUI, the first name ends at the first space and the second
+	 * name consists of the rest of the line.
+	 */
+	private void parseLine(ByteBuffer buffer, int from, int to) {
+		if(to > from && buffer.get(to-1) == '\r')
+			to--;
+		if(to == from)
+			return;
+		int space = from;
+		while(space < to && buffer.get(space) != ' ')
+			space++;
+		int n1 = intern(buffer, from, space);
+		if(space == to)
+			return;
+		int n2 = intern(buffer, space+1, to);
+		if(n1 == n2)
+			return;
+		if(edges == sources.length) {
+			sources = Arrays.copyOf(sources, 2*edges);
+			targets = Arrays.copyOf(targets, 2*edges);
+		}
+		sources[edges] = n1;
+		targets[edges] = n2;
+		edges++;
+	}
+
+	/**
+	 * Returns the index of the node whose name consists of the bytes
+	 * from to-1 of the buffer. If there is no such node yet, a new
+	 * index is assigned.
+	 */
+	private int intern(ByteBuffer buffer, int from, int to) {
+		int length = to - from;
+		long key = key(buffer, from, to);
+		int mask = table.length/2 - 1;
+		int slot = spread(key) & mask;
+		while(table[2*slot+1] != 0) {
+			if(table[2*slot] == key) {
+				int node = (int) table[2*slot+1] - 1;
+				if(length < 8 || equals(buffer, from, to, node))
+					return node;
+			}
+			slot = (slot+1) & mask;
+		}
+
+		//store a new name
+		if(used + length > bytes.length)
+			bytes = Arrays.copyOf(bytes, Math.max(2*bytes.length, used + length));
+		for(int i = 0; i < length; i++)
+			bytes[used+i] = buffer.get(from+i);
+		if(names + 2 > start.length)
+			start = Arrays.copyOf(start, 2*start.length);
+		start[names] = used;
+		used += length;
+		start[names+1] = used;
+		table[2*slot] = key;
+		table[2*slot+1] = ++names;
+		if(4*names > table.length)
+			grow();
+		return names - 1;
+	}
+
+	/**
+	 * Returns the key of the name consisting of the bytes from to-1 of
+	 * the buffer (see LONG_NAME).
+	 */
+	private static long key(ByteBuffer buffer, int from, int to) {
+		int length = to - from;
+		if(length < 8) {
+			long key = (long) length << 56;
+			for(int i = 0; i < length; i++)
+				key |= (buffer.get(from+i) & 0xffL) << (8*i);
+			return key;
+		}
+		int hash = 0;
+		for(int i = from; i < to; i++)
+			hash = 31*hash + buffer.get(i);
+		return LONG_NAME | (hash & 0xffffffffL);
+	}
+
+	/**
+	 * Checks whether the bytes from to-1 of the buffer are the name
+	 * of a node.
+	 */
+	private boolean equals(ByteBuffer buffer, int from, int to, int node) {
+		if(to - from != start[node+1] - start[node])
+			return false;
+		for(int i = from, j = start[node]; i < to; i++, j++)
+			if(buffer.get(i) != bytes[j])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Doubles the number of slots of the hash table.
+	 */
+	private void grow() {
+		long[] old = table;
+		table = new long[2*old.length];
+		int mask = table.length/2 - 1;
+		for(int i = 0; i < old.length; i += 2)
+			if(old[i+1] != 0) {
+				int slot = spread(old[i]) & mask;
+				while(table[2*slot+1] != 0)
+					slot = (slot+1) & mask;
+				table[2*slot] = old[i];
+				table[2*slot+1] = old[i+1];
+			}
+	}
+	
+	/**
+	 * Spreads the bits of a key, since the keys of names like
+	 * consecutive numbers are close to each other and would form
+	 * long chains in the table.
+	 */
+	private static int spread(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
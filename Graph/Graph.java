@@ -1,11 +1,15 @@
 package Graph;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 /**
  * Class to represent graphs. A graph is represented as a list
  * of nodes and as a list of edges. An edge is a pair of non-negative integers 
  * (i,j) determining an edge starting at node i and ending at node j. 
  * The index of a node is given by its position in the list of nodes.
+ * The positions and colors of the nodes are stored in arrays owned by
+ * the graph, where the entry at index i belongs to the i-th node.
  * 
  * @author Clemens Hofstadler, Lukas W&oumlgerer
  * @version 1.0.0, 1st June 2019
@@ -17,13 +21,85 @@ public class Graph {
 	 */
 	private ArrayList<Node> nodes;
 	/**
-	 * The list of edges of the graph.
+	 * The list of edges of the graph. It is null while the edges are only
+	 * stored in the index of the outgoing edges (see 'addDistinctEdges'),
+	 * and created from the index as soon as it is needed (see 'edges()').
 	 */
 	private ArrayList<int[]> edges;
+	/**
+	 * Maps the name of each node to its index in the list of nodes.
+	 */
+	private HashMap<String,Integer> nodeIndex;
+	/**
+	 * Contains every edge (i,j) of the graph packed into the
+	 * long value (i << 32) | j. Used to reject duplicate edges. It is
+	 * null after the edges were added in bulk by 'addDistinctEdges' and 
+	 * rebuilt as soon as it is needed (see 'edgeSet()').
+	 */
+	private LongHashSet edgeSet;
 	/**
 	 * Determines whether the graph is considered as directed or undirected.
 	 */
 	private boolean directed; 
+	/**
+	 * Compressed sparse row index of the outgoing edges. The targets of all
+	 * edges going out from node i are stored in outTargets at the positions
+	 * outOffsets[i], ..., outOffsets[i+1]-1. Both arrays are built lazily and
+	 * are null whenever the index is outdated, except while the list of
+	 * edges is null.
+	 */
+	private int[] outOffsets;
+	/**
+	 * Targets of the outgoing edges, grouped by their starting node.
+	 * See outOffsets.
+	 */
+	private int[] outTargets;
+	/**
+	 * Compressed sparse row index of the incoming edges. The sources of all
+	 * edges going in to node i are stored in inSources at the positions
+	 * inOffsets[i], ..., inOffsets[i+1]-1. Both arrays are built lazily and
+	 * are null whenever the index is outdated or not needed yet.
+	 */
+	private int[] inOffsets;
+	/**
+	 * Sources of the incoming edges, grouped by their ending node.
+	 * See inOffsets.
+	 */
+	private int[] inSources;
+	/**
+	 * The x-coordinates of the nodes within the unit square. The array
+	 * may be longer than the number of nodes.
+	 */
+	private double[] x;
+	/**
+	 * The y-coordinates of the nodes within the unit square. The array
+	 * may be longer than the number of nodes.
+	 */
+	private double[] y;
+	/**
+	 * The colors of the nodes given as sRGB values. The array may be 
+	 * longer than the number of nodes.
+	 */
+	private int[] colors;
+	/**
+	 * The positions of the nodes in 3 dimensional space. Each of the three
+	 * arrays holds one coordinate. This third coordinate channel is optional:
+	 * it is only allocated once a 3D layout needs it and null before. The
+	 * x- and y-coordinates within the unit square then hold the projection
+	 * of these positions.
+	 */
+	private double[][] coordinates3D;
+	/**
+	 * For each node a number corresponding to its distance to the plane
+	 * onto which the 3 dimensional positions are projected (see 
+	 * {@link Node3D Node3D}). Allocated together with coordinates3D.
+	 */
+	private double[] distances;
+	/**
+	 * Determines the plane onto which the 3 dimensional positions
+	 * are projected.
+	 */
+	private final Camera camera;
 //=======================================================================
 // Constructor
 //=======================================================================
@@ -33,21 +109,40 @@ public class Graph {
 	public Graph(){ 
 		nodes = new ArrayList<Node>();
 		edges = new ArrayList<int[]>();
+		nodeIndex = new HashMap<String,Integer>();
+		edgeSet = new LongHashSet();
 		directed = true;
+		x = new double[16];
+		y = new double[16];
+		colors = new int[16];
+		camera = new Camera();
 	}
 //=======================================================================
 // Adding nodes and edges
 //=======================================================================
 	/**
 	 * Adds a node to the graph if it is not already contained.
-	 * The nodes are compared via their names.
+	 * The nodes are compared via their names. From now on the
+	 * position and the color of the node are stored by the graph.
+	 * Since a node can only be contained in one graph, a copy of
+	 * the node is added if it already belongs to another graph.
 	 * 
 	 * @param n A node.
 	 */
 	public void addNode(Node n){
-		if(!nodes.contains(n))
-			nodes.add(n);	
+		if(nodeIndex.containsKey(n.name()))
+			return;
+		if(n.graph() != null)
+			n = n.copy();
+		
+		int index = nodes.size();
+		ensureCapacity(index+1);
+		nodeIndex.put(n.name(), index);
+		nodes.add(n);
+		n.attach(this, index);
+		invalidateIndex();
 	}
+
 	
 	/**
 	 * Adds an edge between Node n1 and Node n2 to the graph
@@ -59,17 +154,171 @@ public class Graph {
 	 * @param n2 A node.
 	 */
 	public void addEdge(Node n1, Node n2) {
-		int from = nodes.indexOf(n1);
-		int to = nodes.indexOf(n2);
+		int from = indexOf(n1);
+		int to = indexOf(n2);
 		if(from == -1 || to == -1)
 			return;
 		
-		int[] edge = {from,to};
-		for(int[] e: edges)
-			if(e[0] == edge[0] && e[1] == edge[1])
-				return;
+		if(!edgeSet().add(((long) from << 32) | to))
+			return;
+	
+		edges().add(new int[] {from,to});
+		invalidateIndex();
+	}
+	
+	/**
+	 * Adds nodes with the given names to the graph, skipping names
+	 * which are already contained. In contrast to calling 'addNode'
+	 * for each name, the storage of the graph is enlarged only once.
+	 * 
+	 * @param names The names of the new nodes.
+	 */
+	public void addNodes(String[] names) {
+		ensureCapacity(nodes.size() + names.length);
+		nodes.ensureCapacity(nodes.size() + names.length);
+		if(nodeIndex.isEmpty())
+			nodeIndex = new HashMap<String,Integer>(2*names.length);
+		for(String name: names) {
+			if(nodeIndex.containsKey(name))
+				continue;
+			Node n = new Node(name);
+			int index = nodes.size();
+			nodeIndex.put(name, index);
+			nodes.add(n);
+			n.attach(this, index);
+		}
+		invalidateIndex();
+	}
+	
+	/**
+	 * Adds the edges (sources[k],targets[k]) for k = 0, ..., count-1
+	 * to the graph, where the nodes are given by their indices. Edges 
+	 * which are already contained and edges with an invalid index 
+	 * are skipped.
+	 * 
+	 * @param sources The indices of the starting nodes.
+	 * @param targets The indices of the ending nodes.
+	 * @param count The number of edges.
+	 */
+	public void addEdges(int[] sources, int[] targets, int count) {
+		ArrayList<int[]> edges = edges();
+		edges.ensureCapacity(edges.size() + count);
+		LongHashSet edgeSet = edgeSet();
+		int n = nodes.size();
+		for(int k = 0; k < count; k++) {
+			int from = sources[k];
+			int to = targets[k];
+			if(from < 0 || from >= n || to < 0 || to >= n)
+				continue;
+			if(edgeSet.add(((long) from << 32) | to))
+				edges.add(new int[] {from,to});
+		}
+		invalidateIndex();
+	}
+	
+	/**
+	 * Adds edges given as packed values (i << 32) | j for an edge from
+	 * node i to node j. The values must be sorted in increasing order 
+	 * and must not contain duplicates, so they already list the edges
+	 * in the order of the index of the outgoing edges. If the graph has
+	 * no edges yet, this index is filled directly from the values and
+	 * is the only storage of the edges until the list of edges is needed.
+	 * 
+	 * @param packed The sorted packed edges.
+	 * @param count The number of edges.
+	 */
+	void addDistinctEdges(long[] packed, int count) {
+		if(edgeCount() > 0) {
+			int[] sources = new int[count];
+			int[] targets = new int[count];
+			for(int k = 0; k < count; k++) {
+				sources[k] = (int) (packed[k] >>> 32);
+				targets[k] = (int) packed[k];
+			}
+			addEdges(sources, targets, count);
+			return;
+		}
+		int n = nodes.size();
+		int[] offsets = new int[n+1];
+		int[] targets = new int[count];
+		for(int k = 0; k < count; k++) {
+			offsets[(int) (packed[k] >>> 32) + 1]++;
+			targets[k] = (int) packed[k];
+		}
+		for(int i = 0; i < n; i++)
+			offsets[i+1] += offsets[i];
+		addDistinctEdges(offsets, targets);
+	}
 	
-		edges.add(edge);
+	/**
+	 * Adds the edges given by a compressed sparse row index: the edges 
+	 * starting in node i go to the nodes targets[offsets[i]], ..., 
+	 * targets[offsets[i+1]-1]. The edges must not contain duplicates
+	 * and the indices must be valid. If the graph has no edges yet, the
+	 * arrays become the index of the outgoing edges without copying and
+	 * are the only storage of the edges until the list of edges or the
+	 * index of the incoming edges is needed. So the arrays must not be 
+	 * modified afterwards.
+	 * 
+	 * @param offsets The offsets of the edges of each node, one more 
+	 * than the number of nodes.
+	 * @param targets The targets of the edges, exactly one per edge.
+	 */
+	void addDistinctEdges(int[] offsets, int[] targets) {
+		int n = nodes.size();
+		int m = targets.length;
+		if(edgeCount() > 0) {
+			int[] sources = new int[m];
+			for(int i = 0; i < n; i++)
+				Arrays.fill(sources, offsets[i], offsets[i+1], i);
+			addEdges(sources, targets, m);
+			return;
+		}
+		edges = null;
+		edgeSet = null;
+		outOffsets = offsets;
+		outTargets = targets;
+		inOffsets = null;
+		inSources = null;
+	}
+//=======================================================================
+// Copying
+//=======================================================================
+	/**
+	 * Returns a copy of the graph with the same nodes and edges in the
+	 * same order, the same coordinates, colors and 3 dimensional
+	 * positions. The copy has its own camera, which is not rotated.
+	 *
+	 * @return A copy of the graph.
+	 */
+	public Graph copy() {
+		int n = nodes.size();
+		Graph H = new Graph();
+		String[] names = new String[n];
+		for(int i = 0; i < n; i++)
+			names[i] = nodes.get(i).name();
+		H.addNodes(names);
+		if(edges == null)
+			//the index is never modified, so both graphs can share it
+			H.addDistinctEdges(outOffsets, outTargets);
+		else {
+			//the edges are distinct, so the set of H is only rebuilt when needed
+			H.edges = new ArrayList<int[]>(edges.size());
+			for(int[] edge: edges)
+				H.edges.add(new int[] {edge[0],edge[1]});
+			H.edgeSet = null;
+		}
+		H.directed = directed;
+		System.arraycopy(x, 0, H.x, 0, n);
+		System.arraycopy(y, 0, H.y, 0, n);
+		System.arraycopy(colors, 0, H.colors, 0, n);
+		if(coordinates3D != null) {
+			H.coordinates3D();
+			for(int k = 0; k < 3; k++)
+				System.arraycopy(coordinates3D[k], 0, H.coordinates3D[k], 0, n);
+			System.arraycopy(distances, 0, H.distances, 0, n);
+		}
+		return H;
 	}
 //=======================================================================
 // Getter for the fields
@@ -84,14 +333,131 @@ public class Graph {
 	}
 	
 	/**
-	 * Getter for the list of edges.
+	 * Getter for the list of edges. If the edges were loaded in bulk 
+	 * (e.g. from a {@link BinaryGraphFile BinaryGraphFile}), the list is 
+	 * created by the first call of this method, which takes time and 
+	 * memory proportional to the number of edges. Code which only reads
+	 * the edges should prefer {@link #outOffsets() outOffsets()} and
+	 * {@link #outTargets() outTargets()}.
 	 * 
 	 * @return The list of edges of the graph.
 	 */
 	public ArrayList<int[]> edges(){
+		if(edges == null) {
+			int n = nodes.size();
+			ArrayList<int[]> list = new ArrayList<int[]>(outTargets.length);
+			for(int i = 0; i < n; i++)
+				for(int k = outOffsets[i]; k < outOffsets[i+1]; k++)
+					list.add(new int[] {i,outTargets[k]});
+			edges = list;
+		}
 		return edges;
 	}
 	
+	/**
+	 * Returns whether the list of edges exists, i.e. whether calling
+	 * {@link #edges() edges()} does not have to create it from the 
+	 * index of the outgoing edges.
+	 * 
+	 * @return True if and only if the list of edges is stored.
+	 */
+	public boolean hasEdgeList() {
+		return edges != null;
+	}
+	
+	/**
+	 * Returns the number of edges without creating the list of edges.
+	 * 
+	 * @return The number of edges of the graph.
+	 */
+	public int edgeCount() {
+		return edges == null ? outTargets.length : edges.size();
+	}
+	
+	/**
+	 * Getter for the x-coordinates of the nodes. The entry at index i
+	 * is the x-coordinate of the i-th node. Only the first nodes().size()
+	 * entries are meaningful.
+	 * 
+	 * @return The array of x-coordinates.
+	 */
+	public double[] xCoordinates() {
+		return x;
+	}
+	
+	/**
+	 * Getter for the y-coordinates of the nodes. The entry at index i
+	 * is the y-coordinate of the i-th node. Only the first nodes().size()
+	 * entries are meaningful.
+	 * 
+	 * @return The array of y-coordinates.
+	 */
+	public double[] yCoordinates() {
+		return y;
+	}
+	
+	/**
+	 * Getter for the colors of the nodes. The entry at index i is the
+	 * sRGB value (see {@link java.awt.Color#getRGB() Color.getRGB()}) of 
+	 * the color of the i-th node. Only the first nodes().size() entries 
+	 * are meaningful.
+	 * 
+	 * @return The array of colors.
+	 */
+	public int[] colors() {
+		return colors;
+	}
+	
+	/**
+	 * Getter for the positions of the nodes in 3 dimensional space. The
+	 * result consists of three arrays holding the x-, y- and z-coordinates,
+	 * where the entry at index i belongs to the i-th node. The arrays are
+	 * allocated by the first call of this method.
+	 * 
+	 * @return The arrays of 3 dimensional coordinates.
+	 */
+	public double[][] coordinates3D() {
+		if(coordinates3D == null) {
+			coordinates3D = new double[3][x.length];
+			distances = new double[x.length];
+		}
+		return new double[][] {coordinates3D[0], coordinates3D[1], coordinates3D[2]};
+	}
+	
+	/**
+	 * Returns whether the nodes of the graph have positions in 3 dimensional
+	 * space, i.e. whether the arrays of 3 dimensional coordinates have been
+	 * allocated.
+	 * 
+	 * @return True if and only if 3 dimensional coordinates are available.
+	 */
+	public boolean hasCoordinates3D() {
+		return coordinates3D != null;
+	}
+	
+	/**
+	 * Getter for the distances of the nodes to the plane onto which their 
+	 * 3 dimensional positions are projected (see {@link Node3D Node3D}).
+	 * The array is allocated together with the 3 dimensional coordinates.
+	 * 
+	 * @return The array of distances.
+	 */
+	public double[] distances() {
+		coordinates3D();
+		return distances;
+	}
+	
+	/**
+	 * Getter for the camera of the graph, which determines the plane
+	 * onto which the 3 dimensional positions are projected (see
+	 * {@link Node3D Node3D}). Each graph has its own camera.
+	 * 
+	 * @return The camera of the graph.
+	 */
+	public Camera camera() {
+		return camera;
+	}
+	
 	/**
 	 * Getter for the field directed
 	 * 
@@ -127,17 +493,31 @@ public class Graph {
 		if(nodes.size() == 0)
 			return null;
 			
-		Node n = nodes.get(0);
-		double minDistance = Math.sqrt(Math.pow(x-n.x(), 2)+Math.pow(y-n.y(), 2));
+		int nearest = 0;
+		double minDistance = Math.sqrt(Math.pow(x-this.x[0], 2)+Math.pow(y-this.y[0], 2));
 		double testDistance;
-		for(Node node: nodes) {
-			testDistance = Math.sqrt(Math.pow(x-node.x(), 2)+Math.pow(y-node.y(), 2));
+		for(int i = 1; i < nodes.size(); i++) {
+			testDistance = Math.sqrt(Math.pow(x-this.x[i], 2)+Math.pow(y-this.y[i], 2));
 			if(testDistance < minDistance) {
 				minDistance = testDistance;
-				n = node;
+				nearest = i;
 			}
 		}
-		return n;
+		return nodes.get(nearest);
+	}
+	
+	/**
+	 * Returns the index of a node in the list of nodes. The nodes are compared
+	 * via their names.
+	 * 
+	 * @param n A node.
+	 * @return The index of n or -1 if n is not contained in the graph.
+	 */
+	public int indexOf(Node n) {
+		if(n == null)
+			return -1;
+		Integer index = nodeIndex.get(n.name());
+		return index == null ? -1 : index;
 	}
 	
 	/**
@@ -150,11 +530,12 @@ public class Graph {
 	 */
 	public ArrayList<Integer> outEdges(Node n) {
 		ArrayList<Integer> out = new ArrayList<Integer>();
-		int index = nodes.indexOf(n);
-		for(int[] edge: edges) 
-			if(edge[0] == index) {
-				out.add(edge[1]);
-			}
+		int index = indexOf(n);
+		if(index == -1)
+			return out;
+		buildIndex();
+		for(int k = outOffsets[index]; k < outOffsets[index+1]; k++)
+			out.add(outTargets[k]);
 		return(out);
 	}
 	
@@ -168,11 +549,201 @@ public class Graph {
 	 */
 	public ArrayList<Integer> inEdges(Node n) {
 		ArrayList<Integer> in = new ArrayList<Integer>();
-		int index = nodes.indexOf(n);
-		for(int[] edge: edges) 
-			if(edge[1] == index) {
-				in.add(edge[0]);
-			}
+		int index = indexOf(n);
+		if(index == -1)
+			return in;
+		buildInIndex();
+		for(int k = inOffsets[index]; k < inOffsets[index+1]; k++)
+			in.add(inSources[k]);
 		return(in);
 	}
+//=======================================================================
+// Adjacency index
+//=======================================================================
+	/**
+	 * Returns the offsets of the compressed sparse row index of the outgoing
+	 * edges. The targets of the edges going out from node i can be found in
+	 * {@link #outTargets() outTargets()} at the positions outOffsets()[i], ..., 
+	 * outOffsets()[i+1]-1. The returned array must not be modified.
+	 * 
+	 * @return An array of length nodes().size()+1.
+	 */
+	public int[] outOffsets() {
+		buildIndex();
+		return outOffsets;
+	}
+	
+	/**
+	 * Returns the targets of all edges grouped by their starting node.
+	 * See {@link #outOffsets() outOffsets()}. The returned array must not 
+	 * be modified.
+	 * 
+	 * @return An array of length edgeCount().
+	 */
+	public int[] outTargets() {
+		buildIndex();
+		return outTargets;
+	}
+	
+	/**
+	 * Returns the offsets of the compressed sparse row index of the incoming
+	 * edges. The sources of the edges going in to node i can be found in
+	 * {@link #inSources() inSources()} at the positions inOffsets()[i], ..., 
+	 * inOffsets()[i+1]-1. The returned array must not be modified.
+	 * 
+	 * @return An array of length nodes().size()+1.
+	 */
+	public int[] inOffsets() {
+		buildInIndex();
+		return inOffsets;
+	}
+	
+	/**
+	 * Returns the sources of all edges grouped by their ending node.
+	 * See {@link #inOffsets() inOffsets()}. The returned array must not 
+	 * be modified.
+	 * 
+	 * @return An array of length edgeCount().
+	 */
+	public int[] inSources() {
+		buildInIndex();
+		return inSources;
+	}
+	
+	/**
+	 * Returns the number of edges going out from the node with index i.
+	 * 
+	 * @param i The index of a node.
+	 * @return The out degree of the node.
+	 */
+	public int outDegree(int i) {
+		buildIndex();
+		return outOffsets[i+1] - outOffsets[i];
+	}
+	
+	/**
+	 * Returns the number of edges going in to the node with index i.
+	 * 
+	 * @param i The index of a node.
+	 * @return The in degree of the node.
+	 */
+	public int inDegree(int i) {
+		buildInIndex();
+		return inOffsets[i+1] - inOffsets[i];
+	}
+	
+	/**
+	 * Makes sure that the coordinate and color arrays can hold
+	 * at least n entries.
+	 * 
+	 * @param n The number of entries needed.
+	 */
+	private void ensureCapacity(int n) {
+		if(n <= x.length)
+			return;
+		int capacity = Math.max(n, 2*x.length);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		if(coordinates3D != null) {
+			for(int k = 0; k < 3; k++)
+				coordinates3D[k] = Arrays.copyOf(coordinates3D[k], capacity);
+			distances = Arrays.copyOf(distances, capacity);
+		}
+	}
+	
+	/**
+	 * Returns the set of all edges, which is rebuilt if edges 
+	 * were added in bulk before.
+	 * 
+	 * @return The set of packed edges.
+	 */
+	private LongHashSet edgeSet() {
+		if(edgeSet == null) {
+			edgeSet = new LongHashSet(edgeCount());
+			for(int[] edge: edges())
+				edgeSet.add(((long) edge[0] << 32) | edge[1]);
+		}
+		return edgeSet;
+	}
+	
+	/**
+	 * Marks the adjacency index as outdated. It will be rebuilt 
+	 * the next time it is needed.
+	 */
+	private void invalidateIndex() {
+		//the index may be the only storage of the edges
+		edges();
+		outOffsets = null;
+		outTargets = null;
+		inOffsets = null;
+		inSources = null;
+	}
+	
+	/**
+	 * Builds the compressed sparse row index of the outgoing and 
+	 * incoming edges if it is outdated. This is done by a counting 
+	 * sort over the list of edges, hence the neighbors of each node 
+	 * appear in the same order as in the list of edges.
+	 */
+	private void buildIndex() {
+		if(outOffsets != null)
+			return;
+		ArrayList<int[]> edges = edges();
+		
+		int n = nodes.size();
+		int m = edges.size();
+		int[] outOff = new int[n+1];
+		int[] inOff = new int[n+1];
+		for(int[] edge: edges) {
+			outOff[edge[0]+1]++;
+			inOff[edge[1]+1]++;
+		}
+		for(int i = 0; i < n; i++) {
+			outOff[i+1] += outOff[i];
+			inOff[i+1] += inOff[i];
+		}
+		
+		int[] outFill = new int[n];
+		int[] inFill = new int[n];
+		System.arraycopy(outOff, 0, outFill, 0, n);
+		System.arraycopy(inOff, 0, inFill, 0, n);
+		int[] targets = new int[m];
+		int[] sources = new int[m];
+		for(int[] edge: edges) {
+			targets[outFill[edge[0]]++] = edge[1];
+			sources[inFill[edge[1]]++] = edge[0];
+		}
+		
+		outTargets = targets;
+		inSources = sources;
+		inOffsets = inOff;
+		outOffsets = outOff;
+	}
+	
+	/**
+	 * Builds the compressed sparse row index of the incoming edges if
+	 * it is outdated. If the edges are only stored in the index of the
+	 * outgoing edges, it is built by a counting sort over this index,
+	 * which lists the edges in the same order as 'edges()' would.
+	 */
+	private void buildInIndex() {
+		buildIndex();
+		if(inOffsets != null)
+			return;
+		
+		int n = nodes.size();
+		int[] inOff = new int[n+1];
+		for(int k = 0; k < outTargets.length; k++)
+			inOff[outTargets[k]+1]++;
+		for(int i = 0; i < n; i++)
+			inOff[i+1] += inOff[i];
+		int[] inFill = Arrays.copyOf(inOff, n);
+		int[] sources = new int[outTargets.length];
+		for(int i = 0; i < n; i++)
+			for(int k = outOffsets[i]; k < outOffsets[i+1]; k++)
+				sources[inFill[outTargets[k]]++] = i;
+		inSources = sources;
+		inOffsets = inOff;
+	}
 }
@@ -0,0 +1,144 @@
+package Graph;
+
+/**
+ * A hash set of primitive long values. The set uses open addressing with
+ * linear probing, so adding or looking up a value does not allocate any
+ * objects. It is used by the class {@link Graph Graph} to store the edges
+ * of a graph packed into single long values.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+class LongHashSet {
+	/**
+	 * Marks an unused slot of the table. The value itself can still be
+	 * contained in the set, this is recorded in the field containsEmpty.
+	 */
+	private static final long EMPTY = 0L;
+	/**
+	 * The hash table. Its length is always a power of two.
+	 */
+	private long[] table;
+	/**
+	 * Determines whether the value EMPTY is contained in the set.
+	 */
+	private boolean containsEmpty;
+	/**
+	 * The number of values in the set.
+	 */
+	private int size;
+//=======================================================================
+// Constructors
+//=======================================================================
+	/**
+	 * Default constructor for an empty set.
+	 */
+	LongHashSet() {
+		this(16);
+	}
+
+	/**
+	 * Constructor for an empty set that can hold the given number
+	 * of values without growing its table.
+	 *
+	 * @param expectedSize Number of values expected to be added.
+	 */
+	LongHashSet(int expectedSize) {
+		int capacity = 16;
+		while(capacity < 2L*expectedSize)
+			capacity <<= 1;
+		table = new long[capacity];
+	}
+//=======================================================================
+// Set operations
+//=======================================================================
+	/**
+	 * Adds a value to the set if it is not already contained.
+	 *
+	 * @param v A value.
+	 * @return True if v was added; false if it was already contained.
+	 */
+	boolean add(long v) {
+		if(v == EMPTY) {
+			if(containsEmpty)
+				return false;
+			containsEmpty = true;
+			size++;
+			return true;
+		}
+		int mask = table.length - 1;
+		int i = hash(v) & mask;
+		while(table[i] != EMPTY) {
+			if(table[i] == v)
+				return false;
+			i = (i+1) & mask;
+		}
+		table[i] = v;
+		size++;
+		if(2*size > table.length)
+			grow();
+		return true;
+	}
+
+	/**
+	 * Tests whether a value is contained in the set.
+	 *
+	 * @param v A value.
+	 * @return True if and only if v is contained in the set.
+	 */
+	boolean contains(long v) {
+		if(v == EMPTY)
+			return containsEmpty;
+		int mask = table.length - 1;
+		int i = hash(v) & mask;
+		while(table[i] != EMPTY) {
+			if(table[i] == v)
+				return true;
+			i = (i+1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of values in the set.
+	 *
+	 * @return The size of the set.
+	 */
+	int size() {
+		return size;
+	}
+//=======================================================================
+// Auxiliary functions
+//=======================================================================
+	/**
+	 * Doubles the size of the table and reinserts all values.
+	 */
+	private void grow() {
+		long[] old = table;
+		table = new long[2*old.length];
+		int mask = table.length - 1;
+		for(long v: old) {
+			if(v == EMPTY)
+				continue;
+			int i = hash(v) & mask;
+			while(table[i] != EMPTY)
+				i = (i+1) & mask;
+			table[i] = v;
+		}
+	}
+
+	/**
+	 * Spreads the bits of a value such that packed pairs of small
+	 * integers are distributed evenly over the table.
+	 *
+	 * @param v A value.
+	 * @return A hash code of v.
+	 */
+	private static int hash(long v) {
+		v ^= v >>> 33;
+		v *= 0xff51afd7ed558ccdL;
+		v ^= v >>> 33;
+		return (int) v;
+	}
+}
@@ -2,7 +2,10 @@ package Graph;
 import java.awt.Color;
 /**
  * Class to represent the nodes of a graph. Each node has a name (given
- * as a string), a position within the unit square and a color.
+ * as a string), a position within the unit square and a color. As soon as
+ * a node is added to a graph, its position and color are stored in the
+ * coordinate and color arrays of the graph and the node only provides
+ * a view onto them.
  * 
  * @author Clemens Hofstadler
  * @version 1.0.0, 1st June 2019
@@ -14,11 +17,23 @@ public class Node {
 	 */
 	private String name;
 	/**
-	 * The position of the node within the unit square.
+	 * The graph containing this node or null if the node has not
+	 * been added to a graph yet.
+	 */
+	private Graph graph;
+	/**
+	 * The index of the node in the list of nodes of the graph
+	 * containing it.
+	 */
+	private int index;
+	/**
+	 * The position of the node within the unit square as long as the
+	 * node is not contained in a graph; null afterwards.
 	 */
 	private double[] position;
 	/**
-	 * The color of the node.
+	 * The color of the node as long as the node is not contained in
+	 * a graph; null afterwards.
 	 */
 	private Color c;
 //=======================================================================
@@ -60,11 +75,14 @@ public class Node {
 	}
 	
 	/**
-	 * Getter for the position of the node. 
+	 * Getter for the position of the node. If the node is contained
+	 * in a graph, a copy of the position stored by the graph is returned.
 	 * @return The position of the node. 
 	 */
 	public double[] position() {
-		return position;
+		if(graph == null)
+			return position;
+		return new double[] {x(), y()};
 	}
 	
 	/**
@@ -72,7 +90,9 @@ public class Node {
 	 * @return The x-coordinate of the node.
 	 */
 	public double x() {
-		return position[0];
+		if(graph == null)
+			return position[0];
+		return graph.xCoordinates()[index];
 	}
 
 	/**
@@ -80,7 +100,9 @@ public class Node {
 	 * @return The y-coordinate of the node.
 	 */
 	public double y() {
-		return position[1];
+		if(graph == null)
+			return position[1];
+		return graph.yCoordinates()[index];
 	}
 	
 	/**
@@ -88,7 +110,27 @@ public class Node {
 	 * @return The color of the node. 
 	 */
 	public Color color() {
-		return c;
+		if(graph == null)
+			return c;
+		return new Color(graph.colors()[index], true);
+	}
+	
+	/**
+	 * Getter for the graph containing the node.
+	 * @return The graph containing the node or null if
+	 * the node has not been added to a graph.
+	 */
+	public Graph graph() {
+		return graph;
+	}
+	
+	/**
+	 * Getter for the index of the node in the graph containing it.
+	 * @return The index of the node in the list of nodes of its graph.
+	 * Meaningless if the node is not contained in a graph.
+	 */
+	public int index() {
+		return index;
 	}
 //=======================================================================
 // Setter for some fields
@@ -98,7 +140,10 @@ public class Node {
 	 * @param c The new color of the node.
 	 */
 	public void setColor(Color c) {
-		this.c = c;
+		if(graph == null)
+			this.c = c;
+		else
+			graph.colors()[index] = c.getRGB();
 	}
 	/**
 	 * Setter for the position of the node within the unit square.
@@ -106,8 +151,46 @@ public class Node {
 	 * @param y New y-coordinate of the node.
 	 */
 	public void setPosition(double x, double y) {
-		position[0] = x;
-		position[1] = y;
+		if(graph == null) {
+			position[0] = x;
+			position[1] = y;
+		}
+		else {
+			graph.xCoordinates()[index] = x;
+			graph.yCoordinates()[index] = y;
+		}
+	}
+//=======================================================================
+// Storage of position and color
+//=======================================================================
+	/**
+	 * Moves the position and the color of the node into the arrays
+	 * of the graph G, where the node has the given index. Called by
+	 * the graph when the node is added to it.
+	 * 
+	 * @param G The graph the node is added to.
+	 * @param index The index of the node in G.
+	 */
+	void attach(Graph G, int index) {
+		G.xCoordinates()[index] = position[0];
+		G.yCoordinates()[index] = position[1];
+		G.colors()[index] = c.getRGB();
+		graph = G;
+		this.index = index;
+		position = null;
+		c = null;
+	}
+	
+	/**
+	 * Returns a new node with the same name, position and color
+	 * which is not contained in any graph.
+	 * 
+	 * @return A copy of the node.
+	 */
+	Node copy() {
+		Node n = new Node(name, new double[] {x(), y()});
+		n.setColor(color());
+		return n;
 	}
 //=======================================================================
 // Equality of nodes
@@ -1,13 +1,13 @@
 package Graph;
 
-import java.util.ArrayList;
-
 /**
  * Extends the class Node in a way that Nodes can be positioned in 3 dimensional
- * space. It provides functions for projecting those 3 dimensional coordinates
- * onto a 2D plane. This plane is determined by the two vectors X and Y (which
- * are always normal to each other) and the origin of the coordinate system.
- * This plane can also be rotated in different directions. When such a
+ * space. Since the 3 dimensional positions of all nodes of a graph are stored
+ * by the graph (see {@link Graph#coordinates3D() Graph.coordinates3D()}), any
+ * node can be positioned in space; this class only adds accessors for a
+ * single node. It provides functions for projecting those 3 dimensional coordinates
+ * onto a 2D plane. This plane is determined by the {@link Camera Camera} of the
+ * graph and can also be rotated in different directions. When such a
  * projection is done, also the distance of the point two the specified 2D plane
  * is stored.
  * 
@@ -17,29 +17,17 @@ import java.util.ArrayList;
 public class Node3D extends Node {
 
 	/**
-	 * Positions of node in three dimensions.
+	 * Positions of node in three dimensions as long as the node is not
+	 * contained in a graph; null afterwards.
 	 */
 	private double[] position3D;
 	/**
-	 * A number that corresponds to the distance of this node to a plane determined
-	 * by the two vectors X and Y (which are always normal to each other) and the
-	 * origin of the coordinate system.
+	 * A number that corresponds to the distance of this node to the plane
+	 * determined by the camera of the graph. Only used as long as the node is not 
+	 * contained in a graph.
 	 */
 	private double distance;
 
-	/**
-	 * The two vectors X and Y (which are always normal to each other) and the
-	 * origin of the coordinate system determine a plane lying in three dimensional
-	 * space.
-	 */
-	private static Vector X = new Vector(3, new double[] { 0, 1, 0 });
-	/**
-	 * The two vectors X and Y (which are always normal to each other) and the
-	 * origin of the coordinate system determine a plane lying in three dimensional
-	 * space.
-	 */
-	private static Vector Y = new Vector(3, new double[] { 0, 0, 1 });
-
 	/**
 	 * See constructor Node(String name).
 	 * 
@@ -68,26 +56,74 @@ public class Node3D extends Node {
 	 * @param pos3d The new position of this node.
 	 */
 	public void setPosition3D(double[] pos3d) {
-		position3D = pos3d;
+		if (graph() == null) {
+			position3D = pos3d;
+			return;
+		}
+		double[][] p = graph().coordinates3D();
+		for (int k = 0; k < 3; k++)
+			p[k][index()] = pos3d[k];
 	}
 
 	/**
-	 * Getter for 3 dimensional position of this node.
+	 * Getter for 3 dimensional position of this node. If the node is contained in
+	 * a graph, a copy of the position stored by the graph is returned.
 	 * 
 	 * @return double[] The three dimensional position of this node.
 	 */
 	public double[] getposition3D() {
-		return position3D;
+		if (graph() == null)
+			return position3D;
+		double[][] p = graph().coordinates3D();
+		return new double[] { p[0][index()], p[1][index()], p[2][index()] };
 	}
 
+	/**
+	 * Getter for the distance of this node to the plane onto which it is projected.
+	 * 
+	 * @return double The distance computed by the last projection.
+	 */
 	public double getDistance() {
-		return distance;
+		if (graph() == null)
+			return distance;
+		return graph().distances()[index()];
 	}
 
 	/**
-	 * Projects the 3D point onto a 2D plane determined by the two vectors X and Y
-	 * (which are always normal to each other) and the origin of the coordinate
-	 * system. This projection will be stored inside the 2D positions of the nodes.
+	 * Additionally moves the 3 dimensional position and the distance of the node
+	 * into the arrays of the graph G.
+	 * 
+	 * @param G     The graph the node is added to.
+	 * @param index The index of the node in G.
+	 */
+	@Override
+	void attach(Graph G, int index) {
+		super.attach(G, index);
+		if (position3D != null) {
+			setPosition3D(position3D);
+			G.distances()[index] = distance;
+		}
+		position3D = null;
+	}
+
+	/**
+	 * Returns a new 3D node with the same name, positions, distance and color
+	 * which is not contained in any graph.
+	 * 
+	 * @return A copy of the node.
+	 */
+	@Override
+	Node copy() {
+		double[] pos3d = getposition3D();
+		Node3D n = new Node3D(name(), new double[] { x(), y() }, pos3d == null ? null : pos3d.clone());
+		n.distance = getDistance();
+		n.setColor(color());
+		return n;
+	}
+
+	/**
+	 * Projects the 3D point onto the 2D plane determined by the camera of the
+	 * graph G (see {@link Graph#camera() Graph.camera()}). This projection will be stored inside the 2D positions of the nodes.
 	 * It also calculates for each node the distance to the specified 2D plane.
 	 * Positions on the 2D plane are scaled such that all 2D coordinates of the
 	 * nodes lie within the unit square.
@@ -95,98 +131,70 @@ public class Node3D extends Node {
 	 * @param G A Graph
 	 */
 	public static void project3DPoints(Graph G) {
-		Vector normalVector = Vector.crossProduct(X, Y);
-		for (int i = 0; i < G.nodes().size(); i++) {
-			Vector pos = new Vector(3, ((Node3D) G.nodes().get(i)).getposition3D());
-			double newX = Vector.dotProduct(X, pos);
-			double newY = Vector.dotProduct(Y, pos);
-			G.nodes().get(i).setPosition(newX, newY);
-
-			((Node3D) G.nodes().get(i)).distance = -Vector.dotProduct(normalVector, pos);
+		int n = G.nodes().size();
+		if (n == 0)
+			return;
+		double[][] p = G.coordinates3D();
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		double[] distances = G.distances();
+
+		double[][] axes = G.camera().axes();
+		double[] a = axes[0];
+		double[] b = axes[1];
+		double[] c = axes[2];
+		for (int i = 0; i < n; i++) {
+			x[i] = a[0] * p[0][i] + a[1] * p[1][i] + a[2] * p[2][i];
+			y[i] = b[0] * p[0][i] + b[1] * p[1][i] + b[2] * p[2][i];
+			distances[i] = -(c[0] * p[0][i] + c[1] * p[1][i] + c[2] * p[2][i]);
 		}
 
-		double[] pos = ((Node3D) G.nodes().get(0)).position3D;
-		double xMin = pos[0];
-		double xMax = pos[0];
-		double yMin = pos[1];
-		double yMax = pos[1];
-		double zMin = pos[2];
-		double zMax = pos[2];
-		double maxDist = ((Node3D) G.nodes().get(0)).distance;
-
-		for (int i = 1; i < G.nodes().size(); i++) {
-			pos = ((Node3D) G.nodes().get(i)).position3D;
-			if (pos[0] < xMin)
-				xMin = pos[0];
-			if (pos[0] > xMax)
-				xMax = pos[0];
-			if (pos[1] < yMin)
-				yMin = pos[1];
-			if (pos[1] > yMax)
-				yMax = pos[1];
-			if (pos[2] < zMin)
-				zMin = pos[2];
-			if (pos[2] > zMax)
-				zMax = pos[2];
-			if (((Node3D) G.nodes().get(i)).distance > maxDist)
-				maxDist = ((Node3D) G.nodes().get(i)).distance;
+		double xMin = p[0][0];
+		double xMax = p[0][0];
+		double yMin = p[1][0];
+		double yMax = p[1][0];
+		double zMin = p[2][0];
+		double zMax = p[2][0];
+		double maxDist = distances[0];
+
+		for (int i = 1; i < n; i++) {
+			if (p[0][i] < xMin)
+				xMin = p[0][i];
+			if (p[0][i] > xMax)
+				xMax = p[0][i];
+			if (p[1][i] < yMin)
+				yMin = p[1][i];
+			if (p[1][i] > yMax)
+				yMax = p[1][i];
+			if (p[2][i] < zMin)
+				zMin = p[2][i];
+			if (p[2][i] > zMax)
+				zMax = p[2][i];
+			if (distances[i] > maxDist)
+				maxDist = distances[i];
 		}
 
 		double reference = Math.sqrt(Math.pow(xMax - xMin, 2) + Math.pow(yMax - yMin, 2) + Math.pow(zMax - zMin, 2));
-		for (int i = 0; i < G.nodes().size(); i++) {
-			double dist = ((Node3D) G.nodes().get(i)).distance;
+		for (int i = 0; i < n; i++) {
 			double newDist = 0;
 			if(reference!=0)
-				newDist = 1 - (maxDist - dist) / reference;
-			((Node3D) G.nodes().get(i)).distance = newDist;
+				newDist = 1 - (maxDist - distances[i]) / reference;
+			distances[i] = newDist;
 		}
 
 		scale(G);
 	}
 
 	/**
-	 * Rotates the 2D plane specified by the two vectors X and Y (which are always
-	 * normal to each other) and the origin of the coordinate system. It also
+	 * Rotates the 2D plane specified by the camera of the graph G (see
+	 * {@link Camera#rotate(String) Camera.rotate(String)}). It also
 	 * recalculates all positions of all nodes relative to the new 2D plane.
 	 * 
 	 * @param c Keyboard symbol that got hit
 	 * @param G A Graph
 	 */
 	public static void rotate(String c, Graph G) {
-		if (c.equals("d") || c.equals("D") || c.equals("a") || c.equals("A")) {
-			double alpha = 0.05;
-			if (c.equals("a") || c.equals("A"))
-				alpha = -0.05;
-
-			Vector xRot = new Vector(3, X.coordinates());
-			xRot.multiply(Math.cos(alpha));
-			Vector dummy = Vector.crossProduct(Y, X);
-			dummy.multiply(Math.sin(alpha));
-			xRot.add(dummy);
-			dummy.setCoordinates(Y.coordinates());
-			dummy.multiply(Vector.dotProduct(Y, X) * (1 - Math.cos(alpha)));
-			xRot.add(dummy);
-
-			X.setCoordinates(xRot.coordinates());
-		}
-
-		if (c.equals("w") || c.equals("W") || c.equals("s") || c.equals("S")) {
-			double alpha = 0.05;
-			if (c.equals("s") || c.equals("S"))
-				alpha = -0.05;
-
-			Vector yRot = new Vector(3, Y.coordinates());
-			yRot.multiply(Math.cos(alpha));
-			Vector dummy = Vector.crossProduct(X, Y);
-			dummy.multiply(Math.sin(alpha));
-			yRot.add(dummy);
-			dummy.setCoordinates(X.coordinates());
-			dummy.multiply(Vector.dotProduct(X, Y) * (1 - Math.cos(alpha)));
-			yRot.add(dummy);
-
-			Y.setCoordinates(yRot.coordinates());
-		}
-
+		G.camera().rotate(c);
 		project3DPoints(G);
 	}
 
@@ -197,34 +205,35 @@ public class Node3D extends Node {
 	 * @param G A Graph
 	 */
 	public static void scale(Graph G) {
-		ArrayList<Node> nodes = G.nodes();
-
-		double minX = nodes.get(0).x();
-		for (Node node : nodes)
-			if (node.x() < minX)
-				minX = node.x();
-		double maxX = nodes.get(0).x();
-		for (Node node : nodes)
-			if (node.x() > maxX)
-				maxX = node.x();
-		double minY = nodes.get(0).y();
-		for (Node node : nodes)
-			if (node.y() < minY)
-				minY = node.y();
-		double maxY = nodes.get(0).y();
-		for (Node node : nodes)
-			if (node.y() > maxY)
-				maxY = node.y();
+		int n = G.nodes().size();
+		if (n == 0)
+			return;
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+
+		double minX = x[0];
+		double maxX = x[0];
+		double minY = y[0];
+		double maxY = y[0];
+		for (int i = 1; i < n; i++) {
+			if (x[i] < minX)
+				minX = x[i];
+			if (x[i] > maxX)
+				maxX = x[i];
+			if (y[i] < minY)
+				minY = y[i];
+			if (y[i] > maxY)
+				maxY = y[i];
+		}
 
 		double dx = maxX - minX;
 		double dy = maxY - minY;
 		if (dx < dy)
 			dx = dy;
 
-		for (Node node : nodes) {
-			double newX = ((node.x() - minX) / dx);
-			double newY = ((node.y() - minY) / dx);
-			node.setPosition(newX, newY);
+		for (int i = 0; i < n; i++) {
+			x[i] = (x[i] - minX) / dx;
+			y[i] = (y[i] - minY) / dx;
 		}
 	}
 
@@ -0,0 +1,285 @@
+package Graph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads graphs from edge list files (see {@link EdgeListLoader EdgeListLoader})
+ * using several threads. The memory mapped file is split at line breaks into
+ * chunks, which are parsed concurrently, each one with its own dictionary of
+ * names. Then the dictionaries are merged, where the names are divided into
+ * shards according to their hash codes and each shard is merged by its own
+ * task. Finally the nodes are numbered in the order of their first occurrence
+ * in the file, exactly as by EdgeListLoader. The edges are packed into long values
+ * (i << 32) | j, sorted with Arrays.parallelSort and deduplicated in one pass,
+ * so the graph gets its edges sorted by their starting and ending nodes and
+ * its adjacency index is built directly from them.
+ * <p>
+ * Usage: java Graph.ParallelEdgeListLoader [file] prints the size of the
+ * graph and the throughput of the loader in edges per second.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class ParallelEdgeListLoader {
+	/**
+	 * Default size of the chunks of the file which are parsed by one
+	 * thread.
+	 */
+	public static final int CHUNK_SIZE = 1 << 24;
+	/**
+	 * The names are divided into 2^SHARD_BITS shards according to their
+	 * hash codes, which are merged independently.
+	 */
+	private static final int SHARD_BITS = 6;
+	private static final int SHARDS = 1 << SHARD_BITS;
+
+	public static void main(String[] args) throws IOException {
+		File file = new File(args.length > 0 ? args[0] : "TestGraphs/Regular_Grid_16x16.txt");
+		long time = System.nanoTime();
+		Graph G = load(file);
+		double seconds = (System.nanoTime() - time) / 1e9;
+		System.out.printf("%s: %d nodes, %d edges in %.3f s, %.0f edges/s%n", file.getName(),
+				G.nodes().size(), G.edgeCount(), seconds, G.edgeCount() / seconds);
+	}
+//=======================================================================
+// Reading graphs
+//=======================================================================
+	/**
+	 * Reads a graph from an edge list file using the common ForkJoinPool.
+	 *
+	 * @param file An edge list file.
+	 * @return The graph described by the file.
+	 * @throws IOException If the file cannot be read or contains a line
+	 * which is longer than the size of a memory mapped window.
+	 */
+	public static Graph load(File file) throws IOException {
+		return load(file, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads a graph from an edge list file using the threads of a pool.
+	 *
+	 * @param file An edge list file.
+	 * @param pool The pool on which the chunks are parsed.
+	 * @return The graph described by the file.
+	 * @throws IOException If the file cannot be read or contains a line
+	 * which is longer than the size of a memory mapped window.
+	 */
+	public static Graph load(File file, ForkJoinPool pool) throws IOException {
+		return load(file, pool, CHUNK_SIZE);
+	}
+
+	/**
+	 * Reads a graph from an edge list file using the threads of a pool,
+	 * where the file is split into chunks of approximately the given size.
+	 *
+	 * @param file An edge list file.
+	 * @param pool The pool on which the chunks are parsed.
+	 * @param chunkSize Approximate number of bytes per chunk.
+	 * @return The graph described by the file.
+	 * @throws IOException If the file cannot be read or contains a line
+	 * which is longer than the size of a memory mapped window.
+	 */
+	public static Graph load(File file, ForkJoinPool pool, int chunkSize) throws IOException {
+		//split the file into chunks
+		ArrayList<Callable<Chunk>> tasks = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			while(position < size) {
+				int length = (int) Math.min(EdgeListLoader.WINDOW_SIZE, size - position);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				boolean last = position + length == size;
+				int end = last ? length : lineEnd(buffer, length);
+				if(end == 0)
+					throw new IOException("Line longer than " + EdgeListLoader.WINDOW_SIZE + " bytes in " + file);
+				int from = 0;
+				while(from < end) {
+					int to = from + chunkSize >= end ? end : nextLineEnd(buffer, from + chunkSize, end);
+					int chunkFrom = from;
+					int chunkTo = to;
+					boolean chunkLast = last && to == end;
+					tasks.add(() -> new Chunk(buffer, chunkFrom, chunkTo, chunkLast));
+					from = to;
+				}
+				position += end;
+			}
+		}
+		//parse the chunks
+		Chunk[] chunks = invokeAll(pool, tasks).toArray(new Chunk[0]);
+
+		//merge the dictionaries of the chunks, where each shard of names is
+		//interned by its own task into a small dictionary
+		ArrayList<Callable<Integer>> shards = new ArrayList<>();
+		for(int s = 0; s < SHARDS; s++) {
+			int shard = s;
+			shards.add(() -> {
+				EdgeListLoader names = new EdgeListLoader();
+				for(Chunk chunk: chunks)
+					for(int j = chunk.shardOffsets[shard]; j < chunk.shardOffsets[shard+1]; j++) {
+						int i = chunk.byShard[j];
+						int count = names.names();
+						chunk.local[i] = names.intern(chunk.loader, i);
+						chunk.first[i] = names.names() > count;
+					}
+				return names.names();
+			});
+		}
+		ArrayList<Integer> sizes = invokeAll(pool, shards);
+
+		//number the nodes in the order of their first occurrences
+		int[][] global = new int[SHARDS][];
+		for(int s = 0; s < SHARDS; s++)
+			global[s] = new int[sizes.get(s)];
+		ArrayList<String> names = new ArrayList<>();
+		for(Chunk chunk: chunks)
+			for(int i = 0; i < chunk.loader.names(); i++)
+				if(chunk.first[i]) {
+					global[chunk.shard[i]][chunk.local[i]] = names.size();
+					names.add(chunk.loader.name(i));
+				}
+		Graph G = new Graph();
+		int[] index = EdgeListLoader.addNodes(G, names.toArray(new String[0]));
+
+		//pack the edges with their global indices
+		int[] offsets = new int[chunks.length+1];
+		for(int c = 0; c < chunks.length; c++)
+			offsets[c+1] = offsets[c] + chunks[c].loader.edges();
+		long[] packed = new long[offsets[chunks.length]];
+		ArrayList<Callable<Integer>> packing = new ArrayList<>();
+		for(int c = 0; c < chunks.length; c++) {
+			Chunk chunk = chunks[c];
+			int offset = offsets[c];
+			packing.add(() -> {
+				int[] node = new int[chunk.loader.names()];
+				for(int i = 0; i < node.length; i++) {
+					node[i] = global[chunk.shard[i]][chunk.local[i]];
+					if(index != null)
+						node[i] = index[node[i]];
+				}
+				for(int k = 0; k < chunk.loader.edges(); k++)
+					packed[offset+k] = ((long) node[chunk.loader.source(k)] << 32) | node[chunk.loader.target(k)];
+				return chunk.loader.edges();
+			});
+		}
+		invokeAll(pool, packing);
+
+		//sort and remove duplicates
+		Arrays.parallelSort(packed);
+		int count = 0;
+		for(int k = 0; k < packed.length; k++)
+			if(count == 0 || packed[k] != packed[count-1])
+				packed[count++] = packed[k];
+		G.addDistinctEdges(packed, count);
+		return G;
+	}
+
+//=======================================================================
+// Auxiliary functions
+//=======================================================================
+	/**
+	 * Returns the position after the first line break at or after a
+	 * given position of a buffer, or "end" if there is none before "end".
+	 */
+	private static int nextLineEnd(MappedByteBuffer buffer, int position, int end) {
+		for(int i = position; i < end; i++)
+			if(buffer.get(i) == '\n')
+				return i + 1;
+		return end;
+	}
+
+	/**
+	 * Returns the position after the last line break before a given
+	 * position of a buffer, or 0 if there is none.
+	 */
+	private static int lineEnd(MappedByteBuffer buffer, int position) {
+		for(int i = position - 1; i >= 0; i--)
+			if(buffer.get(i) == '\n')
+				return i + 1;
+		return 0;
+	}
+
+	/**
+	 * Runs tasks on a pool and returns their results in the order of the
+	 * tasks.
+	 *
+	 * @throws IOException If a task failed or the thread was interrupted.
+	 */
+	private static <T> ArrayList<T> invokeAll(ForkJoinPool pool, ArrayList<Callable<T>> tasks) throws IOException {
+		ArrayList<T> results = new ArrayList<>();
+		try {
+			for(Future<T> future: pool.invokeAll(tasks))
+				results.add(future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Loading was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * A parsed chunk of the file together with the information needed to
+	 * merge its dictionary of names.
+	 */
+	private static class Chunk {
+		/**
+		 * The names and edges of the chunk.
+		 */
+		final EdgeListLoader loader;
+		/**
+		 * For each name of the chunk its shard.
+		 */
+		final int[] shard;
+		/**
+		 * The names of shard s are byShard[shardOffsets[s]], ...,
+		 * byShard[shardOffsets[s+1]-1].
+		 */
+		final int[] byShard;
+		final int[] shardOffsets;
+		/**
+		 * For each name its index in the dictionary of its shard.
+		 */
+		final int[] local;
+		/**
+		 * For each name whether the chunk contains its first occurrence
+		 * in the file.
+		 */
+		final boolean[] first;
+
+		/**
+		 * Parses the lines between two positions of a buffer and groups 
+		 * the names by their shards.
+		 */
+		Chunk(MappedByteBuffer buffer, int from, int to, boolean last) {
+			loader = new EdgeListLoader();
+			loader.parse(buffer, from, to, last);
+			int n = loader.names();
+			shard = new int[n];
+			shardOffsets = new int[SHARDS+1];
+			for(int i = 0; i < n; i++) {
+				shard[i] = loader.hash(i) >>> (32 - SHARD_BITS);
+				shardOffsets[shard[i]+1]++;
+			}
+			for(int s = 0; s < SHARDS; s++)
+				shardOffsets[s+1] += shardOffsets[s];
+			int[] next = Arrays.copyOf(shardOffsets, SHARDS);
+			byShard = new int[n];
+			for(int i = 0; i < n; i++)
+				byShard[next[shard[i]]++] = i;
+			local = new int[n];
+			first = new boolean[n];
+		}
+	}
+}
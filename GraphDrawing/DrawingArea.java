@@ -3,13 +3,17 @@ package GraphDrawing;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import javax.imageio.ImageIO;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
+import Embeddings.SnapshotBuffer;
 import Graph.Graph;
+import Graph.Node3D;
 
 /**
  * Subclass of the JPanel class. A drawing area on which graphs can be drawn.
@@ -19,6 +23,11 @@ import Graph.Graph;
  *
  */
 public class DrawingArea extends JPanel {
+	/**
+	 * Minimal time between two drawn snapshots of a running layout in
+	 * milliseconds, which limits the frame rate to about 30 frames per second.
+	 */
+	static final int FRAME_INTERVAL = 33;
 	/**
 	 * Size of the drawing area in pixel.
 	 */
@@ -74,6 +83,27 @@ public class DrawingArea extends JPanel {
 	 */
 	private boolean threeDLayout;
 
+	/**
+	 * Spatial index of the positions of G, used to draw only the visible part
+	 * of G when zoomed in. It is built by the first zoomed paint after the
+	 * positions changed, null before.
+	 */
+	private SpatialIndex index;
+
+	/**
+	 * Snapshots of a running layout of G, or null.
+	 */
+	private SnapshotBuffer snapshots;
+	/**
+	 * Copy of G holding the newest drawn snapshot, which is drawn instead of G
+	 * while snapshots are shown.
+	 */
+	private Graph preview;
+	/**
+	 * Draws the newest snapshot every FRAME_INTERVAL milliseconds.
+	 */
+	private final Timer frameTimer = new Timer(FRAME_INTERVAL, e -> nextFrame());
+
 //=======================================================================
 // Constructor
 //=======================================================================		
@@ -131,6 +161,15 @@ public class DrawingArea extends JPanel {
 	 */
 	public void setGraph(Graph G) {
 		this.G = G;
+		index = null;
+	}
+
+	/**
+	 * Tells the drawing area that the positions of the nodes of its graph
+	 * changed without a new layout, e.g. by a rotation.
+	 */
+	public void positionsChanged() {
+		index = null;
 	}
 
 	/**
@@ -151,6 +190,52 @@ public class DrawingArea extends JPanel {
 		threeDLayout = b;
 	}
 
+//=======================================================================
+// Snapshots of running layouts
+//=======================================================================
+	/**
+	 * Draws the snapshots of a running 2D layout of the current graph instead
+	 * of the graph itself, until stopSnapshots is called. The snapshots are
+	 * drawn on a copy of the graph, so the graph keeps its layout. At most one
+	 * snapshot is drawn every FRAME_INTERVAL milliseconds, snapshots published
+	 * in between are skipped.
+	 * 
+	 * @param buffer The buffer into which the layout publishes its snapshots.
+	 */
+	public void showSnapshots(SnapshotBuffer buffer) {
+		stopSnapshots();
+		if (G == null || buffer.size() != G.nodes().size())
+			return;
+		snapshots = buffer;
+		preview = G.copy();
+		frameTimer.start();
+	}
+
+	/**
+	 * Stops drawing snapshots, afterwards the graph itself is drawn again.
+	 */
+	public void stopSnapshots() {
+		frameTimer.stop();
+		snapshots = null;
+		preview = null;
+	}
+
+	/**
+	 * Draws the newest snapshot, if there is a new one.
+	 */
+	private void nextFrame() {
+		if (snapshots == null)
+			return;
+		SnapshotBuffer.Snapshot snapshot = snapshots.poll();
+		if (snapshot == null)
+			return;
+		int n = preview.nodes().size();
+		System.arraycopy(snapshot.coordinates(0), 0, preview.xCoordinates(), 0, n);
+		System.arraycopy(snapshot.coordinates(1), 0, preview.yCoordinates(), 0, n);
+		Node3D.scale(preview);
+		paint(getGraphics());
+	}
+
 //=======================================================================
 // Zooming related functions
 //=======================================================================		
@@ -265,7 +350,9 @@ public class DrawingArea extends JPanel {
 	 * Overriden paint method. Paints the currently saved graph G on the graphics
 	 * object g using the current zoom which fixes the currently saved point (x,y).
 	 * If linearEdges is set to true, the graph will be drawn having linear edges.
-	 * Otherwise edges are drawn as semicircles.
+	 * Otherwise edges are drawn as semicircles. While snapshots of a layout are
+	 * shown, the newest snapshot is drawn with linear edges instead. When
+	 * zoomed in, only the visible nodes and edges are drawn.
 	 * 
 	 * @param g The graphics object on which the graph will be drawn.
 	 */
@@ -276,7 +363,17 @@ public class DrawingArea extends JPanel {
 			g2d.setBackground(Color.WHITE);
 			g2d.translate((-zoom * x + x) * size, (-zoom * y + y) * size);
 			super.paint(g2d);
-			GraphDrawer.drawGraph(g2d, G, (int) (size * zoom), linearEdges, threeDLayout);
+			if (preview != null)
+				GraphDrawer.drawGraph(g2d, preview, (int) (size * zoom), true, false);
+			else if (zoom > 1) {
+				// only the nodes and edges within the panel are drawn
+				if (index == null)
+					index = new SpatialIndex(G);
+				Rectangle2D visible = new Rectangle2D.Double(-(-zoom * x + x) * size, -(-zoom * y + y) * size,
+						size, size);
+				GraphDrawer.drawGraph(g2d, G, (int) (size * zoom), linearEdges, threeDLayout, index, visible);
+			} else
+				GraphDrawer.drawGraph(g2d, G, (int) (size * zoom), linearEdges, threeDLayout);
 		}
 	}
 
@@ -2,13 +2,15 @@ package GraphDrawing;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
 import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import Graph.Node;
 import Graph.Graph;
-import Graph.Node3D;
 
 import java.awt.RenderingHints;
 /**
@@ -46,6 +48,32 @@ public abstract class GraphDrawer {
 	 * Currently: magenta.
 	 */
 	private static final Color ARROW_TWO_WAY = Color.MAGENTA;
+	/**
+	 * The sRGB value of the color black, the color of unmarked nodes.
+	 */
+	private static final int BLACK = Color.BLACK.getRGB();
+	/**
+	 * The unit square is drawn into the square of size 0.8*size in the
+	 * middle of the drawing area, leaving a margin of 0.1*size on all sides.
+	 */
+	private static final double MARGIN = 0.1;
+	/**
+	 * The corners of an arrow head of size 1 pointing in direction of the
+	 * positive x-axis with its tip at the origin. It is scaled, rotated and
+	 * moved to the tip of each edge.
+	 */
+	private static final double[] ARROW = {0, 0, -1, -1, -1, 1};
+	/**
+	 * Number of edges collected into the paths before they are drawn. The
+	 * antialiased rasterization of a path spanning the whole drawing area is
+	 * slower than that of a few smaller ones, so the paths are kept short.
+	 */
+	private static final int BATCH_SIZE = 256;
+	/**
+	 * Distance of the control points of a cubic Bezier curve approximating a
+	 * quarter circle of radius 1 from its end points.
+	 */
+	private static final double QUARTER_CIRCLE = 4*(Math.sqrt(2)-1)/3;
 //======================================================================================
 //Draw graph
 //======================================================================================
@@ -54,6 +82,11 @@ public abstract class GraphDrawer {
 	 * linearEdges the edges between the nodes are drawn as straight lines or as 
 	 * semicircles. The boolean value threeDim, additionally defines whether the
 	 * graph will be drawn in a 3 dimensional perspective.
+	 * <p>
+	 * The positions of the nodes are only read: they are mapped from the unit
+	 * square to pixels while drawing (see {@link #toPixels(int) toPixels}). Thus
+	 * drawing allocates no memory per node, and a graph may be drawn while 
+	 * another thread changes its positions.
 	 * 
 	 * @param g The drawing area on which the graph is drawn.
 	 * @param G The graph to be drawn; non-zero
@@ -64,24 +97,84 @@ public abstract class GraphDrawer {
 	 * three dimensionally.
 	 */
 	public static void drawGraph(Graphics g, Graph G, int size, boolean linearEdges, boolean threeDim) {
+		drawGraph(g, G, size, linearEdges, threeDim, null, null);
+	}
+	
+	/**
+	 * Draws the part of a graph G within a visible rectangle of a graphics area 
+	 * like {@link #drawGraph(Graphics, Graph, int, boolean, boolean) drawGraph}. 
+	 * Only the nodes and edges which the spatial index finds near the 
+	 * rectangle are drawn, so the time to draw a strongly zoomed graph 
+	 * depends on the number of visible nodes and edges, not on the size of 
+	 * the graph.
+	 * 
+	 * @param g The drawing area on which the graph is drawn.
+	 * @param G The graph to be drawn; non-zero
+	 * @param size The size of the drawing area.
+	 * @param linearEdges Boolean value determining whether edges between the nodes are drawn as 
+	 * straight lines or as semicircles.
+	 * @param threeDim Boolean value determining whether the graph will be drawn
+	 * three dimensionally.
+	 * @param index A spatial index of the current positions of G, or null to 
+	 * draw all nodes and edges.
+	 * @param visible The visible part of the drawing area in pixels, or null
+	 * to draw all nodes and edges.
+	 */
+	public static void drawGraph(Graphics g, Graph G, int size, boolean linearEdges, boolean threeDim,
+			SpatialIndex index, Rectangle2D visible) {
 		
-		//clear the drawing area
-		g.clearRect(0,0,size,size);
+		//mapping from the unit square to pixels
+		AffineTransform view = toPixels(size);
 		
-		//scale nodes up
-		double[][] oldPositions = scaleUp(G,size);
+		//clear the drawing area
+		int[] nodeIds = null;
+		int[] edgeIds = null;
+		if(index == null || visible == null)
+			g.clearRect(0,0,size,size);
+		else {
+			g.clearRect((int)Math.floor(visible.getX()), (int)Math.floor(visible.getY()), 
+					(int)Math.ceil(visible.getWidth())+1, (int)Math.ceil(visible.getHeight())+1);
+			//visible rectangle in the unit square, enlarged by the nodes and arrows
+			double margin = (2*getRadius(size,G)+2)/view.getScaleX();
+			double minX = (visible.getMinX()-view.getTranslateX())/view.getScaleX() - margin;
+			double minY = (visible.getMinY()-view.getTranslateY())/view.getScaleY() - margin;
+			double maxX = (visible.getMaxX()-view.getTranslateX())/view.getScaleX() + margin;
+			double maxY = (visible.getMaxY()-view.getTranslateY())/view.getScaleY() + margin;
+			nodeIds = index.nodes(minX, minY, maxX, maxY);
+			edgeIds = index.edges(minX, minY, maxX, maxY);
+		}
 				
 		//draw the graph
 		if(threeDim)
-			draw3DLayout(g,G,size,linearEdges);
+			draw3DLayout(g,G,size,view,linearEdges,nodeIds,edgeIds);
 		else
-			draw2DLayout(g,G,size,linearEdges);
-		
-		//scale nodes back down
-		for(int i = 0; i < G.nodes().size(); i++) {
-			G.nodes().get(i).setPosition(oldPositions[i][0], oldPositions[i][1]);
-		}
+			draw2DLayout(g,G,size,view,linearEdges,nodeIds,edgeIds);
 	}	
+	
+	/**
+	 * Draws a graph G into a new image with a white background, exactly as it
+	 * would be drawn on a drawing area of the same size without any zoom.
+	 * This does not need a screen, so it also works in headless mode.
+	 * 
+	 * @param G The graph to be drawn.
+	 * @param size The width and height of the image in pixel.
+	 * @param linearEdges Boolean value determining whether edges between the nodes are drawn as 
+	 * straight lines or as semicircles.
+	 * @param threeDim Boolean value determining whether the graph will be drawn
+	 * three dimensionally.
+	 * @return The image of the graph.
+	 */
+	public static BufferedImage drawImage(Graph G, int size, boolean linearEdges, boolean threeDim) {
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setBackground(Color.WHITE);
+		g.setColor(Color.BLACK);
+		g.clearRect(0, 0, size, size);
+		if(G.nodes().size() > 0)
+			drawGraph(g, G, size, linearEdges, threeDim);
+		g.dispose();
+		return image;
+	}
 //======================================================================================
 //2D layout
 //======================================================================================
@@ -93,24 +186,37 @@ public abstract class GraphDrawer {
 	 * @param g The drawing area on which the graph is drawn.
 	 * @param G The graph to be drawn; non-zero
 	 * @param size The size of the drawing area.
+	 * @param view The mapping from the unit square to pixels.
 	 * @param linearEdges Boolean value determining whether edges between the nodes are drawn as 
 	 * straight lines or as semicircles.
+	 * @param nodeIds The indices of the nodes to be drawn, null for all nodes.
+	 * @param edgeIds The indices of the edges to be drawn, null for all edges.
 	 */
-	private static void draw2DLayout(Graphics g, Graph G, int size, boolean linearEdges) {
-		ArrayList<Node> nodes = G.nodes();
-		ArrayList<int[]> edges = G.edges();
+	private static void draw2DLayout(Graphics g, Graph G, int size, AffineTransform view, boolean linearEdges,
+			int[] nodeIds, int[] edgeIds) {
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
 		int radius = getRadius(size,G);
 		
+		int numberOfEdges = edgeIds == null ? targets.length : edgeIds.length;
+		int numberOfNodes = nodeIds == null ? G.nodes().size() : nodeIds.length;
+		
 		//draw edges
-		for(int[] edge: edges)
+		EdgeBatch batch = new EdgeBatch(g, G, view);
+		int from = 0;
+		for(int k = 0; k < numberOfEdges; k++) {
+			int e = edgeIds == null ? k : edgeIds[k];
+			from = source(offsets, e, from);
 			if(linearEdges)
-				drawLinearEdge(g,G,edge,radius);
+				batch.addLinearEdge(from,targets[e],radius);
 			else
-				drawCircularEdge(g,G,edge,radius);
+				batch.addCircularEdge(from,targets[e],radius);
+		}
+		batch.draw();
 				
 		//draw nodes - important to do this AFTER drawing the edges!!
-		for(Node n: nodes)
-			drawNode(g, n, radius);
+		for(int k = 0; k < numberOfNodes; k++)
+			drawNode(g, G, view, nodeIds == null ? k : nodeIds[k], radius);
 	}
 	
 //======================================================================================
@@ -124,29 +230,42 @@ public abstract class GraphDrawer {
 	 * @param g The drawing area on which the graph is drawn.
 	 * @param G The graph to be drawn; non-zero
 	 * @param size The size of the drawing area.
+	 * @param view The mapping from the unit square to pixels.
 	 * @param linearEdges Boolean value determining whether edges between the nodes are drawn as 
 	 * straight lines or as semicircles.
+	 * @param nodeIds The indices of the nodes to be drawn, null for all nodes.
+	 * @param edgeIds The indices of the edges to be drawn, null for all edges.
 	 */
-	private static void draw3DLayout(Graphics g, Graph G, int size, boolean linearEdges) {
-		ArrayList<Node> nodes = G.nodes();
-		ArrayList<int[]> edges = G.edges();
+	private static void draw3DLayout(Graphics g, Graph G, int size, AffineTransform view, boolean linearEdges,
+			int[] nodeIds, int[] edgeIds) {
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
+		double[] distances = G.distances();
 		int radius = getRadius(size,G);
 		
+		int numberOfEdges = edgeIds == null ? targets.length : edgeIds.length;
+		int numberOfNodes = nodeIds == null ? G.nodes().size() : nodeIds.length;
+		
 		//draw edges
-		for(int[] edge: edges) {
-			double dist = ((Node3D) nodes.get(edge[1])).getDistance();
+		EdgeBatch batch = new EdgeBatch(g, G, view);
+		int from = 0;
+		for(int k = 0; k < numberOfEdges; k++) {
+			int e = edgeIds == null ? k : edgeIds[k];
+			from = source(offsets, e, from);
+			double dist = distances[targets[e]];
 			double factor = 0.2+0.8*dist;
 			if(linearEdges)
-				drawLinearEdge(g,G,edge,(int)(factor*radius));
+				batch.addLinearEdge(from,targets[e],(int)(factor*radius));
 			else
-				drawCircularEdge(g,G,edge,(int)(factor*radius));
+				batch.addCircularEdge(from,targets[e],(int)(factor*radius));
 		}
+		batch.draw();
 		
 		//draw nodes - important to do this AFTER drawing the edges!!
-		for(Node n: nodes) {
-			double dist = ((Node3D) n).getDistance();
-			double factor = 0.2+0.8*dist;
-			drawNode(g, n, (int)(factor*radius));
+		for(int k = 0; k < numberOfNodes; k++) {
+			int i = nodeIds == null ? k : nodeIds[k];
+			double factor = 0.2+0.8*distances[i];
+			drawNode(g, G, view, i, (int)(factor*radius));
 		}
 	}
 	
@@ -154,84 +273,173 @@ public abstract class GraphDrawer {
 //Different edge drawing styles
 //======================================================================================
 	/**
-	 * Draws an edge of the graph G on the graphics area g. The edge is drawn as 
-	 * a straight line with an arrow at the tip.
-	 * 
-	 * @param g The drawing area on which the graph is drawn.
-	 * @param G The graph to be drawn.
-	 * @param edge The edge to be drawn. The edge is given
-	 * by two integer values (i,j), meaning that the edge starts
-	 * at node_i and ends at node_j.
-	 * @param radius The radius of the nodes.
+	 * Draws the edges of a graph antialiased on one copy of the graphics area
+	 * without creating objects per edge. The semicircles and the arrow heads
+	 * are collected into two paths, which are drawn at once. Straight lines
+	 * are drawn one by one, since Java 2D draws a single Line2D much faster
+	 * than a path of many lines.
 	 */
-	private static void drawLinearEdge(Graphics g, Graph G, int[] edge, int radius) {
-		ArrayList<Node> nodes = G.nodes();
-		Graphics2D g2d = (Graphics2D) g.create();
-		g2d.setRenderingHints(new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
-		int arrowSize = getArrowSize(radius);
+	private static final class EdgeBatch {
+		private final Graphics2D g2d;
+		private final AffineTransform view;
+		private final double[] x;
+		private final double[] y;
+		private final boolean directed;
+		private final Line2D.Double line = new Line2D.Double();
+		private final Path2D.Float arcs = new Path2D.Float();
+		private final Path2D.Float arrows = new Path2D.Float();
+		/**
+		 * Reused for the corners of the arrow heads.
+		 */
+		private final AffineTransform at = new AffineTransform();
+		private final double[] corners = new double[ARROW.length];
+		/**
+		 * Number of edges added since the paths were drawn.
+		 */
+		private int count;
+		
+		/**
+		 * Creates an empty batch of edges of a graph.
+		 * 
+		 * @param g The drawing area on which the edges are drawn.
+		 * @param G The graph containing the edges.
+		 * @param view The mapping from the unit square to pixels.
+		 */
+		EdgeBatch(Graphics g, Graph G, AffineTransform view) {
+			g2d = (Graphics2D) g.create();
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			this.view = view;
+			x = G.xCoordinates();
+			y = G.yCoordinates();
+			directed = G.directed();
+		}
+		
+		/**
+		 * Adds an edge drawn as a straight line with an arrow at the tip.
+		 * 
+		 * @param from The index of the node at which the edge starts.
+		 * @param to The index of the node at which the edge ends.
+		 * @param radius The radius of the nodes.
+		 */
+		void addLinearEdge(int from, int to, int radius) {
+			int arrowSize = getArrowSize(radius);
+			
+			double x1 = pixelX(view, x[from]);
+			double y1 = pixelY(view, y[from]);
+			double x2 = pixelX(view, x[to]);
+			double y2 = pixelY(view, y[to]);
+			
+			double dx = x2 - x1, dy = y2 - y1;
+			double angle = Math.atan2(dy, dx);
+			int len = (int) Math.sqrt(dx*dx + dy*dy)-radius;
+			double cos = Math.cos(angle), sin = Math.sin(angle);
 			
-		double x1 = nodes.get(edge[0]).x();
-		double y1 = nodes.get(edge[0]).y();
-		double x2 = nodes.get(edge[1]).x();
-		double y2 = nodes.get(edge[1]).y();
+			line.setLine(x1, y1, x1 + len*cos, y1 + len*sin);
+			g2d.draw(line);
+			if(directed) {
+				at.setToTranslation(x1 + len*cos, y1 + len*sin);
+				at.rotate(cos, sin);
+				at.scale(arrowSize, arrowSize);
+				addArrow();
+			}
+			added();
+		}
 		
-		double dx = x2 - x1, dy = y2 - y1;
-	    double angle = Math.atan2(dy, dx);
-	    int len = (int) Math.sqrt(dx*dx + dy*dy)-radius;
-	    AffineTransform at = AffineTransform.getTranslateInstance(x1, y1);
-	    at.concatenate(AffineTransform.getRotateInstance(angle));
-	    g2d.transform(at);
-
-	    g2d.drawLine(0, 0, len, 0);
-	    if(G.directed())
-	    	g2d.fillPolygon(new int[] {len, len-arrowSize, len-arrowSize, len},
-	                      new int[] {0, -arrowSize, arrowSize, 0}, 4);
-	}
-//======================================================================================
-	/**
-	 * Draws an edge of the graph G on the graphics area g. The edge is drawn as 
-	 * a semicircle with an arrow at the tip.
-	 * 
-	 * @param g The drawing area on which the graph is drawn.
-	 * @param G The graph to be drawn.
-	 * @param edge The edge to be drawn. The edge is given
-	 * by two integer values (i,j), meaning that the edge starts
-	 * at node_i and ends at node_j.
-	 * @param radius The radius of the nodes.
-	 */
-	private static void drawCircularEdge(Graphics g, Graph G, int[] edge,int radius) {
-		if(Math.abs(edge[0]-edge[1]) < 2) {
-			drawLinearEdge(g,G,edge,radius);
-			return;
+		/**
+		 * Adds an edge drawn as a semicircle with an arrow at the tip.
+		 * Edges between nodes with consecutive indices are drawn as straight
+		 * lines.
+		 * 
+		 * @param from The index of the node at which the edge starts.
+		 * @param to The index of the node at which the edge ends.
+		 * @param radius The radius of the nodes.
+		 */
+		void addCircularEdge(int from, int to, int radius) {
+			if(Math.abs(from-to) < 2) {
+				addLinearEdge(from, to, radius);
+				return;
+			}
+			int arrowSize = getArrowSize(radius);
+			
+			double x1 = pixelX(view, x[from]);
+			double y1 = pixelY(view, y[from])-radius;
+			double x2 = pixelX(view, x[to]);
+			double y2 = pixelY(view, y[to])-radius;
+			
+			//the semicircle lies above the left node
+			int diameter = (int)Math.abs(x2-x1);
+			if(x1 < x2)
+				addSemicircle(x1, y1 - diameter/2, diameter);
+			else
+				addSemicircle(x2, y2 - diameter/2, diameter);
+			//the arrow points down onto the target
+			if(directed) {
+				at.setToTranslation(x2, y2);
+				at.quadrantRotate(1);
+				at.scale(arrowSize, arrowSize);
+				addArrow();
+			}
+			added();
+		}
+		
+		/**
+		 * Adds the upper half of a circle, like drawArc(x, y, diameter,
+		 * diameter, 0, 180), as two quarter circles.
+		 * 
+		 * @param x The left border of the circle.
+		 * @param y The upper border of the circle.
+		 * @param diameter The diameter of the circle.
+		 */
+		private void addSemicircle(double x, double y, double diameter) {
+			double r = diameter/2;
+			double cx = x + r, cy = y + r;
+			double k = QUARTER_CIRCLE*r;
+			arcs.moveTo(cx + r, cy);
+			arcs.curveTo(cx + r, cy - k, cx + k, cy - r, cx, cy - r);
+			arcs.curveTo(cx - k, cy - r, cx - r, cy - k, cx - r, cy);
+		}
+		
+		/**
+		 * Adds the arrow head ARROW transformed by at.
+		 */
+		private void addArrow() {
+			at.transform(ARROW, 0, corners, 0, ARROW.length/2);
+			arrows.moveTo(corners[0], corners[1]);
+			for(int i = 2; i < corners.length; i += 2)
+				arrows.lineTo(corners[i], corners[i+1]);
+			arrows.closePath();
 		}
 		
-		ArrayList<Node> nodes = G.nodes();
-		Graphics2D g2d = (Graphics2D) g.create();
-		g2d.setRenderingHints(new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
-		int arrowSize = getArrowSize(radius);
+		/**
+		 * Draws the paths after every BATCH_SIZE edges.
+		 */
+		private void added() {
+			if(++count == BATCH_SIZE)
+				flush();
+		}
 		
-		double x1 = nodes.get(edge[0]).x();
-		double y1 = nodes.get(edge[0]).y()-radius;
-		double x2 = nodes.get(edge[1]).x();
-		double y2 = nodes.get(edge[1]).y()-radius;
+		/**
+		 * Draws the collected edges and empties the paths.
+		 */
+		private void flush() {
+			if(count == 0)
+				return;
+			if(arcs.getCurrentPoint() != null)
+				g2d.draw(arcs);
+			if(arrows.getCurrentPoint() != null)
+				g2d.fill(arrows);
+			arcs.reset();
+			arrows.reset();
+			count = 0;
+		}
 		
-		int diameter = (int)Math.abs(x2-x1);
-		double angle = Math.atan2(0, diameter);
-		if(x1 < x2) {
-			g2d.translate(x1, y1);
-	        g2d.drawArc(0, -diameter/2, diameter, diameter, 0, 180);
-	        g2d.translate(x2-x1, y2-y1);
-	        g2d.rotate(angle);
+		/**
+		 * Draws the remaining edges and releases the graphics area.
+		 */
+		void draw() {
+			flush();
+			g2d.dispose();
 		}
-	    else {
-	        g2d.translate(x2,y2);
-	        g2d.rotate(angle);
-	        g2d.drawArc(0, -diameter/2, diameter, diameter, 0, 180);
-	    }
-		if(G.directed())
-			g2d.fill(new Polygon(new int[] {0,arrowSize,-arrowSize}, new int[] {0,-arrowSize,-arrowSize}, 3));
-	    g2d.rotate(-angle);
-	    g2d.translate(-x2, -y2);
 	}	
 //======================================================================================
 // For coloring specific nodes (or uncoloring them)
@@ -269,25 +477,29 @@ public abstract class GraphDrawer {
 	 * @param n A node of 'G'.
 	 */
 	public static void markAdjacentNodes(Graph G, Node n) {	
-		ArrayList<Integer> outEdges = G.outEdges(n);
-		ArrayList<Integer> inEdges = G.inEdges(n);
-		for(int j=0; j<G.edges().size(); j++) {
-			if(G.nodes().indexOf(n) != j) {
-				if(outEdges.contains(j) && inEdges.contains(j))
-					G.nodes().get(j).setColor(ARROW_TWO_WAY);
-				else {
-					if(outEdges.contains(j))
-						if(G.directed())
-							G.nodes().get(j).setColor(ARROW_TO);
-						else
-							G.nodes().get(j).setColor(ARROW_TWO_WAY);
-					if(inEdges.contains(j))
-						if(G.directed())
-							G.nodes().get(j).setColor(ARROW_FROM);
-						else
-							G.nodes().get(j).setColor(ARROW_TWO_WAY);
-				}
-			}
+		int i = G.indexOf(n);
+		if(i == -1)
+			return;
+		int[] outOffsets = G.outOffsets();
+		int[] outTargets = G.outTargets();
+		int[] inOffsets = G.inOffsets();
+		int[] inSources = G.inSources();
+		
+		//sorted copy of the out neighbors to detect two way connections
+		int[] out = Arrays.copyOfRange(outTargets, outOffsets[i], outOffsets[i+1]);
+		Arrays.sort(out);
+		
+		for(int j: out)
+			if(j != i)
+				G.nodes().get(j).setColor(G.directed() ? ARROW_TO : ARROW_TWO_WAY);
+		for(int k = inOffsets[i]; k < inOffsets[i+1]; k++) {
+			int j = inSources[k];
+			if(j == i)
+				continue;
+			if(!G.directed() || Arrays.binarySearch(out, j) >= 0)
+				G.nodes().get(j).setColor(ARROW_TWO_WAY);
+			else
+				G.nodes().get(j).setColor(ARROW_FROM);
 		}
 	}
 	
@@ -298,23 +510,20 @@ public abstract class GraphDrawer {
 	 * @param n A node of 'G'.
 	 */
 	public static void unmarkAdjacentNodes(Graph G, Node n) {
+		int i = G.indexOf(n);
+		if(i == -1)
+			return;
+		int[] outOffsets = G.outOffsets();
+		int[] outTargets = G.outTargets();
+		int[] inOffsets = G.inOffsets();
+		int[] inSources = G.inSources();
 		
-		int i = G.nodes().indexOf(n);
-		ArrayList<Integer> posOfAdjacentNodes = new ArrayList<>();
-		for (int[] edge : G.edges()) {
-			if (edge[0] != edge[1]) {
-				if (edge[0] == i) {
-					if (posOfAdjacentNodes.indexOf(edge[1]) == -1)
-						posOfAdjacentNodes.add(edge[1]);
-				} else if (edge[1] == i) {
-					if (posOfAdjacentNodes.indexOf(edge[0]) == -1)
-						posOfAdjacentNodes.add(edge[0]);
-				}
-			}
-		}
-		for (int j : posOfAdjacentNodes) {
-			G.nodes().get(j).setColor(Color.BLACK);
-		}
+		for(int k = outOffsets[i]; k < outOffsets[i+1]; k++)
+			if(outTargets[k] != i)
+				G.nodes().get(outTargets[k]).setColor(Color.BLACK);
+		for(int k = inOffsets[i]; k < inOffsets[i+1]; k++)
+			if(inSources[k] != i)
+				G.nodes().get(inSources[k]).setColor(Color.BLACK);
 	}
 //======================================================================================
 //Auxiliary functions
@@ -323,54 +532,66 @@ public abstract class GraphDrawer {
 	 * Draws a node as a black circle filled with a smaller circle of a specific
 	 * color (to visualize certain marked nodes) and radius on a graphics area.
 	 * @param g The graphics area on which the node is drawn.
-	 * @param n The node to be drawn.
+	 * @param G The graph containing the node.
+	 * @param view The mapping from the unit square to pixels.
+	 * @param i The index of the node to be drawn.
 	 * @param radius The radius of the node.
 	 */
-	private static void drawNode(Graphics g, Node n, int radius) {
-		int x = ((int)n.x())-radius+1;
-		int y = ((int)n.y())-radius+1;
+	private static void drawNode(Graphics g, Graph G, AffineTransform view, int i, int radius) {
+		double nx = pixelX(view, G.xCoordinates()[i]);
+		double ny = pixelY(view, G.yCoordinates()[i]);
+		int color = G.colors()[i];
+		int x = ((int)nx)-radius+1;
+		int y = ((int)ny)-radius+1;
 		int w = 2*radius + 1;
 		int h = 2*radius + 1;
 		g.fillOval(x, y, w, h);
 		
-		if(n.color() != Color.BLACK) {
+		if(color != BLACK) {
 			int innerRadius = (int)(0.6*radius);
-			x = ((int)n.x())-innerRadius+1;
-			y = ((int)n.y())-innerRadius+1;
+			x = ((int)nx)-innerRadius+1;
+			y = ((int)ny)-innerRadius+1;
 			w = 2*innerRadius + 1;
 			h = 2*innerRadius + 1;
-			g.setColor(n.color());
+			g.setColor(new Color(color, true));
 			g.fillOval(x, y, w, h);
 			g.setColor(Color.BLACK);
 		}
 	}
 //======================================================================================
 	/**
-	 * Scales the positions of all nodes from the unit square up to 
-	 * a square of size "size".
+	 * Returns the mapping from the unit square, in which the nodes are
+	 * positioned, to the pixels of a drawing area of a certain size.
 	 * 
-	 * @param G The graph to be scaled up.
-	 * @param size The size of the new bounding square
-	 * of the graph
+	 * @param size The size of the drawing area.
+	 * @return The mapping as a scaling followed by a translation.
+	 */
+	public static AffineTransform toPixels(int size) {
+		double scale = (1-2*MARGIN)*size;
+		double offset = MARGIN*size;
+		return new AffineTransform(scale, 0, 0, scale, offset, offset);
+	}
+	
+	/**
+	 * Maps an x-coordinate from the unit square to pixels.
 	 * 
-	 * @return A list of all old node positions of the graph. 
-	 * To later be able to scale the graph back.
+	 * @param view The mapping from the unit square to pixels.
+	 * @param x An x-coordinate in the unit square.
+	 * @return The x-coordinate in pixels.
 	 */
-	private static double[][] scaleUp(Graph G, int size){
-		ArrayList<Node> nodes = G.nodes();
-		double[][] oldPositions = new double [nodes.size()][2];
-		//scaling the unit square accordingly
-		for(int i = 0; i < nodes.size(); i++) {
-			//set node to new position
-			double oldX = nodes.get(i).x();
-			double oldY = nodes.get(i).y();
-			oldPositions[i][0] = oldX;
-			oldPositions[i][1] = oldY;
-			double newX = 0.8*size*oldX + 0.1*size;
-			double newY = 0.8*size*oldY + 0.1*size;
-			nodes.get(i).setPosition(newX, newY);
-		}
-		return(oldPositions);
+	private static double pixelX(AffineTransform view, double x) {
+		return view.getScaleX()*x + view.getTranslateX();
+	}
+	
+	/**
+	 * Maps a y-coordinate from the unit square to pixels.
+	 * 
+	 * @param view The mapping from the unit square to pixels.
+	 * @param y A y-coordinate in the unit square.
+	 * @return The y-coordinate in pixels.
+	 */
+	private static double pixelY(AffineTransform view, double y) {
+		return view.getScaleY()*y + view.getTranslateY();
 	}
 //======================================================================================
 	/**
@@ -394,6 +615,32 @@ public abstract class GraphDrawer {
 	private static int getArrowSize(int radius) {
 		return (int)(0.8*radius);
 	}
+	
+	/**
+	 * Returns the node at which an edge starts, given its position in the
+	 * targets of the outgoing edges of a graph (see {@link Graph#outOffsets()
+	 * outOffsets}). Consecutive edges mostly start at the same node, which
+	 * is tried first.
+	 * 
+	 * @param offsets The offsets of the outgoing edges.
+	 * @param e The position of the edge.
+	 * @param guess A node at which the edge might start.
+	 * @return The node at which the edge starts.
+	 */
+	private static int source(int[] offsets, int e, int guess) {
+		if(offsets[guess] <= e && e < offsets[guess+1])
+			return guess;
+		//largest node whose edges start at or before e
+		int low = 0, high = offsets.length - 2;
+		while(low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if(offsets[mid] <= e)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
 //======================================================================================
 	/**
 	 * Returns the node of a graph which is closest to a certain position (x,y).
@@ -407,7 +654,7 @@ public abstract class GraphDrawer {
 	 * @return The node of G which is closest to (x,y).
 	 */
 	public static Node nearestNode(Graph G, double x, double y, double size) {
-		return G.nearestNode((x/size-0.1)/0.8, (y/size-0.1)/0.8);
+		return G.nearestNode((x/size-MARGIN)/(1-2*MARGIN), (y/size-MARGIN)/(1-2*MARGIN));
 	}
 //======================================================================================	
 	/**
@@ -423,8 +670,8 @@ public abstract class GraphDrawer {
 	 * @return The euclidean distance from 'n' to the point (x,y).
 	 */
 	public static double distanceToNode(Node n, double x, double y, double size) {
-		double nodeNewX = 0.8 * size * n.x() + 0.1 * size;
-		double nodeNewY = 0.8 * size * n.y() + 0.1 * size;
+		double nodeNewX = (1-2*MARGIN) * size * n.x() + MARGIN * size;
+		double nodeNewY = (1-2*MARGIN) * size * n.y() + MARGIN * size;
 		return Math.sqrt(Math.pow(nodeNewX-x, 2)+Math.pow(nodeNewY-y, 2));
 	}
 }
@@ -0,0 +1,366 @@
+package GraphDrawing;
+
+import java.util.Arrays;
+
+import Graph.Graph;
+
+/**
+ * Hierarchical grid over the positions of the nodes and the edges of a graph,
+ * which finds the nodes and edges within a rectangle in time proportional to
+ * their number instead of the size of the graph. It is used to draw only the
+ * visible part of a zoomed graph.
+ * <p>
+ * The finest level of the grid has about one cell per node, every coarser
+ * level has cells twice as wide. Every node is stored in its cell of the
+ * finest level. Every edge is stored on the finest level on which its bounding
+ * box is at most EDGE_CELLS cells wide and high, in the cells crossed by the
+ * straight line between its nodes and in the cells crossed by the semicircle
+ * above its left node (see {@link GraphDrawer GraphDrawer}), so each edge is
+ * found by queries for either way of drawing it. The sizes of nodes and
+ * arrows, which depend on the size of the drawing, are not included, so
+ * queries have to be enlarged accordingly.
+ * <p>
+ * The index is a snapshot of the positions when it was built: it has to be
+ * built again when the nodes move, e.g. after a new layout or a rotation.
+ * Queries reuse internal arrays, so an index must only be used by one thread
+ * at a time.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ */
+public class SpatialIndex {
+	/**
+	 * Maximal number of cells per row of the finest level of the grid.
+	 */
+	static final int MAXIMUM_RESOLUTION = 1024;
+	/**
+	 * Maximal width and height of the bounding box of an edge in cells of the
+	 * level it is stored on, unless it does not fit on the coarsest level.
+	 */
+	static final int EDGE_CELLS = 8;
+
+	private final double[] x;
+	private final double[] y;
+	/**
+	 * Edge e goes from sources[e] to targets[e], where the edges are numbered
+	 * like the targets of the outgoing edges of the graph (see
+	 * {@link Graph#outTargets() outTargets}).
+	 */
+	private final int[] sources, targets;
+	/**
+	 * Upper left corner of the grid and width of a cell of the finest level.
+	 */
+	private final double minX, minY, cellSize;
+	/**
+	 * Number of columns and rows of each level. The cells of level l are
+	 * numbered from levelStart[l] to levelStart[l+1]-1, row by row.
+	 */
+	private final int[] columns, rows, levelStart;
+	/**
+	 * The nodes of cell c of the finest level are nodes[nodeStart[c]], ...,
+	 * nodes[nodeStart[c+1]-1].
+	 */
+	private final int[] nodeStart, nodes;
+	/**
+	 * The edges of cell c are edgeCells[edgeStart[c]], ...,
+	 * edgeCells[edgeStart[c+1]-1].
+	 */
+	private final int[] edgeStart, edgeCells;
+	/**
+	 * marks[e] == mark if edge e was already found by the current query.
+	 */
+	private final int[] marks;
+	private int mark;
+	/**
+	 * Bounding box of an edge, see box(int), and range of the y-coordinates of
+	 * a part of an edge, see range(int, boolean, double, double).
+	 */
+	private final double[] box = new double[4];
+	private final double[] range = new double[2];
+
+//==============================================================================
+// Constructor
+//==============================================================================
+	/**
+	 * Builds the index of the current positions of the nodes of a graph.
+	 *
+	 * @param G A graph.
+	 */
+	public SpatialIndex(Graph G) {
+		int n = G.nodes().size();
+		x = G.xCoordinates();
+		y = G.yCoordinates();
+		int[] offsets = G.outOffsets();
+		targets = G.outTargets();
+		int m = targets.length;
+		sources = new int[m];
+		for (int i = 0; i < n; i++)
+			Arrays.fill(sources, offsets[i], offsets[i + 1], i);
+
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+		if (n == 0)
+			minX = minY = maxX = maxY = 0;
+		int resolution = (int) Math.min(Math.max(Math.ceil(Math.sqrt(n)), 1), MAXIMUM_RESOLUTION);
+		double extent = Math.max(maxX - minX, maxY - minY);
+		cellSize = extent > 0 ? extent / resolution : 1;
+		//levels down to a single cell
+		int levels = 1;
+		while ((resolution - 1) >> (levels - 1) > 0)
+			levels++;
+
+		//the grid also covers the semicircles above the nodes
+		double top = minY;
+		byte[] level = new byte[m];
+		for (int e = 0; e < m; e++) {
+			box(e);
+			top = Math.min(top, box[1]);
+			double size = Math.max(box[2] - box[0], box[3] - box[1]) / cellSize;
+			int l = 0;
+			while (l < levels - 1 && size > EDGE_CELLS << l)
+				l++;
+			level[e] = (byte) l;
+		}
+		this.minX = minX;
+		this.minY = top;
+		columns = new int[levels];
+		rows = new int[levels];
+		levelStart = new int[levels + 1];
+		int height = (int) Math.min(Math.max(Math.ceil((maxY - top) / cellSize), 1), 2 * MAXIMUM_RESOLUTION);
+		for (int l = 0; l < levels; l++) {
+			columns[l] = ((resolution - 1) >> l) + 1;
+			rows[l] = ((height - 1) >> l) + 1;
+			levelStart[l + 1] = levelStart[l] + columns[l] * rows[l];
+		}
+
+		//nodes sorted by cell of the finest level
+		int cells = levelStart[1];
+		nodeStart = new int[cells + 1];
+		nodes = new int[n];
+		for (int i = 0; i < n; i++)
+			nodeStart[cell(column(x[i], 0), row(y[i], 0), 0) + 1]++;
+		for (int c = 0; c < cells; c++)
+			nodeStart[c + 1] += nodeStart[c];
+		int[] next = Arrays.copyOf(nodeStart, cells);
+		for (int i = 0; i < n; i++)
+			nodes[next[cell(column(x[i], 0), row(y[i], 0), 0)]++] = i;
+
+		//edges in all crossed cells of their level, counted first
+		cells = levelStart[levels];
+		edgeStart = new int[cells + 1];
+		for (int e = 0; e < m; e++) {
+			store(e, level[e], false, null);
+			store(e, level[e], true, null);
+		}
+		for (int c = 0; c < cells; c++)
+			edgeStart[c + 1] += edgeStart[c];
+		edgeCells = new int[edgeStart[cells]];
+		next = Arrays.copyOf(edgeStart, cells);
+		for (int e = 0; e < m; e++) {
+			store(e, level[e], false, next);
+			store(e, level[e], true, next);
+		}
+		marks = new int[m];
+	}
+//==============================================================================
+// Queries
+//==============================================================================
+	/**
+	 * Returns all nodes within a rectangle.
+	 *
+	 * @param minX Left border of the rectangle.
+	 * @param minY Upper border of the rectangle.
+	 * @param maxX Right border of the rectangle.
+	 * @param maxY Lower border of the rectangle.
+	 * @return The indices of the nodes in ascending order.
+	 */
+	public int[] nodes(double minX, double minY, double maxX, double maxY) {
+		int[] result = new int[16];
+		int count = 0;
+		int c0 = column(minX, 0), r0 = row(minY, 0), c1 = column(maxX, 0), r1 = row(maxY, 0);
+		for (int r = r0; r <= r1; r++)
+			for (int c = c0; c <= c1; c++) {
+				int cell = cell(c, r, 0);
+				for (int k = nodeStart[cell]; k < nodeStart[cell + 1]; k++) {
+					int i = nodes[k];
+					if (x[i] < minX || x[i] > maxX || y[i] < minY || y[i] > maxY)
+						continue;
+					if (count == result.length)
+						result = Arrays.copyOf(result, 2 * count);
+					result[count++] = i;
+				}
+			}
+		result = Arrays.copyOf(result, count);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns all edges which intersect a rectangle when drawn as a straight
+	 * line or as a semicircle.
+	 *
+	 * @param minX Left border of the rectangle.
+	 * @param minY Upper border of the rectangle.
+	 * @param maxX Right border of the rectangle.
+	 * @param maxY Lower border of the rectangle.
+	 * @return The positions of the edges in G.outTargets() in ascending order.
+	 */
+	public int[] edges(double minX, double minY, double maxX, double maxY) {
+		if (++mark == 0) {
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+		int[] result = new int[16];
+		int count = 0;
+		for (int l = 0; l < columns.length; l++) {
+			int c0 = column(minX, l), r0 = row(minY, l), c1 = column(maxX, l), r1 = row(maxY, l);
+			for (int r = r0; r <= r1; r++)
+				for (int c = c0; c <= c1; c++) {
+					int cell = cell(c, r, l);
+					for (int k = edgeStart[cell]; k < edgeStart[cell + 1]; k++) {
+						int e = edgeCells[k];
+						if (marks[e] == mark)
+							continue;
+						marks[e] = mark;
+						if (!intersects(e, false, minX, minY, maxX, maxY)
+								&& !intersects(e, true, minX, minY, maxX, maxY))
+							continue;
+						if (count == result.length)
+							result = Arrays.copyOf(result, 2 * count);
+						result[count++] = e;
+					}
+				}
+		}
+		result = Arrays.copyOf(result, count);
+		Arrays.sort(result);
+		return result;
+	}
+//==============================================================================
+// Auxiliary functions
+//==============================================================================
+	/**
+	 * Counts (if next is null) or stores an edge in all cells of a level
+	 * crossed by its straight line or its semicircle. The cells are walked
+	 * column by column, each column from the highest to the lowest row the
+	 * line or semicircle reaches within it.
+	 */
+	private void store(int e, int level, boolean arc, int[] next) {
+		double size = cellSize * (1 << level);
+		//slightly enlarged columns and rows against rounding errors
+		double epsilon = size * 1e-9;
+		double left = Math.min(x[sources[e]], x[targets[e]]);
+		double right = Math.max(x[sources[e]], x[targets[e]]);
+		int c0 = column(left - epsilon, level), c1 = column(right + epsilon, level);
+		for (int c = c0; c <= c1; c++) {
+			double xa = minX + c * size - epsilon;
+			if (!range(e, arc, xa, xa + size + 2 * epsilon))
+				continue;
+			int r0 = row(range[0] - epsilon, level), r1 = row(range[1] + epsilon, level);
+			for (int r = r0; r <= r1; r++) {
+				int cell = cell(c, r, level);
+				if (next == null)
+					edgeStart[cell + 1]++;
+				else
+					edgeCells[next[cell]++] = e;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the straight line (arc false) or the semicircle (arc
+	 * true) of an edge intersects a rectangle.
+	 */
+	private boolean intersects(int e, boolean arc, double minX, double minY, double maxX, double maxY) {
+		return range(e, arc, minX, maxX) && range[0] <= maxY && range[1] >= minY;
+	}
+
+	/**
+	 * Computes the range {minY, maxY} of the y-coordinates of the straight
+	 * line (arc false) or the semicircle (arc true) of an edge between the
+	 * x-coordinates xa and xb into the array range. Both are graphs of
+	 * functions of x, except a vertical line, so the range is given by the
+	 * ends of the part and the top of the semicircle.
+	 *
+	 * @return Whether the edge reaches between xa and xb at all. Vertical
+	 * edges and edges between nodes with consecutive indices have no
+	 * semicircle.
+	 */
+	private boolean range(int e, boolean arc, double xa, double xb) {
+		double x1 = x[sources[e]], y1 = y[sources[e]];
+		double x2 = x[targets[e]], y2 = y[targets[e]];
+		//edges between nodes with consecutive indices are always straight
+		if (arc && (x1 == x2 || Math.abs(sources[e] - targets[e]) < 2))
+			return false;
+		double left = Math.min(x1, x2), right = Math.max(x1, x2);
+		xa = Math.max(xa, left);
+		xb = Math.min(xb, right);
+		if (xa > xb)
+			return false;
+		double ya, yb;
+		if (arc) {
+			//the semicircle lies above the left node
+			double r = (right - left) / 2, cx = left + r, cy = x1 < x2 ? y1 : y2;
+			ya = cy - Math.sqrt(Math.max(r * r - (xa - cx) * (xa - cx), 0));
+			yb = cy - Math.sqrt(Math.max(r * r - (xb - cx) * (xb - cx), 0));
+			range[0] = xa <= cx && cx <= xb ? cy - r : Math.min(ya, yb);
+			range[1] = Math.max(ya, yb);
+			return true;
+		}
+		if (left == right) {
+			ya = y1;
+			yb = y2;
+		} else {
+			ya = y1 + (y2 - y1) * (xa - x1) / (x2 - x1);
+			yb = y1 + (y2 - y1) * (xb - x1) / (x2 - x1);
+		}
+		range[0] = Math.min(ya, yb);
+		range[1] = Math.max(ya, yb);
+		return true;
+	}
+
+	/**
+	 * Computes the bounding box {minX, minY, maxX, maxY} of an edge drawn as a
+	 * straight line or as a semicircle above the left node into the array box.
+	 */
+	private void box(int e) {
+		double x1 = x[sources[e]], y1 = y[sources[e]];
+		double x2 = x[targets[e]], y2 = y[targets[e]];
+		double top = (x1 < x2 ? y1 : y2) - Math.abs(x2 - x1) / 2;
+		box[0] = Math.min(x1, x2);
+		box[1] = Math.min(Math.min(y1, y2), top);
+		box[2] = Math.max(x1, x2);
+		box[3] = Math.max(y1, y2);
+	}
+
+	/**
+	 * Returns the column of the cell of a level containing an x-coordinate,
+	 * clamped to the grid.
+	 */
+	private int column(double x, int level) {
+		return clamp((x - minX) / (cellSize * (1 << level)), columns[level]);
+	}
+
+	/**
+	 * Returns the row of the cell of a level containing a y-coordinate,
+	 * clamped to the grid.
+	 */
+	private int row(double y, int level) {
+		return clamp((y - minY) / (cellSize * (1 << level)), rows[level]);
+	}
+
+	private static int clamp(double c, int size) {
+		if (!(c > 0))
+			return 0;
+		return c >= size ? size - 1 : (int) c;
+	}
+
+	private int cell(int column, int row, int level) {
+		return levelStart[level] + row * columns[level] + column;
+	}
+}
@@ -0,0 +1,100 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import Embeddings.BarnesHutTree;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.BarnesHutTree BarnesHutTree}.
+ * 
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestBarnesHutTree {
+	private static double[][] p;
+	private static final int N = 500;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(42);
+		p = new double[3][N];
+		for (int k = 0; k < 3; k++)
+			for (int i = 0; i < N; i++)
+				p[k][i] = random.nextDouble();
+	}
+
+	/**
+	 * Computes the sum over all j != i of (p_j - p_i)/d^2 directly.
+	 */
+	private static double[] exactRepulsion(int i, int dimension) {
+		double[] sum = new double[dimension];
+		for (int j = 0; j < N; j++) {
+			if (j == i)
+				continue;
+			double dist = 0;
+			for (int k = 0; k < dimension; k++)
+				dist += Math.pow(p[k][j] - p[k][i], 2);
+			for (int k = 0; k < dimension; k++)
+				sum[k] += (p[k][j] - p[k][i]) / dist;
+		}
+		return sum;
+	}
+
+	@Test
+	public void testEmptyTree() {
+		BarnesHutTree tree = new BarnesHutTree(2);
+		tree.build(p, 0);
+		double[] sum = { 1, 1 };
+		tree.repulsion(p, 0, 0.5, sum);
+		assertArrayEquals(new double[] { 0, 0 }, sum, 0);
+	}
+
+	@Test
+	public void testExactForThetaZero() {
+		for (int dimension = 2; dimension <= 3; dimension++) {
+			BarnesHutTree tree = new BarnesHutTree(dimension);
+			tree.build(p, N);
+			double[] sum = new double[dimension];
+			for (int i = 0; i < N; i += 50) {
+				tree.repulsion(p, i, 0, sum);
+				assertArrayEquals(exactRepulsion(i, dimension), sum, 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testApproximation() {
+		for (int dimension = 2; dimension <= 3; dimension++) {
+			BarnesHutTree tree = new BarnesHutTree(dimension);
+			tree.build(p, N);
+			double[] sum = new double[dimension];
+			double error = 0;
+			double norm = 0;
+			for (int i = 0; i < N; i++) {
+				tree.repulsion(p, i, 0.5, sum);
+				double[] exact = exactRepulsion(i, dimension);
+				for (int k = 0; k < dimension; k++) {
+					error += Math.pow(sum[k] - exact[k], 2);
+					norm += Math.pow(exact[k], 2);
+				}
+			}
+			assertTrue(Math.sqrt(error / norm) < 0.05);
+		}
+	}
+
+	@Test
+	public void testCoincidingNodes() {
+		double[][] q = { { 0.5, 0.5, 0.5, 1 }, { 0.5, 0.5, 0.5, 1 } };
+		BarnesHutTree tree = new BarnesHutTree(2);
+		tree.build(q, 4);
+		double[] sum = new double[2];
+		tree.repulsion(q, 0, 0.8, sum);
+		assertArrayEquals(new double[] { 1, 1 }, sum, 1e-12);
+	}
+}
@@ -0,0 +1,218 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+
+import org.junit.Test;
+
+import Graph.BinaryGraphFile;
+import Graph.EdgeListLoader;
+import Graph.Graph;
+
+/**
+ * JUnit 4 test class for the class {@link Graph.BinaryGraphFile BinaryGraphFile}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestBinaryGraphFile {
+
+	/**
+	 * Returns a new temporary file.
+	 */
+	private static File temporaryFile() throws IOException {
+		File file = File.createTempFile("graph", ".bin");
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testTestGraphs() throws IOException {
+		File[] files = new File("TestGraphs").listFiles();
+		assertNotNull(files);
+		for (File file : files) {
+			Graph G = EdgeListLoader.load(file);
+			File binary = temporaryFile();
+			BinaryGraphFile.write(G, binary, false);
+			assertTrue(BinaryGraphFile.isBinary(binary));
+			assertFalse(BinaryGraphFile.isBinary(file));
+
+			BinaryGraphFile stored = BinaryGraphFile.open(binary);
+			assertEquals(G.nodes().size(), stored.nodes());
+			assertEquals(G.edges().size(), stored.edges());
+			assertFalse(stored.hasCoordinates());
+			IntBuffer offsets = stored.offsets();
+			IntBuffer targets = stored.targets();
+			for (int i = 0; i < G.nodes().size(); i++) {
+				assertEquals(G.nodes().get(i).name(), stored.name(i));
+				assertEquals(G.outOffsets()[i], offsets.get(i));
+			}
+			for (int k = 0; k < G.edges().size(); k++)
+				assertEquals(G.outTargets()[k], targets.get(k));
+
+			Graph H = stored.toGraph();
+			assertEquals(G.nodes().size(), H.nodes().size());
+			assertEquals(G.edges().size(), H.edges().size());
+			assertArrayEquals(G.outOffsets(), H.outOffsets());
+			assertArrayEquals(G.outTargets(), H.outTargets());
+			// the index of the incoming edges is the one built from the edges
+			Graph copy = H.copy();
+			assertArrayEquals(copy.inOffsets(), H.inOffsets());
+			assertArrayEquals(copy.inSources(), H.inSources());
+		}
+	}
+
+	@Test
+	public void testLayout() throws IOException {
+		Graph G = new Graph();
+		G.addNodes(new String[] { "a", "b", "\u00e4\u00f6\u00fc", "a long name" });
+		G.addEdges(new int[] { 3, 0, 0 }, new int[] { 0, 1, 2 }, 3);
+		G.setDirected(true);
+		for (int i = 0; i < 4; i++) {
+			G.xCoordinates()[i] = i / 4.0;
+			G.yCoordinates()[i] = 1 - i / 4.0;
+			G.colors()[i] = 0xff000000 | i;
+			G.coordinates3D()[2][i] = -i;
+		}
+		File file = temporaryFile();
+		BinaryGraphFile.write(G, file);
+
+		Graph H = BinaryGraphFile.open(file).toGraph();
+		assertTrue(H.directed());
+		assertEquals(4, H.nodes().size());
+		assertEquals("\u00e4\u00f6\u00fc", H.nodes().get(2).name());
+		assertEquals(3, H.edges().size());
+		assertArrayEquals(new int[] { 0, 1 }, H.edges().get(0));
+		assertArrayEquals(new int[] { 0, 2 }, H.edges().get(1));
+		assertArrayEquals(new int[] { 3, 0 }, H.edges().get(2));
+		assertTrue(H.hasCoordinates3D());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i / 4.0, H.xCoordinates()[i], 0);
+			assertEquals(1 - i / 4.0, H.yCoordinates()[i], 0);
+			assertEquals(0xff000000 | i, H.colors()[i]);
+			assertEquals(-i, H.coordinates3D()[2][i], 0);
+		}
+	}
+
+	@Test
+	public void testChangeLoadedGraph() throws IOException {
+		Graph G = new Graph();
+		G.addNodes(new String[] { "a", "b", "c" });
+		G.addEdges(new int[] { 2, 0 }, new int[] { 0, 1 }, 2);
+		File file = temporaryFile();
+		BinaryGraphFile.write(G, file);
+
+		Graph H = BinaryGraphFile.open(file).toGraph();
+		assertEquals(2, H.edgeCount());
+		Graph copy = H.copy();
+		// duplicates are still rejected, new edges are appended
+		H.addEdges(new int[] { 0, 1 }, new int[] { 1, 2 }, 2);
+		assertEquals(3, H.edgeCount());
+		assertArrayEquals(new int[] { 1, 2 }, H.edges().get(2));
+		assertArrayEquals(new int[] { 0, 1, 2, 3 }, H.outOffsets());
+		assertArrayEquals(new int[] { 1, 2, 0 }, H.outTargets());
+		H.addNodes(new String[] { "d" });
+		assertEquals(0, H.outDegree(3));
+		// the copy shares the index, but does not see the changes
+		assertEquals(2, copy.edgeCount());
+		assertArrayEquals(new int[] { 0, 1, 1, 2 }, copy.outOffsets());
+		assertArrayEquals(new int[] { 0, 1, 2, 2 }, copy.inOffsets());
+		assertArrayEquals(new int[] { 2, 0 }, copy.inSources());
+	}
+
+	/**
+	 * Writes the graph x1 -> x2 -> y with x-coordinates 0.1, 0.2, 0.3 into a
+	 * file. The names start at byte 56, the targets at byte 80.
+	 */
+	private static File smallFile() throws IOException {
+		Graph G = new Graph();
+		G.addNodes(new String[] { "x1", "x2", "y" });
+		G.addEdges(new int[] { 0, 1 }, new int[] { 1, 2 }, 2);
+		for (int i = 0; i < 3; i++)
+			G.xCoordinates()[i] = 0.1 * (i + 1);
+		File file = temporaryFile();
+		BinaryGraphFile.write(G, file);
+		return file;
+	}
+
+	/**
+	 * Overwrites bytes of a file.
+	 */
+	private static void patch(File file, long position, byte... bytes) throws IOException {
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.seek(position);
+			out.write(bytes);
+		}
+	}
+
+	@Test
+	public void testMergedNames() throws IOException {
+		// "x\xff" and "x\xfe" are both decoded to "x\ufffd"
+		File file = smallFile();
+		patch(file, 57, (byte) 0xff);
+		patch(file, 59, (byte) 0xfe);
+		Graph H = BinaryGraphFile.open(file).toGraph();
+		assertEquals(2, H.nodes().size());
+		assertEquals(2, H.edgeCount());
+		// the merged node has the position of the last of its names
+		assertEquals(0.2, H.xCoordinates()[0], 1e-12);
+		assertEquals(0.3, H.xCoordinates()[1], 1e-12);
+	}
+
+	@Test
+	public void testCorruptFiles() throws IOException {
+		// a target which is no node
+		File file = smallFile();
+		patch(file, 80, (byte) 7);
+		try {
+			BinaryGraphFile.open(file).toGraph();
+			fail();
+		} catch (IOException e) {
+		}
+		// the same edge twice
+		file = smallFile();
+		patch(file, 68, (byte) 2);
+		patch(file, 80, (byte) 2);
+		patch(file, 84, (byte) 2);
+		try {
+			BinaryGraphFile.open(file).toGraph();
+			fail();
+		} catch (IOException e) {
+		}
+		// decreasing offsets of the edges
+		file = smallFile();
+		patch(file, 68, (byte) 3);
+		try {
+			BinaryGraphFile.open(file).toGraph();
+			fail();
+		} catch (IOException e) {
+		}
+		// negative numbers of nodes, edges and bytes of the names
+		for(long position = 16; position < 40; position += 8) {
+			file = smallFile();
+			patch(file, position, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+					(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff);
+			try {
+				BinaryGraphFile.open(file).toGraph();
+				fail();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyGraph() throws IOException {
+		File file = temporaryFile();
+		BinaryGraphFile.write(new Graph(), file);
+		BinaryGraphFile stored = BinaryGraphFile.open(file);
+		assertEquals(0, stored.nodes());
+		assertEquals(0, stored.edges());
+		assertTrue(stored.hasCoordinates());
+		assertEquals(0, stored.toGraph().nodes().size());
+	}
+}
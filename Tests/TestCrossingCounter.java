@@ -0,0 +1,83 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import Embeddings.CrossingCounter;
+import Graph.Graph;
+import Graph.Node;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.CrossingCounter CrossingCounter}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestCrossingCounter {
+
+	@Test
+	public void testNoEdges() {
+		assertEquals(0, CrossingCounter.count(new int[0], new int[0], 0, 0));
+	}
+
+	@Test
+	public void testCompleteBipartite() {
+		//every pair of edges without a common node crosses once in K_{3,3}
+		int[] upper = new int[9];
+		int[] lower = new int[9];
+		for (int i = 0; i < 9; i++) {
+			upper[i] = i / 3;
+			lower[i] = i % 3;
+		}
+		assertEquals(9, CrossingCounter.count(upper, lower, 3, 3));
+	}
+
+	@Test
+	public void testRandomEdges() {
+		//compare with counting all pairs of edges
+		Random random = new Random(0);
+		int m = 500;
+		int[] upper = new int[m];
+		int[] lower = new int[m];
+		for (int i = 0; i < m; i++) {
+			upper[i] = random.nextInt(40);
+			lower[i] = random.nextInt(70);
+		}
+		long expected = 0;
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < m; j++)
+				if (upper[i] < upper[j] && lower[i] > lower[j])
+					expected++;
+		assertEquals(expected, CrossingCounter.count(upper, lower, 40, 70));
+	}
+
+	@Test
+	public void testNeighbors() {
+		assertEquals(3, CrossingCounter.count(new int[] { 1, 2 }, new int[] { 0, 1, 3 }));
+		assertEquals(2, CrossingCounter.count(new int[] { 0, 1, 3 }, new int[] { 1, 2 }));
+	}
+
+	@Test
+	public void testGraph() {
+		//1->4 2->3 drawn with a crossing
+		Graph G = new Graph();
+		Node[] nodes = new Node[4];
+		for (int i = 0; i < 4; i++) {
+			nodes[i] = new Node(Integer.toString(i));
+			G.addNode(nodes[i]);
+		}
+		G.addEdge(nodes[0], nodes[3]);
+		G.addEdge(nodes[1], nodes[2]);
+		nodes[0].setPosition(0, 0);
+		nodes[1].setPosition(1, 0);
+		nodes[2].setPosition(0, 1);
+		nodes[3].setPosition(1, 1);
+		assertEquals(1, CrossingCounter.count(G));
+		nodes[2].setPosition(2, 1);
+		assertEquals(0, CrossingCounter.count(G));
+	}
+}
@@ -0,0 +1,96 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import Graph.EdgeListLoader;
+import Graph.Graph;
+import Graph.Node;
+
+/**
+ * JUnit 4 test class for the class {@link Graph.EdgeListLoader EdgeListLoader}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestEdgeListLoader {
+
+	/**
+	 * Reads a graph line by line, as the GUI used to do.
+	 */
+	private static Graph read(File file) throws IOException {
+		Graph G = new Graph();
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+			String line = in.readLine();
+			while (line != null) {
+				int space = line.indexOf(' ');
+				Node n1 = new Node(line.substring(0, space));
+				Node n2 = new Node(line.substring(space + 1));
+				G.addNode(n1);
+				G.addNode(n2);
+				if (!n1.equals(n2))
+					G.addEdge(n1, n2);
+				line = in.readLine();
+			}
+		}
+		return G;
+	}
+
+	/**
+	 * Checks whether two graphs have the same nodes and edges in the same order.
+	 */
+	private static void assertSameGraph(Graph expected, Graph actual) {
+		assertEquals(expected.nodes().size(), actual.nodes().size());
+		for (int i = 0; i < expected.nodes().size(); i++)
+			assertEquals(expected.nodes().get(i).name(), actual.nodes().get(i).name());
+		assertEquals(expected.edges().size(), actual.edges().size());
+		for (int i = 0; i < expected.edges().size(); i++)
+			assertArrayEquals(expected.edges().get(i), actual.edges().get(i));
+	}
+
+	@Test
+	public void testTestGraphs() throws IOException {
+		File[] files = new File("TestGraphs").listFiles();
+		assertNotNull(files);
+		for (File file : files)
+			assertSameGraph(read(file), EdgeListLoader.load(file));
+	}
+
+	@Test
+	public void testSpecialLines() throws IOException {
+		File file = File.createTempFile("edges", ".txt");
+		file.deleteOnExit();
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			// windows line endings, an empty line, a loop, a single node,
+			// a duplicate edge, a name with a space and no final line break
+			out.write("a b\r\n\nb b\nc\na b\nb x y\nd a".getBytes(StandardCharsets.UTF_8));
+		}
+		Graph G = EdgeListLoader.load(file);
+		assertEquals(5, G.nodes().size());
+		String[] names = { "a", "b", "c", "x y", "d" };
+		for (int i = 0; i < names.length; i++)
+			assertEquals(names[i], G.nodes().get(i).name());
+		assertEquals(3, G.edges().size());
+		assertArrayEquals(new int[] { 0, 1 }, G.edges().get(0));
+		assertArrayEquals(new int[] { 1, 3 }, G.edges().get(1));
+		assertArrayEquals(new int[] { 4, 0 }, G.edges().get(2));
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		File file = File.createTempFile("edges", ".txt");
+		file.deleteOnExit();
+		Graph G = EdgeListLoader.load(file);
+		assertEquals(0, G.nodes().size());
+		assertEquals(0, G.edges().size());
+	}
+}
@@ -2,6 +2,7 @@ package Tests;
 
 import static org.junit.Assert.*;
 
+import java.awt.Color;
 import java.util.ArrayList;
 import org.junit.After;
 import org.junit.Before;
@@ -112,4 +113,88 @@ public class TestGraph {
 		assertEquals(inEdges.size(),1);
 		assertEquals(inEdges.get(0),Integer.valueOf(0));
 	}
+	
+	@Test
+	public void testAdjacencyIndexUpdatedAfterAddEdge() {
+		Node n3 = new Node("n3",new double[] {0.9,0.9});
+		G.addNode(n1);
+		G.addNode(n2);
+		G.addEdge(n1, n2);
+		assertEquals(G.outDegree(0),1);
+		
+		G.addNode(n3);
+		G.addEdge(n1, n3);
+		G.addEdge(n3, n2);
+		assertArrayEquals(G.outOffsets(),new int[] {0,2,2,3});
+		assertArrayEquals(G.outTargets(),new int[] {1,2,1});
+		assertArrayEquals(G.inOffsets(),new int[] {0,0,2,3});
+		assertArrayEquals(G.inSources(),new int[] {0,2,0});
+		assertEquals(G.inDegree(1),2);
+	}
+	
+	@Test
+	public void testIndexOfAndDuplicateEdgesLargeGraph() {
+		int n = 1000;
+		for(int i = 0; i < n; i++)
+			G.addNode(new Node(Integer.toString(i)));
+		for(int k = 0; k < 2; k++)
+			for(int i = 0; i < n; i++) {
+				G.addEdge(new Node(Integer.toString(i)), new Node(Integer.toString((i+1)%n)));
+				G.addEdge(new Node(Integer.toString(i)), new Node(Integer.toString(i)));
+			}
+		assertEquals(G.nodes().size(),n);
+		assertEquals(G.edges().size(),2*n);
+		assertEquals(G.indexOf(new Node("517")),517);
+		assertEquals(G.indexOf(new Node("n1")),-1);
+	}
+	
+	@Test
+	public void testNodePositionStoredByGraph() {
+		G.addNode(n1);
+		G.addNode(n2);
+		n2.setPosition(0.25, 0.75);
+		assertEquals(G.xCoordinates()[1],0.25,0);
+		assertEquals(G.yCoordinates()[1],0.75,0);
+		
+		G.xCoordinates()[0] = 0.3;
+		assertEquals(n1.x(),0.3,0);
+		n1.setColor(Color.RED);
+		assertEquals(G.colors()[0],Color.RED.getRGB());
+	}
+	
+	@Test
+	public void testAddNodeOfOtherGraph() {
+		G.addNode(n2);
+		Graph G2 = new Graph();
+		G2.addNode(n2);
+		G2.nodes().get(0).setPosition(0.1, 0.1);
+		assertEquals(G2.nodes().get(0),n2);
+		assertEquals(n2.graph(),G);
+		assertArrayEquals(n2.position(),new double[] {0.5,0.5},0);
+	}
+	
+	@Test
+	public void testCopy() {
+		G.addNode(n1);
+		G.addNode(n2);
+		G.addEdge(n2, n1);
+		G.setDirected(false);
+		n1.setPosition(0.25, 0.75);
+		n2.setColor(Color.RED);
+		G.coordinates3D()[2][1] = 0.5;
+		Graph H = G.copy();
+		assertEquals(H.nodes().size(),2);
+		assertEquals(H.nodes().get(1).name(),n2.name());
+		assertArrayEquals(H.edges().get(0),new int[] {1,0});
+		assertFalse(H.directed());
+		assertEquals(H.xCoordinates()[0],0.25,0);
+		assertEquals(H.colors()[1],Color.RED.getRGB());
+		assertEquals(H.coordinates3D()[2][1],0.5,0);
+		
+		//the copy is independent of the graph
+		H.xCoordinates()[0] = 0.5;
+		H.addEdge(H.nodes().get(0), H.nodes().get(1));
+		assertEquals(n1.x(),0.25,0);
+		assertEquals(G.edges().size(),1);
+	}
 }
@@ -0,0 +1,118 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import Graph.Graph;
+import GraphDrawing.GraphDrawer;
+import GraphDrawing.SpatialIndex;
+
+/**
+ * JUnit 4 test class for the class {@link GraphDrawing.GraphDrawer GraphDrawer}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ */
+public class TestGraphDrawer {
+	private Graph G;
+
+	@Before
+	public void setUp() {
+		System.setProperty("java.awt.headless", "true");
+		G = new Graph();
+		G.addNodes(new String[] { "a", "b", "c" });
+		G.addEdges(new int[] { 0, 1 }, new int[] { 1, 2 }, 2);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		x[0] = 0; y[0] = 0;
+		x[1] = 1; y[1] = 0.5;
+		x[2] = 0.25; y[2] = 1;
+	}
+
+	@Test
+	public void testToPixels() {
+		AffineTransform view = GraphDrawer.toPixels(500);
+		assertEquals(new Point2D.Double(50, 50), view.transform(new Point2D.Double(0, 0), null));
+		assertEquals(new Point2D.Double(450, 250), view.transform(new Point2D.Double(1, 0.5), null));
+	}
+
+	@Test
+	public void testPositionsUnchanged() {
+		double[] x = G.xCoordinates().clone();
+		double[] y = G.yCoordinates().clone();
+		for (boolean linearEdges : new boolean[] { true, false }) {
+			GraphDrawer.drawImage(G, 300, linearEdges, false);
+			assertArrayEquals(x, G.xCoordinates(), 0);
+			assertArrayEquals(y, G.yCoordinates(), 0);
+		}
+	}
+
+	@Test
+	public void testNodesAtPixels() {
+		int size = 300;
+		BufferedImage image = GraphDrawer.drawImage(G, size, true, false);
+		int black = Color.BLACK.getRGB();
+		int white = Color.WHITE.getRGB();
+		assertEquals(black, image.getRGB(30, 30));
+		assertEquals(black, image.getRGB(270, 150));
+		assertEquals(black, image.getRGB(90, 270));
+		// the margin stays empty
+		assertEquals(white, image.getRGB(5, 5));
+		assertEquals(white, image.getRGB(size - 5, size - 5));
+	}
+
+	/**
+	 * Draws a part of a zoomed graph into an image like the drawing area.
+	 */
+	private static BufferedImage drawZoomed(Graph G, int size, int zoomedSize, double tx, double ty,
+			SpatialIndex index) {
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setBackground(Color.WHITE);
+		g.setColor(Color.BLACK);
+		g.translate(-tx, -ty);
+		GraphDrawer.drawGraph(g, G, zoomedSize, true, false, index, new Rectangle2D.Double(tx, ty, size, size));
+		g.dispose();
+		return image;
+	}
+
+	@Test
+	public void testCulledDrawingEqualsFullDrawing() {
+		Graph H = new Graph();
+		int n = 400;
+		String[] names = new String[n];
+		int[] from = new int[2 * n];
+		int[] to = new int[2 * n];
+		for (int i = 0; i < n; i++) {
+			names[i] = Integer.toString(i);
+			from[2 * i] = from[2 * i + 1] = i;
+			to[2 * i] = (i + 1) % n;
+			to[2 * i + 1] = (i * 37) % n;
+		}
+		H.addNodes(names);
+		H.addEdges(from, to, 2 * n);
+		for (int i = 0; i < n; i++) {
+			H.xCoordinates()[i] = (i % 20) / 19.0;
+			H.yCoordinates()[i] = (i / 20) / 19.0;
+		}
+		SpatialIndex index = new SpatialIndex(H);
+		int size = 200;
+		double[][] views = { { 0, 0 }, { 700, 300 }, { 1800, 1800 } };
+		for (double[] v : views) {
+			BufferedImage all = drawZoomed(H, size, 2000, v[0], v[1], null);
+			BufferedImage culled = drawZoomed(H, size, 2000, v[0], v[1], index);
+			for (int i = 0; i < size; i++)
+				for (int j = 0; j < size; j++)
+					assertEquals(all.getRGB(i, j), culled.getRGB(i, j));
+		}
+	}
+}
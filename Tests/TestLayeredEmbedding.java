@@ -1,8 +1,12 @@
 package Tests;
 import static org.junit.Assert.*;
+
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import Embeddings.CrossingCounter;
 import Embeddings.LayeredEmbedding;
 import Graph.Graph;
 import Graph.Node;
@@ -57,13 +61,14 @@ public class TestLayeredEmbedding {
 		G.addEdge(nodes[1], nodes[2]);
 		G.addEdge(nodes[2], nodes[0]);
 		
-		//should be horizontally aligned as
-		//2->3->1
+		//the edge 3->1 is reversed, so it should be
+		//horizontally aligned as 1->2->3, where 2 is moved 
+		//to the left to make room for the edge 1->3
 		LayeredEmbedding.defineLayout(G);
 		double[][] expectedPos = new double[3][];
-		expectedPos[0] = new double[] {0.5,1};
-		expectedPos[1] = new double[] {0.5,0};
-		expectedPos[2] = new double[] {0.5,0.5};
+		expectedPos[0] = new double[] {0.5,0};
+		expectedPos[1] = new double[] {1./3,0.5};
+		expectedPos[2] = new double[] {0.5,1};
 		double[][] realPos = new double[3][];
 		for(int i = 0; i < G.nodes().size();i++)
 			realPos[i] = G.nodes().get(i).position();
@@ -91,4 +96,129 @@ public class TestLayeredEmbedding {
 		assertArrayEquals(expectedPos,realPos);
 	}
 	
+	
+	@Test
+	public void testLargeCyclicGraph() {
+		//a long path 0->1->...->n-1 with back edges every 10 nodes,
+		//which closes n/10 - 1 disjoint cycles
+		G = new Graph();
+		int n = 300;
+		Node[] path = new Node[n];
+		for(int i = 0; i < n; i++) {
+			path[i] = new Node(Integer.toString(i));
+			G.addNode(path[i]);
+		}
+		for(int i = 0; i + 1 < n; i++)
+			G.addEdge(path[i], path[i+1]);
+		for(int i = 10; i < n; i += 10)
+			G.addEdge(path[i], path[i-10]);
+		LayeredEmbedding.defineLayout(G);
+		//one edge per cycle has to show upwards, all others downwards
+		int upwards = 0;
+		for(int[] e: G.edges()) {
+			double y0 = G.nodes().get(e[0]).y();
+			double y1 = G.nodes().get(e[1]).y();
+			assertTrue(y0 != y1);
+			if(y0 > y1)
+				upwards++;
+		}
+		assertEquals(n/10 - 1, upwards);
+	}
+	
+	@Test
+	public void testBoundedWidth() {
+		//1->2, 1->3, ..., 1->7 and 7->8
+		G = new Graph();
+		Node[] star = new Node[8];
+		for(int i = 0; i < 8; i++) {
+			star[i] = new Node(Integer.toString(i));
+			G.addNode(star[i]);
+		}
+		for(int i = 1; i < 7; i++)
+			G.addEdge(star[0], star[i]);
+		G.addEdge(star[6], star[7]);
+		LayeredEmbedding.defineLayout(G,2);
+		//all edges show downwards
+		for(int[] e: G.edges())
+			assertTrue(G.nodes().get(e[0]).y() < G.nodes().get(e[1]).y());
+		//at most 2 nodes per layer
+		for(Node n: star) {
+			int count = 0;
+			for(Node m: star)
+				if(m.y() == n.y())
+					count++;
+			assertTrue(count <= 2);
+		}
+	}
+	
+	@Test
+	public void testPlanarTree() {
+		//a binary tree whose nodes are added in a scrambled order,
+		//so every layer has to be reordered to avoid crossings
+		G = new Graph();
+		int n = 63;
+		Node[] tree = new Node[n];
+		for(int i = 0; i < n; i++)
+			tree[i] = new Node(Integer.toString(i));
+		for(int i = 0; i < n; i++)
+			G.addNode(tree[(i*29) % n]);
+		for(int i = 1; i < n; i++)
+			G.addEdge(tree[(i-1)/2], tree[i]);
+		LayeredEmbedding.defineLayout(G,0,10000);
+		assertEquals(0, CrossingCounter.count(G));
+	}
+	
+	@Test
+	public void testLongEdge() {
+		//1->2->3->4 and 1->4, the long edge must not run through 2 and 3
+		G.addNode(new Node("4"));
+		G.addEdge(nodes[0], nodes[1]);
+		G.addEdge(nodes[1], nodes[2]);
+		G.addEdge(nodes[2], G.nodes().get(3));
+		G.addEdge(nodes[0], G.nodes().get(3));
+		LayeredEmbedding.defineLayout(G);
+		assertEquals(G.nodes().get(0).x(), G.nodes().get(3).x(), 1e-12);
+		assertEquals(G.nodes().get(1).x(), G.nodes().get(2).x(), 1e-12);
+		assertTrue(Math.abs(G.nodes().get(0).x() - G.nodes().get(1).x()) > 0.1);
+	}
+	
+	@Test
+	public void testTinyTimeBudget() {
+		//4 wide layers with random edges, where a single layer sweep
+		//takes seconds, so the sweep has to stop within the layers
+		long withoutSweeps = time(layeredGraph(4, 30000, 3), 0);
+		long withTinyBudget = time(layeredGraph(4, 30000, 3), 1);
+		assertTrue(withTinyBudget < withoutSweeps + 1000);
+	}
+	
+	/**
+	 * Returns the time in milliseconds for a layered layout with given budget.
+	 */
+	private static long time(Graph H, long timeBudget) {
+		long start = System.nanoTime();
+		LayeredEmbedding.defineLayout(H,0,timeBudget);
+		return (System.nanoTime() - start) / 1000000;
+	}
+	
+	/**
+	 * Returns a graph with "layers" layers of "width" nodes, where every node
+	 * has "degree" random edges to the next layer.
+	 */
+	private static Graph layeredGraph(int layers, int width, int degree) {
+		Graph H = new Graph();
+		String[] names = new String[layers * width];
+		for(int i = 0; i < names.length; i++)
+			names[i] = Integer.toString(i);
+		H.addNodes(names);
+		Random random = new Random(1);
+		int m = (layers - 1) * width * degree;
+		int[] sources = new int[m];
+		int[] targets = new int[m];
+		for(int e = 0; e < m; e++) {
+			sources[e] = e / degree;
+			targets[e] = (e / degree / width + 1) * width + random.nextInt(width);
+		}
+		H.addEdges(sources,targets,m);
+		return H;
+	}
 }
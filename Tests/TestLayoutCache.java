@@ -0,0 +1,148 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import Embeddings.LayoutCache;
+import Embeddings.SpectralEmbedding;
+import Embeddings.SpringEmbedding;
+import Graph.Graph;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.LayoutCache LayoutCache}.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class TestLayoutCache {
+	/**
+	 * A new empty directory for the layouts of each test.
+	 */
+	private File directory;
+
+	/**
+	 * Returns a cycle with n nodes, whose edges are added in the given order.
+	 */
+	private static Graph cycle(int n, boolean reversed) {
+		Graph G = new Graph();
+		String[] names = new String[n];
+		for (int i = 0; i < n; i++)
+			names[i] = "node" + i;
+		G.addNodes(names);
+		int[] sources = new int[n];
+		int[] targets = new int[n];
+		for (int i = 0; i < n; i++) {
+			int k = reversed ? n - 1 - i : i;
+			sources[i] = k;
+			targets[i] = (k + 1) % n;
+		}
+		G.addEdges(sources, targets, n);
+		return G;
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("layouts").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		new LayoutCache(directory, LayoutCache.DEFAULT_MAXIMUM_SIZE).clear();
+		directory.delete();
+	}
+
+	@Test
+	public void testFingerprint() {
+		Graph G = cycle(10, false);
+		assertArrayEquals(LayoutCache.fingerprint(G), LayoutCache.fingerprint(cycle(10, true)));
+		assertFalse(LayoutCache.key(G, 2, "spring", 0).equals(LayoutCache.key(G, 3, "spring", 0)));
+		assertFalse(LayoutCache.key(G, 2, "spring", 0).equals(LayoutCache.key(G, 2, "spring", 1)));
+
+		Graph H = cycle(10, false);
+		H.addEdge(H.nodes().get(0), H.nodes().get(5));
+		assertFalse(LayoutCache.fingerprint(G)[0] == LayoutCache.fingerprint(H)[0]);
+		H = cycle(10, false);
+		H.setDirected(false);
+		assertFalse(LayoutCache.fingerprint(G)[0] == LayoutCache.fingerprint(H)[0]);
+		H = cycle(11, false);
+		assertFalse(LayoutCache.fingerprint(G)[1] == LayoutCache.fingerprint(H)[1]);
+	}
+
+	@Test
+	public void testRestore() throws IOException {
+		LayoutCache cache = new LayoutCache(directory, LayoutCache.DEFAULT_MAXIMUM_SIZE);
+		Graph G = cycle(20, false);
+		assertFalse(cache.defineLayout(G, 2, H -> SpectralEmbedding.defineLayout(H, 2), "spectral"));
+
+		// the layout is restored without computing it
+		Graph H = cycle(20, true);
+		assertTrue(cache.defineLayout(H, 2, K -> fail(), "spectral"));
+		for (int i = 0; i < 20; i++) {
+			assertEquals(G.xCoordinates()[i], H.xCoordinates()[i], 0);
+			assertEquals(G.yCoordinates()[i], H.yCoordinates()[i], 0);
+		}
+
+		// other parameters or another dimension are not restored
+		assertFalse(cache.defineLayout(H, 2, K -> SpringEmbedding.defineLayout(K, 2, 0), "spring", 0));
+		assertFalse(cache.defineLayout(H, 3, K -> SpectralEmbedding.defineLayout(K, 3), "spectral"));
+		Graph K = cycle(20, false);
+		assertTrue(cache.defineLayout(K, 3, L -> fail(), "spectral"));
+		for (int i = 0; i < 20; i++)
+			for (int k = 0; k < 3; k++)
+				assertEquals(H.coordinates3D()[k][i], K.coordinates3D()[k][i], 0);
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		Graph G = cycle(100, false);
+		String[] keys = new String[3];
+		for (int i = 0; i < 3; i++)
+			keys[i] = LayoutCache.key(G, 2, "test", i);
+		LayoutCache cache = new LayoutCache(directory, Long.MAX_VALUE);
+		cache.store(G, keys[0], 2);
+		long fileSize = cache.size();
+		cache = new LayoutCache(directory, 2 * fileSize);
+		cache.store(G, keys[1], 2);
+		// mark the first layout as used more recently than the second one
+		for (File file : directory.listFiles())
+			file.setLastModified(file.lastModified() - 10000);
+		assertTrue(cache.restore(G, keys[0]));
+
+		cache.store(G, keys[2], 2);
+		assertEquals(2 * fileSize, cache.size());
+		assertTrue(cache.restore(G, keys[0]));
+		assertFalse(cache.restore(G, keys[1]));
+		assertTrue(cache.restore(G, keys[2]));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertFalse(cache.restore(G, keys[0]));
+	}
+
+	@Test
+	public void testBrokenFile() throws IOException {
+		LayoutCache cache = new LayoutCache(directory, LayoutCache.DEFAULT_MAXIMUM_SIZE);
+		Graph G = cycle(10, false);
+		cache.defineLayout(G, 2, H -> SpringEmbedding.defineLayout(H, 2, 0), "spring", 0);
+		for (File file : directory.listFiles())
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				out.write(new byte[] { 1, 2, 3 });
+			}
+		try {
+			cache.restore(G, LayoutCache.key(G, 2, "spring", 0));
+			fail();
+		} catch (IOException e) {
+		}
+		// the broken layout is computed again and replaced
+		assertFalse(cache.defineLayout(G, 2, H -> SpringEmbedding.defineLayout(H, 2, 0), "spring", 0));
+		assertTrue(cache.defineLayout(G, 2, H -> fail(), "spring", 0));
+	}
+}
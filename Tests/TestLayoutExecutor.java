@@ -0,0 +1,183 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import Embeddings.LayoutExecutor;
+import Embeddings.SpringEmbedding;
+import Graph.Graph;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.LayoutExecutor LayoutExecutor}.
+ * The publisher of the executor collects the events in a queue, which is processed
+ * by the test like the event dispatch thread of a user interface.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class TestLayoutExecutor {
+	private BlockingQueue<Runnable> events;
+	private LayoutExecutor executor;
+	private Graph G;
+
+	/**
+	 * Records the calls of the listener.
+	 */
+	private static class Recorder implements LayoutExecutor.Listener {
+		ArrayList<Double> progress = new ArrayList<>();
+		String result;
+		Throwable failure;
+
+		public void progress(double fraction) {
+			progress.add(fraction);
+		}
+
+		public void finished(Graph G) {
+			result = "finished";
+		}
+
+		public void cancelled() {
+			result = "cancelled";
+		}
+
+		public void failed(Throwable e) {
+			result = "failed";
+			failure = e;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		events = new LinkedBlockingQueue<>();
+		executor = new LayoutExecutor(events::add);
+		G = new Graph();
+		G.addNodes(new String[] { "a", "b", "c", "d" });
+		G.addEdges(new int[] { 0, 1, 2, 3 }, new int[] { 1, 2, 3, 0 }, 4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Processes the events until the listener got a result.
+	 */
+	private void await(Recorder recorder) throws InterruptedException {
+		while (recorder.result == null) {
+			Runnable event = events.poll(10, TimeUnit.SECONDS);
+			assertNotNull(event);
+			event.run();
+		}
+	}
+
+	/**
+	 * A layout which only ends when it is stopped.
+	 */
+	private static void endless(Graph H) {
+		long start = System.nanoTime();
+		while (true)
+			LayoutExecutor.progress((System.nanoTime() - start) / 1e9);
+	}
+
+	@Test
+	public void testFinished() throws InterruptedException {
+		Recorder recorder = new Recorder();
+		double[] x = G.xCoordinates().clone();
+		executor.submit(G, 2, H -> SpringEmbedding.defineLayout(H, 2, 0), 0, recorder);
+		// the graph only changes when the result is published
+		Thread.sleep(200);
+		assertArrayEquals(x, G.xCoordinates(), 0);
+		await(recorder);
+		assertEquals("finished", recorder.result);
+
+		Graph expected = G.copy();
+		SpringEmbedding.defineLayout(expected, 2, 0);
+		assertArrayEquals(expected.xCoordinates(), G.xCoordinates(), 0);
+		assertArrayEquals(expected.yCoordinates(), G.yCoordinates(), 0);
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		Recorder recorder = new Recorder();
+		double[] x = G.xCoordinates().clone();
+		LayoutExecutor.Task task = executor.submit(G, 2, TestLayoutExecutor::endless, 0, recorder);
+		while (recorder.progress.isEmpty())
+			events.poll(10, TimeUnit.SECONDS).run();
+		task.cancel();
+		await(recorder);
+		assertEquals("cancelled", recorder.result);
+		assertTrue(task.isCancelled());
+		assertArrayEquals(x, G.xCoordinates(), 0);
+
+		// the background thread is free again
+		Recorder next = new Recorder();
+		executor.submit(G, 2, H -> H.xCoordinates()[0] = 1, 0, next);
+		await(next);
+		assertEquals("finished", next.result);
+		assertEquals(1, G.xCoordinates()[0], 0);
+	}
+
+	@Test
+	public void testSubmitCancelsCurrentLayout() throws InterruptedException {
+		Recorder first = new Recorder();
+		executor.submit(G, 2, TestLayoutExecutor::endless, 0, first);
+		Recorder second = new Recorder();
+		executor.submit(G, 2, H -> H.xCoordinates()[0] = 1, 0, second);
+		await(first);
+		await(second);
+		assertEquals("cancelled", first.result);
+		assertEquals("finished", second.result);
+	}
+
+	@Test
+	public void testCancelAfterFinished() throws InterruptedException {
+		Recorder recorder = new Recorder();
+		double x = G.xCoordinates()[0];
+		LayoutExecutor.Task task = executor.submit(G, 2, H -> H.xCoordinates()[0] = 1, 0, recorder);
+		// the result is waiting in the queue, cancelling by the publisher wins
+		Thread.sleep(200);
+		task.cancel();
+		await(recorder);
+		assertEquals("cancelled", recorder.result);
+		while (!events.isEmpty())
+			events.poll().run();
+		assertEquals(x, G.xCoordinates()[0], 0);
+	}
+
+	@Test
+	public void testTimeout() throws InterruptedException {
+		Recorder recorder = new Recorder();
+		executor.submit(G, 2, TestLayoutExecutor::endless, 100, recorder);
+		await(recorder);
+		assertEquals("failed", recorder.result);
+		assertTrue(recorder.failure instanceof TimeoutException);
+	}
+
+	@Test
+	public void testFailure() throws InterruptedException {
+		Recorder recorder = new Recorder();
+		executor.submit(G, 2, H -> {
+			throw new IllegalStateException("broken");
+		}, 0, recorder);
+		await(recorder);
+		assertEquals("failed", recorder.result);
+		assertTrue(recorder.failure instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testCheckpointOutsideOfExecutor() {
+		// has no effect on other threads
+		LayoutExecutor.checkpoint();
+		LayoutExecutor.progress(0.5);
+	}
+}
@@ -0,0 +1,87 @@
+package Tests;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import Embeddings.MultilevelEmbedding;
+import Graph.Graph;
+import Graph.Node;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.MultilevelEmbedding MultilevelEmbedding}.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestMultilevelEmbedding {
+
+	/**
+	 * Builds a grid graph with k times k nodes.
+	 */
+	private static Graph grid(int k) {
+		Graph G = new Graph();
+		Node[] nodes = new Node[k * k];
+		for (int i = 0; i < k * k; i++) {
+			nodes[i] = new Node(Integer.toString(i));
+			G.addNode(nodes[i]);
+		}
+		for (int r = 0; r < k; r++)
+			for (int c = 0; c < k; c++) {
+				if (c + 1 < k)
+					G.addEdge(nodes[r * k + c], nodes[r * k + c + 1]);
+				if (r + 1 < k)
+					G.addEdge(nodes[r * k + c], nodes[(r + 1) * k + c]);
+			}
+		return G;
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		MultilevelEmbedding.defineLayout(new Graph(), 2);
+	}
+
+	@Test
+	public void testSmallGraph() {
+		Graph G = grid(3);
+		MultilevelEmbedding.defineLayout(G, 2);
+		for (Node n : G.nodes()) {
+			assertTrue(n.x() >= 0 && n.x() <= 1);
+			assertTrue(n.y() >= 0 && n.y() <= 1);
+		}
+	}
+
+	@Test
+	public void testLargeGraph() {
+		Graph G = grid(25);
+		MultilevelEmbedding.defineLayout(G, 2);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		int n = G.nodes().size();
+		for (int i = 0; i < n; i++) {
+			assertTrue(x[i] >= 0 && x[i] <= 1);
+			assertTrue(y[i] >= 0 && y[i] <= 1);
+		}
+		// adjacent nodes should be much closer than arbitrary pairs of nodes
+		double edgeLength = 0;
+		for (int[] e : G.edges())
+			edgeLength += Math.hypot(x[e[0]] - x[e[1]], y[e[0]] - y[e[1]]);
+		edgeLength /= G.edges().size();
+		double pairDistance = 0;
+		for (int i = 0; i < n; i++)
+			pairDistance += Math.hypot(x[i] - x[(i * 7919) % n], y[i] - y[(i * 7919) % n]);
+		pairDistance /= n;
+		assertTrue(edgeLength < pairDistance / 5);
+	}
+
+	@Test
+	public void testLargeGraph3D() {
+		Graph G = grid(20);
+		MultilevelEmbedding.defineLayout(G, 3);
+		assertTrue(G.hasCoordinates3D());
+		for (Node n : G.nodes()) {
+			assertTrue(n.x() >= 0 && n.x() <= 1);
+			assertTrue(n.y() >= 0 && n.y() <= 1);
+		}
+	}
+}
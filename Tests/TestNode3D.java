@@ -1,6 +1,9 @@
 package Tests;
 
 import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -44,4 +47,16 @@ public class TestNode3D {
 		assertTrue(newPos[0] == 1 && newPos[1] == 1);
 	}
 
+	@Test
+	public void testRotationPerGraph() {
+		Graph G2 = new Graph();
+		G2.addNode(new Node3D("m1", new double[] { 0, 0 }, new double[] { 1, 0, 0 }));
+		G2.addNode(new Node3D("m2", new double[] { 0, 0 }, new double[] { 0, 1, 0 }));
+		double[][] axes = G.camera().axes();
+		Node3D.rotate("d", G2);
+		assertArrayEquals(axes[0], G.camera().axes()[0], 0);
+		assertArrayEquals(axes[1], G.camera().axes()[1], 0);
+		assertFalse(Arrays.equals(axes[0], G2.camera().axes()[0]));
+	}
+
 }
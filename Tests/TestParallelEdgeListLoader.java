@@ -0,0 +1,85 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import Graph.EdgeListLoader;
+import Graph.Graph;
+import Graph.ParallelEdgeListLoader;
+
+/**
+ * JUnit 4 test class for the class {@link Graph.ParallelEdgeListLoader ParallelEdgeListLoader}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ *
+ */
+public class TestParallelEdgeListLoader {
+
+	/**
+	 * Checks whether two graphs have the same nodes in the same order and the
+	 * same edges, where the edges of the second graph are sorted.
+	 */
+	private static void assertSameGraph(Graph expected, Graph actual) {
+		assertEquals(expected.nodes().size(), actual.nodes().size());
+		for (int i = 0; i < expected.nodes().size(); i++)
+			assertEquals(expected.nodes().get(i).name(), actual.nodes().get(i).name());
+		assertEquals(expected.edges().size(), actual.edges().size());
+		for (int i = 0; i < actual.edges().size(); i++) {
+			int[] e = actual.edges().get(i);
+			if (i > 0) {
+				int[] f = actual.edges().get(i - 1);
+				assertTrue(f[0] < e[0] || (f[0] == e[0] && f[1] < e[1]));
+			}
+			assertTrue(expected.outEdges(expected.nodes().get(e[0])).contains(e[1]));
+		}
+		for (int i = 0; i < expected.nodes().size(); i++) {
+			assertEquals(expected.outDegree(i), actual.outDegree(i));
+			assertEquals(expected.inDegree(i), actual.inDegree(i));
+		}
+	}
+
+	@Test
+	public void testTestGraphs() throws IOException {
+		File[] files = new File("TestGraphs").listFiles();
+		assertNotNull(files);
+		for (File file : files)
+			assertSameGraph(EdgeListLoader.load(file), ParallelEdgeListLoader.load(file));
+	}
+
+	@Test
+	public void testManyChunks() throws IOException {
+		File file = File.createTempFile("edges", ".txt");
+		file.deleteOnExit();
+		Random random = new Random(0);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			text.append("node").append(random.nextInt(800)).append(' ').append(random.nextInt(800)).append('\n');
+		text.append("last line");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		Graph expected = EdgeListLoader.load(file);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int chunkSize : new int[] { 1, 100, 4096 }) {
+				Graph G = ParallelEdgeListLoader.load(file, pool, chunkSize);
+				assertSameGraph(expected, G);
+				// edges added later are still checked for duplicates
+				int[] e = G.edges().get(0);
+				G.addEdge(G.nodes().get(e[0]), G.nodes().get(e[1]));
+				assertEquals(expected.edges().size(), G.edges().size());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
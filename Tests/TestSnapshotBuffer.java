@@ -0,0 +1,76 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import Embeddings.SnapshotBuffer;
+
+/**
+ * JUnit 4 test class for the class {@link Embeddings.SnapshotBuffer SnapshotBuffer}.
+ *
+ * @author Lukas W&oumlgerer
+ * @version 1.0.0, 18th October 2026
+ */
+public class TestSnapshotBuffer {
+
+	@Test
+	public void testEmpty() {
+		SnapshotBuffer buffer = new SnapshotBuffer(3, 2);
+		assertEquals(3, buffer.size());
+		assertEquals(2, buffer.dimension());
+		assertNull(buffer.poll());
+	}
+
+	@Test
+	public void testNewestSnapshot() {
+		SnapshotBuffer buffer = new SnapshotBuffer(2, 2);
+		buffer.publish(new double[][] { { 1, 2 }, { 3, 4 } }, 1);
+		buffer.publish(new double[][] { { 5, 6 }, { 7, 8 } }, 2);
+		SnapshotBuffer.Snapshot snapshot = buffer.poll();
+		assertEquals(2, snapshot.iteration());
+		assertArrayEquals(new double[] { 5, 6 }, snapshot.coordinates(0), 0);
+		assertArrayEquals(new double[] { 7, 8 }, snapshot.coordinates(1), 0);
+		assertNull(buffer.poll());
+
+		// the returned snapshot is not overwritten by later ones
+		buffer.publish(new double[][] { { 9, 9 }, { 9, 9 } }, 3);
+		buffer.publish(new double[][] { { 0, 0 }, { 0, 0 } }, 4);
+		buffer.publish(new double[][] { { 1, 1 }, { 1, 1 } }, 5);
+		assertArrayEquals(new double[] { 5, 6 }, snapshot.coordinates(0), 0);
+		snapshot = buffer.poll();
+		assertEquals(5, snapshot.iteration());
+		assertArrayEquals(new double[] { 1, 1 }, snapshot.coordinates(1), 0);
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		int n = 1000;
+		int snapshots = 20000;
+		SnapshotBuffer buffer = new SnapshotBuffer(n, 3);
+		Thread writer = new Thread(() -> {
+			double[][] p = new double[3][n];
+			for (int s = 1; s <= snapshots; s++) {
+				for (int k = 0; k < 3; k++)
+					Arrays.fill(p[k], s);
+				buffer.publish(p, s);
+			}
+		});
+		writer.start();
+		int last = 0;
+		while (last < snapshots) {
+			SnapshotBuffer.Snapshot snapshot = buffer.poll();
+			if (snapshot == null)
+				continue;
+			// snapshots are never torn and never older than the last one
+			assertTrue(snapshot.iteration() > last);
+			last = snapshot.iteration();
+			for (int k = 0; k < 3; k++)
+				for (double c : snapshot.coordinates(k))
+					assertEquals(last, c, 0);
+		}
+		writer.join();
+	}
+}
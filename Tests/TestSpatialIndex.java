@@ -0,0 +1,212 @@
+package Tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import Graph.Graph;
+import GraphDrawing.SpatialIndex;
+
+/**
+ * JUnit 4 test class for the class {@link GraphDrawing.SpatialIndex SpatialIndex}.
+ *
+ * @author Clemens Hofstadler
+ * @version 1.0.0, 18th October 2026
+ */
+public class TestSpatialIndex {
+
+	/**
+	 * A graph with n random nodes in the unit square and m random edges.
+	 */
+	private static Graph randomGraph(int n, int m, long seed) {
+		Random random = new Random(seed);
+		Graph G = new Graph();
+		String[] names = new String[n];
+		for (int i = 0; i < n; i++)
+			names[i] = Integer.toString(i);
+		G.addNodes(names);
+		int[] from = new int[m];
+		int[] to = new int[m];
+		for (int e = 0; e < m; e++) {
+			from[e] = random.nextInt(n);
+			to[e] = random.nextInt(n);
+		}
+		G.addEdges(from, to, m);
+		for (int i = 0; i < n; i++) {
+			G.xCoordinates()[i] = random.nextDouble();
+			G.yCoordinates()[i] = random.nextDouble();
+		}
+		return G;
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		SpatialIndex index = new SpatialIndex(new Graph());
+		assertEquals(0, index.nodes(0, 0, 1, 1).length);
+		assertEquals(0, index.edges(0, 0, 1, 1).length);
+	}
+
+	/**
+	 * Whether the straight line from (x1, y1) to (x2, y2) ends in or crosses
+	 * a side of a rectangle.
+	 */
+	private static boolean lineIntersects(double x1, double y1, double x2, double y2,
+			double minX, double minY, double maxX, double maxY) {
+		if (x1 >= minX && x1 <= maxX && y1 >= minY && y1 <= maxY)
+			return true;
+		for (double side : new double[] { minX, maxX })
+			if (x1 != x2 && side >= Math.min(x1, x2) && side <= Math.max(x1, x2)) {
+				double y = y1 + (y2 - y1) * (side - x1) / (x2 - x1);
+				if (y >= minY && y <= maxY)
+					return true;
+			}
+		for (double side : new double[] { minY, maxY })
+			if (y1 != y2 && side >= Math.min(y1, y2) && side <= Math.max(y1, y2)) {
+				double x = x1 + (x2 - x1) * (side - y1) / (y2 - y1);
+				if (x >= minX && x <= maxX)
+					return true;
+			}
+		return false;
+	}
+
+	/**
+	 * Whether the upper half of the circle around (cx, cy) with radius r has
+	 * an end in or crosses a side of a rectangle.
+	 */
+	private static boolean arcIntersects(double cx, double cy, double r,
+			double minX, double minY, double maxX, double maxY) {
+		if (cx - r >= minX && cx - r <= maxX && cy >= minY && cy <= maxY)
+			return true;
+		for (double side : new double[] { minX, maxX })
+			if (Math.abs(side - cx) <= r) {
+				double y = cy - Math.sqrt(r * r - (side - cx) * (side - cx));
+				if (y >= minY && y <= maxY)
+					return true;
+			}
+		for (double side : new double[] { minY, maxY })
+			if (side <= cy && side >= cy - r) {
+				double dx = Math.sqrt(r * r - (cy - side) * (cy - side));
+				if (cx - dx >= minX && cx - dx <= maxX || cx + dx >= minX && cx + dx <= maxX)
+					return true;
+			}
+		return false;
+	}
+
+	/**
+	 * The edges intersecting a rectangle when drawn as straight lines or as
+	 * semicircles, found by checking every edge.
+	 */
+	private static int[] intersectingEdges(Graph G, double minX, double minY, double maxX, double maxY) {
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
+		ArrayList<Integer> found = new ArrayList<>();
+		for (int i = 0; i < G.nodes().size(); i++)
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				int j = targets[e];
+				boolean intersects = lineIntersects(x[i], y[i], x[j], y[j], minX, minY, maxX, maxY);
+				if (x[i] != x[j] && Math.abs(i - j) >= 2) {
+					double r = Math.abs(x[j] - x[i]) / 2;
+					int left = x[i] < x[j] ? i : j;
+					intersects |= arcIntersects(x[left] + r, y[left], r, minX, minY, maxX, maxY);
+				}
+				if (intersects)
+					found.add(e);
+			}
+		return found.stream().mapToInt(e -> e).toArray();
+	}
+
+	@Test
+	public void testLongEdgeThroughRectangle() {
+		Graph G = new Graph();
+		G.addNodes(new String[] { "a", "b", "c" });
+		G.addEdges(new int[] { 0 }, new int[] { 2 }, 1);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		x[0] = 0; y[0] = 0.5;
+		x[1] = 0.5; y[1] = 0;
+		x[2] = 1; y[2] = 0.5;
+		SpatialIndex index = new SpatialIndex(G);
+		// no node, but the edge crosses the rectangle
+		assertEquals(0, index.nodes(0.4, 0.4, 0.6, 0.6).length);
+		assertArrayEquals(new int[] { 0 }, index.edges(0.4, 0.4, 0.6, 0.6));
+		// the edge drawn as semicircle reaches up to y = 0
+		assertArrayEquals(new int[] { 1 }, index.nodes(0.4, -0.1, 0.6, 0.1));
+		assertArrayEquals(new int[] { 0 }, index.edges(0.4, -0.1, 0.6, 0.1));
+		// within the bounding box, but between the line and the semicircle
+		assertEquals(0, index.edges(0.2, 0.35, 0.3, 0.45).length);
+		// below the edge
+		assertEquals(0, index.edges(0.4, 0.7, 0.6, 0.8).length);
+	}
+
+	@Test
+	public void testConsecutiveNodesHaveNoSemicircle() {
+		Graph G = new Graph();
+		G.addNodes(new String[] { "a", "b" });
+		G.addEdges(new int[] { 0 }, new int[] { 1 }, 1);
+		G.xCoordinates()[1] = 1;
+		SpatialIndex index = new SpatialIndex(G);
+		assertArrayEquals(new int[] { 0 }, index.edges(0.4, -0.1, 0.6, 0.1));
+		assertEquals(0, index.edges(0.4, -0.6, 0.6, -0.4).length);
+	}
+
+	@Test
+	public void testAgainstAllNodesAndEdges() {
+		Graph G = randomGraph(2000, 5000, 7);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		SpatialIndex index = new SpatialIndex(G);
+		Random random = new Random(8);
+		for (int q = 0; q < 50; q++) {
+			double minX = random.nextDouble() * 1.2 - 0.1;
+			double minY = random.nextDouble() * 1.8 - 0.7;
+			double maxX = minX + random.nextDouble() * 0.3;
+			double maxY = minY + random.nextDouble() * 0.3;
+
+			ArrayList<Integer> nodes = new ArrayList<>();
+			for (int i = 0; i < G.nodes().size(); i++)
+				if (x[i] >= minX && x[i] <= maxX && y[i] >= minY && y[i] <= maxY)
+					nodes.add(i);
+			assertArrayEquals(nodes.stream().mapToInt(i -> i).toArray(), index.nodes(minX, minY, maxX, maxY));
+			assertArrayEquals(intersectingEdges(G, minX, minY, maxX, maxY), index.edges(minX, minY, maxX, maxY));
+		}
+	}
+
+	@Test
+	public void testSmallWindowsOfRandomLayout() {
+		// long edges everywhere, unlike a grid layout
+		Graph G = randomGraph(10000, 20000, 9);
+		double[] x = G.xCoordinates();
+		double[] y = G.yCoordinates();
+		int[] offsets = G.outOffsets();
+		int[] targets = G.outTargets();
+		SpatialIndex index = new SpatialIndex(G);
+		Random random = new Random(10);
+		int found = 0, boxes = 0;
+		for (int q = 0; q < 100; q++) {
+			double minX = random.nextDouble() * 0.99;
+			double minY = random.nextDouble() * 0.99;
+			double maxX = minX + 0.01;
+			double maxY = minY + 0.01;
+			int[] edges = index.edges(minX, minY, maxX, maxY);
+			assertArrayEquals(intersectingEdges(G, minX, minY, maxX, maxY), edges);
+			found += edges.length;
+			for (int i = 0; i < G.nodes().size(); i++)
+				for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+					double x1 = x[i], y1 = y[i], x2 = x[targets[e]], y2 = y[targets[e]];
+					double top = Math.min(Math.min(y1, y2), (x1 < x2 ? y1 : y2) - Math.abs(x2 - x1) / 2);
+					if (Math.min(x1, x2) <= maxX && Math.max(x1, x2) >= minX && top <= maxY
+							&& Math.max(y1, y2) >= minY)
+						boxes++;
+				}
+		}
+		// a window of 1% x 1% is crossed by a few percent of the edges,
+		// but overlaps the bounding boxes of about a third of them
+		assertTrue(found < 0.05 * 100 * G.outTargets().length);
+		assertTrue(10 * found < boxes);
+	}
+}
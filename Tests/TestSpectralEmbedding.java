@@ -10,7 +10,6 @@ import Embeddings.SpectralEmbedding;
 import Embeddings.SpringEmbedding;
 import Graph.Graph;
 import Graph.Node;
-import Graph.Node3D;
 /**
  * JUnit 4 test class for the class {@link Embeddings.SpectralEmbedding SpectralEmbedding}.
  * 
@@ -82,7 +81,7 @@ public class TestSpectralEmbedding {
 		//due to rounding error when computing eigenvalues
 		//we only compare whether they are close together
 		for(int i = 0; i < G.nodes().size();i++) {
-			double[] realPos = ((Node3D) G.nodes().get(i)).getposition3D();
+			double[] realPos = {G.coordinates3D()[0][i], G.coordinates3D()[1][i], G.coordinates3D()[2][i]};
 			double diff = Math.sqrt(Math.pow(realPos[0] - expectedPos[i][0],2) + Math.pow(realPos[1] - expectedPos[i][1],2) + Math.pow(realPos[2] - expectedPos[i][2],2));
 			assertTrue(diff < Math.pow(10, -10));
 		}
@@ -109,4 +108,56 @@ public class TestSpectralEmbedding {
 			assertTrue(G.nodes().get(i).equals(G2.nodes().get(i)));
 
 	}
+	
+	@Test
+	public void testLargeCycle() {
+		//the eigenvalue of the two smallest non-zero eigenvalues 
+		//of a cycle has multiplicity 2, the nodes lie on a circle
+		Graph G2 = new Graph();
+		Node[] cycle = new Node[600];
+		for(int i = 0; i < cycle.length; i++) {
+			cycle[i] = new Node(Integer.toString(i));
+			G2.addNode(cycle[i]);
+		}
+		for(int i = 0; i < cycle.length; i++)
+			G2.addEdge(cycle[i], cycle[(i+1) % cycle.length]);
+		SpectralEmbedding.defineLayout(G2, 2);
+		for(Node n: G2.nodes()) {
+			double radius = Math.sqrt(Math.pow(n.x() - 0.5, 2) + Math.pow(n.y() - 0.5, 2));
+			assertEquals(0.5, radius, 1e-6);
+		}
+	}
+	
+	@Test
+	public void testLargeGrid() {
+		//for a grid with 20 rows and 30 columns the first eigenvector
+		//is monotone along the rows, the second one along the columns
+		int rows = 20;
+		int columns = 30;
+		Graph G2 = new Graph();
+		Node[] grid = new Node[rows*columns];
+		for(int i = 0; i < grid.length; i++) {
+			grid[i] = new Node(Integer.toString(i));
+			G2.addNode(grid[i]);
+		}
+		for(int r = 0; r < rows; r++)
+			for(int c = 0; c < columns; c++) {
+				if(c + 1 < columns)
+					G2.addEdge(grid[r*columns + c], grid[r*columns + c + 1]);
+				if(r + 1 < rows)
+					G2.addEdge(grid[r*columns + c], grid[(r+1)*columns + c]);
+			}
+		SpectralEmbedding.defineLayout(G2, 2);
+		double[] x = G2.xCoordinates();
+		double[] y = G2.yCoordinates();
+		//the corners are mapped to the corners of the unit square
+		double[] corners = {x[0], y[0], x[columns-1], y[columns-1], 
+				x[(rows-1)*columns], y[(rows-1)*columns], x[rows*columns-1], y[rows*columns-1]};
+		for(double corner: corners)
+			assertTrue(corner < 1e-6 || corner > 1 - 1e-6);
+		//nodes in the same column have the same x-coordinate
+		for(int r = 1; r < rows; r++)
+			for(int c = 0; c < columns; c++)
+				assertEquals(x[c], x[r*columns + c], 1e-6);
+	}
 }
@@ -4,7 +4,10 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 import org.junit.BeforeClass;
 
+import java.util.concurrent.ForkJoinPool;
+
 import Embeddings.GridEmbedding;
+import Embeddings.SnapshotBuffer;
 import Embeddings.SpringEmbedding;
 import Graph.Graph;
 import Graph.Node;
@@ -57,4 +60,153 @@ public class TestSpringEmbedding {
 			assertTrue(diff < 1e-12);
 		}
 	}
+
+	@Test
+	public void testNodeIdentity3D() {
+		Graph G2 = new Graph();
+		Node[] nodes2 = new Node[3];
+		for (int i = 0; i < 3; i++) {
+			nodes2[i] = new Node(Integer.toString(i));
+			G2.addNode(nodes2[i]);
+		}
+		G2.addEdge(nodes2[0], nodes2[1]);
+		G2.addEdge(nodes2[1], nodes2[2]);
+
+		SpringEmbedding.defineLayout(G2, 3, 0);
+		assertTrue(G2.hasCoordinates3D());
+		for (int i = 0; i < 3; i++) {
+			assertSame(nodes2[i], G2.nodes().get(i));
+			assertEquals(G2.xCoordinates()[i], nodes2[i].x(), 0);
+		}
+	}
+
+	@Test
+	public void testParallelDeterministic() {
+		double[][] results = new double[2][];
+		int[] threads = { 1, 3 };
+		for (int t = 0; t < 2; t++) {
+			Graph G2 = new Graph();
+			Node[] nodes2 = new Node[600];
+			for (int i = 0; i < nodes2.length; i++) {
+				nodes2[i] = new Node(Integer.toString(i));
+				G2.addNode(nodes2[i]);
+			}
+			for (int i = 0; i < nodes2.length; i++) {
+				G2.addEdge(nodes2[i], nodes2[(i + 1) % nodes2.length]);
+				G2.addEdge(nodes2[i], nodes2[(7 * i) % nodes2.length]);
+			}
+			ForkJoinPool pool = new ForkJoinPool(threads[t]);
+			SpringEmbedding.defineLayoutParallel(G2, 2, 1, 0, pool, 42);
+			pool.shutdown();
+			results[t] = G2.xCoordinates().clone();
+			for (Node n : G2.nodes()) {
+				assertTrue(n.x() >= 0 && n.x() <= 1);
+				assertTrue(n.y() >= 0 && n.y() <= 1);
+			}
+		}
+		assertArrayEquals(results[0], results[1], 0);
+	}
+
+	@Test
+	public void testConcurrentInstances() throws Exception {
+		Graph[] graphs = new Graph[4];
+		for (int t = 0; t < graphs.length; t++) {
+			graphs[t] = new Graph();
+			Node[] nodes2 = new Node[30];
+			for (int i = 0; i < nodes2.length; i++) {
+				nodes2[i] = new Node(Integer.toString(i));
+				graphs[t].addNode(nodes2[i]);
+			}
+			for (int i = 0; i < nodes2.length; i++)
+				graphs[t].addEdge(nodes2[i], nodes2[(i + 1 + t) % nodes2.length]);
+		}
+		// sequential reference
+		double[][] expected = new double[graphs.length][];
+		for (int t = 0; t < graphs.length; t++) {
+			SpringEmbedding engine = new SpringEmbedding();
+			engine.setSeed(t);
+			engine.layout(graphs[t], 2, 1);
+			expected[t] = graphs[t].xCoordinates().clone();
+		}
+		// all layouts at the same time
+		Thread[] threads = new Thread[graphs.length];
+		for (int t = 0; t < graphs.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread(() -> {
+				SpringEmbedding engine = new SpringEmbedding();
+				engine.setSeed(seed);
+				engine.layout(graphs[seed], 2, 1);
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		for (int t = 0; t < graphs.length; t++)
+			assertArrayEquals(expected[t], graphs[t].xCoordinates(), 0);
+	}
+
+	@Test
+	public void testSnapshots() {
+		Graph G2 = new Graph();
+		G2.addNodes(new String[] { "a", "b", "c", "d", "e" });
+		G2.addEdges(new int[] { 0, 1, 2, 3, 4 }, new int[] { 1, 2, 3, 4, 0 }, 5);
+		SpringEmbedding engine = new SpringEmbedding();
+		engine.setSeed(3);
+		engine.layout(G2, 2, 1);
+		double[] expected = G2.xCoordinates().clone();
+
+		// publishing snapshots does not change the layout
+		SnapshotBuffer buffer = new SnapshotBuffer(5, 2);
+		engine = new SpringEmbedding();
+		engine.setSeed(3);
+		engine.setSnapshots(buffer, 10, 0);
+		engine.layout(G2, 2, 1);
+		assertArrayEquals(expected, G2.xCoordinates(), 0);
+
+		// the newest snapshot is the last multiple of 10
+		SnapshotBuffer.Snapshot snapshot = buffer.poll();
+		assertNotNull(snapshot);
+		assertTrue(snapshot.iteration() > 0 && snapshot.iteration() % 10 == 0);
+		assertEquals(5, snapshot.coordinates(1).length);
+		assertNull(buffer.poll());
+
+		// buffers of other sizes are ignored
+		engine.setSnapshots(new SnapshotBuffer(4, 2), 1, 0);
+		engine.layout(G2, 2, 1);
+	}
+
+	@Test
+	public void testStop() throws Exception {
+		Graph G2 = new Graph();
+		int n = 3000;
+		String[] names = new String[n];
+		int[] from = new int[n];
+		int[] to = new int[n];
+		for (int i = 0; i < n; i++) {
+			names[i] = Integer.toString(i);
+			from[i] = i;
+			to[i] = (i + 1) % n;
+		}
+		G2.addNodes(names);
+		G2.addEdges(from, to, n);
+		SpringEmbedding engine = new SpringEmbedding();
+		SnapshotBuffer buffer = new SnapshotBuffer(n, 2);
+		engine.setSnapshots(buffer, 1, 0);
+		Thread thread = new Thread(() -> engine.layout(G2, 2, 0));
+		thread.start();
+		// stop as soon as the first iteration is done
+		SnapshotBuffer.Snapshot snapshot;
+		while ((snapshot = buffer.poll()) == null)
+			Thread.sleep(1);
+		engine.stop();
+		thread.join(60000);
+		assertFalse(thread.isAlive());
+		assertTrue(engine.stopped());
+		assertTrue(snapshot.iteration() < 1000);
+		// the stopped layout is scaled like a finished one
+		for (int i = 0; i < n; i++) {
+			assertTrue(G2.xCoordinates()[i] >= 0 && G2.xCoordinates()[i] <= 1);
+			assertTrue(G2.yCoordinates()[i] >= 0 && G2.yCoordinates()[i] <= 1);
+		}
+	}
 }